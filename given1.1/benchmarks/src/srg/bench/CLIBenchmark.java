@@ -0,0 +1,54 @@
+package srg.bench;
+
+import org.openjdk.jmh.annotations.*;
+import srg.cli.given.ByteBufferIO;
+import srg.cli.given.CLIHandler;
+import srg.cli.given.Command;
+import srg.cli.given.NullIO;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks parsing one line of each kind of command, given as a String and as bytes.
+ * Run with -prof gc to see the bytes allocated by each parse.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CLIBenchmark {
+    @Param({"show actions", "fly to \"Las Cyamis e1\"", "buy TRITIUM 200", "show", "nonsense"})
+    String line;
+
+    CLIHandler handler;
+    NullIO io;
+    ByteBufferIO bytes;
+    ByteBuffer input;
+
+    @Setup
+    public void setUp() {
+        handler = new CLIHandler();
+        io = new NullIO();
+        bytes = new ByteBufferIO();
+        input = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+        bytes.setInput(input);
+    }
+
+    @Benchmark
+    public Command parseOne() {
+        io.addInputLine(line);
+        return handler.parseOne(io);
+    }
+
+    @Benchmark
+    public Command parseBytes() {
+        input.rewind();
+        bytes.clearOutput();
+        return handler.parseOne(bytes);
+    }
+}
@@ -0,0 +1,45 @@
+package srg.bench;
+
+import org.openjdk.jmh.annotations.*;
+import srg.exceptions.InsufficientCapcaityException;
+import srg.exceptions.InsufficientResourcesException;
+import srg.resources.FuelContainer;
+import srg.resources.FuelGrade;
+import srg.ship.CargoHold;
+import srg.ship.RoomTier;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks consuming fuel from a cargoHold filled with containers
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CargoHoldBenchmark {
+    /**
+     * Number of TRITIUM containers, up to the capacity of a PRIME cargoHold
+     */
+    @Param({"5", "10", "15"})
+    int containers;
+
+    CargoHold cargoHold;
+
+    @Setup(Level.Invocation)
+    public void fill() throws InsufficientCapcaityException {
+        cargoHold = new CargoHold(RoomTier.PRIME);
+        for (int i = 0; i < containers; i++) {
+            cargoHold.storeResource(new FuelContainer(FuelGrade.TRITIUM, 100));
+        }
+    }
+
+    @Benchmark
+    public CargoHold consumeResource() throws InsufficientResourcesException {
+        // Empties most of the containers and leaves one partly used
+        cargoHold.consumeResource(FuelGrade.TRITIUM, containers * 100 - 50);
+        return cargoHold;
+    }
+}
@@ -0,0 +1,60 @@
+package srg.bench;
+
+import org.openjdk.jmh.annotations.*;
+import srg.exceptions.InsufficientResourcesException;
+import srg.exceptions.NoPathException;
+import srg.ports.SpacePort;
+import srg.ship.CargoHold;
+import srg.ship.NavResult;
+import srg.ship.NavigationRoom;
+import srg.ship.RoomTier;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks a flight to a port out of range, which fails every time,
+ * by catching the exception of flyTo, with and without stack traces, and by the result of tryFlyTo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FailureBenchmark {
+    NavigationRoom navigationRoom;
+    CargoHold cargoHold;
+    String outOfRange;
+
+    @Setup
+    public void setUp() {
+        List<SpacePort> galaxyMap = Maps.randomMap(1000, 4);
+        navigationRoom = new NavigationRoom(RoomTier.BASIC, galaxyMap);
+        cargoHold = new CargoHold(RoomTier.BASIC);
+        List<SpacePort> inRange = navigationRoom.getPortsInFlyRange();
+        outOfRange = galaxyMap.stream().filter(port -> !inRange.contains(port)
+                && port != navigationRoom.getCurrentPort()).findFirst().orElseThrow().getName();
+    }
+
+    @Benchmark
+    public Exception flyTo() {
+        try {
+            navigationRoom.flyTo(outOfRange, cargoHold);
+            return null;
+        } catch (NoPathException | InsufficientResourcesException error) {
+            return error;
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dsrg.exceptions.stackless=true")
+    public Exception flyToStackless() {
+        return flyTo();
+    }
+
+    @Benchmark
+    public NavResult tryFlyTo() {
+        return navigationRoom.tryFlyTo(outOfRange, cargoHold);
+    }
+}
@@ -0,0 +1,101 @@
+package srg.bench;
+
+import org.openjdk.jmh.annotations.*;
+import srg.cli.given.ByteBufferIO;
+import srg.cli.given.CLIHandler;
+import srg.cli.given.ConsoleIO;
+import srg.cli.given.IO;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks replaying a long command script through IO, as when a script is piped into Main
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IOBenchmark {
+    private static final String[] LINES = {
+            "show actions", "show status", "fly to \"Las Cyamis e1\"", "buy TRITIUM 200", "show"
+    };
+
+    @Param({"1000000"})
+    int lineCount;
+
+    byte[] script;
+
+    @Setup
+    public void setUp() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < lineCount; i++) {
+            builder.append(LINES[i % LINES.length]).append('\n');
+        }
+        script = builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads every line and echoes it back
+     */
+    @Benchmark
+    public int echo() {
+        IO io = new ConsoleIO(new ByteArrayInputStream(script), OutputStream.nullOutputStream());
+        int lines = 0;
+        try {
+            while (true) {
+                io.write("~> ");
+                io.writeLn(io.readLine());
+                lines++;
+            }
+        } catch (NoSuchElementException end) {
+            return lines;
+        }
+    }
+
+    /**
+     * Parses every line, writing the prompts and errors the parser writes
+     */
+    @Benchmark
+    public int parse() {
+        IO io = new ConsoleIO(new ByteArrayInputStream(script), OutputStream.nullOutputStream());
+        CLIHandler handler = new CLIHandler();
+        int commands = 0;
+        try {
+            while (true) {
+                if (handler.parseOne(io) != null) {
+                    commands++;
+                }
+            }
+        } catch (NoSuchElementException end) {
+            return commands;
+        }
+    }
+
+    /**
+     * Parses every line straight from the bytes of the script, clearing the output after each line
+     */
+    @Benchmark
+    public int parseBytes() {
+        ByteBufferIO io = new ByteBufferIO();
+        io.setInput(ByteBuffer.wrap(script));
+        CLIHandler handler = new CLIHandler();
+        int commands = 0;
+        try {
+            while (true) {
+                io.clearOutput();
+                if (handler.parseOne(io) != null) {
+                    commands++;
+                }
+            }
+        } catch (NoSuchElementException end) {
+            return commands;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package srg.bench;
+
+import org.openjdk.jmh.annotations.*;
+import srg.cli.given.MapGenerator;
+import srg.ports.SpacePort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks generating the fixed galaxy map and procedural maps of increasing size
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapGeneratorBenchmark {
+    @Param({"10000", "1000000"})
+    int portCount;
+
+    @Param({"64"})
+    int clusterCount;
+
+    @Benchmark
+    public List<SpacePort> generateMap() {
+        return new MapGenerator().generateMap();
+    }
+
+    @Benchmark
+    public List<SpacePort> generateProceduralMap() {
+        return new MapGenerator(4, portCount, clusterCount, 100).generateMap();
+    }
+
+    @Benchmark
+    public long streamProceduralMap() {
+        // Counts the ports without keeping them
+        return new MapGenerator(4, portCount, clusterCount, 100).streamMap()
+                .filter(port -> port.getPosition().x >= 0).count();
+    }
+}
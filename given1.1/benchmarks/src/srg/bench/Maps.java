@@ -0,0 +1,41 @@
+package srg.bench;
+
+import srg.ports.Position;
+import srg.ports.ShipYard;
+import srg.ports.SpacePort;
+import srg.ports.Store;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds galaxy maps of any size for the benchmarks
+ */
+final class Maps {
+    private Maps() {
+    }
+
+    /**
+     * Builds a map with a Store, ShipYard and SpacePort repeated at random positions.
+     * The ports are spread so that each one has a similar number of neighbours in fly range whatever the size.
+     * @param size Number of ports
+     * @param seed Seed of the positions
+     * @return The generated map
+     */
+    static List<SpacePort> randomMap(int size, long seed) {
+        Random rand = new Random(seed);
+        int extent = (int) Math.max(1000, Math.cbrt(size) * 100);
+        List<SpacePort> ports = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Position position = new Position(rand.nextInt(extent), rand.nextInt(extent),
+                    rand.nextInt(extent));
+            switch (i % 3) {
+                case 0 -> ports.add(new Store("Port " + i, position));
+                case 1 -> ports.add(new ShipYard("Port " + i, position, List.of("CargoHold")));
+                default -> ports.add(new SpacePort("Port " + i, position));
+            }
+        }
+        return ports;
+    }
+}
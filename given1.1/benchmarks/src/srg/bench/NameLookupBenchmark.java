@@ -0,0 +1,67 @@
+package srg.bench;
+
+import org.openjdk.jmh.annotations.*;
+import srg.ports.PortNameIndex;
+import srg.ports.PortTable;
+import srg.ports.SpacePort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks finding a port by name with a scan of the map, as NavigationRoom used to,
+ * and with a PortNameIndex over port objects and over a PortTable
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NameLookupBenchmark {
+    @Param({"1000", "1000000"})
+    int mapSize;
+
+    List<SpacePort> ports;
+    PortNameIndex objects;
+    PortNameIndex table;
+    String name;
+
+    @Setup
+    public void setUp() {
+        ports = Maps.randomMap(mapSize, 1);
+        objects = new PortNameIndex(ports);
+        table = new PortNameIndex(PortTable.of(ports));
+        name = ports.get(mapSize / 2).getName();
+    }
+
+    @Benchmark
+    public SpacePort scan() {
+        for (SpacePort port : ports) {
+            if (name.equals(port.getName())) {
+                return port;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public int indexObjects() {
+        return objects.indexOf(name);
+    }
+
+    @Benchmark
+    public int indexTable() {
+        return table.indexOf(name);
+    }
+
+    @Benchmark
+    public int indexIgnoreCase() {
+        return objects.indexOfIgnoreCase(name);
+    }
+
+    @Benchmark
+    public List<SpacePort> complete() {
+        return objects.findByPrefix("Port 5000", 10);
+    }
+}
@@ -0,0 +1,39 @@
+package srg.bench;
+
+import org.openjdk.jmh.annotations.*;
+import srg.ports.SpacePort;
+import srg.ship.NavigationRoom;
+import srg.ship.RoomTier;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks listing the navigation actions on maps of increasing size
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NavigationBenchmark {
+    @Param({"15", "1000", "100000"})
+    int mapSize;
+
+    @Param({"BASIC", "PRIME"})
+    RoomTier tier;
+
+    NavigationRoom navigationRoom;
+
+    @Setup
+    public void setUp() {
+        List<SpacePort> galaxyMap = Maps.randomMap(mapSize, 4);
+        navigationRoom = new NavigationRoom(tier, galaxyMap);
+    }
+
+    @Benchmark
+    public List<String> getActions() {
+        return navigationRoom.getActions();
+    }
+}
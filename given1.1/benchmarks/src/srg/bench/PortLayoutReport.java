@@ -0,0 +1,37 @@
+package srg.bench;
+
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+import srg.ports.PortTable;
+import srg.ports.SpacePort;
+
+import java.util.List;
+
+/**
+ * Reports the memory held by the same galaxy map as a list of port objects and as a PortTable.
+ * Stores are left out of the comparison, since each one holds its own stock whichever way the map is kept.
+ */
+public final class PortLayoutReport {
+    private PortLayoutReport() {
+    }
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        List<SpacePort> ports = Maps.randomMap(size, 1);
+        List<SpacePort> withoutStores = ports.stream()
+                .filter(port -> !(port instanceof srg.ports.Store))
+                .toList();
+        PortTable table = PortTable.of(withoutStores);
+
+        System.out.println(ClassLayout.parseClass(SpacePort.class).toPrintable());
+        GraphLayout objects = GraphLayout.parseInstance(withoutStores);
+        GraphLayout columns = GraphLayout.parseInstance(table);
+        System.out.println("Objects:");
+        System.out.println(objects.toFootprint());
+        System.out.println("PortTable:");
+        System.out.println(columns.toFootprint());
+        System.out.printf("%d ports: objects %.1f bytes/port, table %.1f bytes/port%n",
+                withoutStores.size(), (double) objects.totalSize() / withoutStores.size(),
+                (double) columns.totalSize() / withoutStores.size());
+    }
+}
@@ -0,0 +1,46 @@
+package srg.bench;
+
+import org.openjdk.jmh.annotations.*;
+import srg.ports.LinearScanIndex;
+import srg.ports.PortTable;
+import srg.ports.Position;
+import srg.ports.SpacePort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks a full distance scan of a galaxy map kept as port objects and as a PortTable
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PortTableBenchmark {
+    @Param({"100000", "1000000"})
+    int mapSize;
+
+    LinearScanIndex objects;
+    PortTable table;
+    Position centre;
+
+    @Setup
+    public void setUp() {
+        List<SpacePort> ports = Maps.randomMap(mapSize, 1);
+        objects = new LinearScanIndex(ports);
+        table = PortTable.of(ports);
+        centre = ports.get(mapSize / 2).getPosition();
+    }
+
+    @Benchmark
+    public List<SpacePort> scanObjects() {
+        return objects.findWithin(centre, 600);
+    }
+
+    @Benchmark
+    public List<SpacePort> scanTable() {
+        return table.findWithin(centre, 600);
+    }
+}
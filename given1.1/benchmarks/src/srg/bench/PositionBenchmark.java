@@ -0,0 +1,94 @@
+package srg.bench;
+
+import org.openjdk.jmh.annotations.*;
+import srg.ports.Position;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks distance checks between every pair of a set of positions
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PositionBenchmark {
+    /**
+     * Number of positions, each benchmark call checks the square of it in pairs
+     */
+    static final int POSITIONS = 2048;
+
+    /**
+     * The positions to compare
+     */
+    Position[] positions;
+
+    /**
+     * Creates the positions in the same range as the generated maps
+     */
+    @Setup
+    public void setUp() {
+        Random rand = new Random(4);
+        positions = new Position[POSITIONS];
+        for (int i = 0; i < POSITIONS; i++) {
+            positions[i] = new Position(rand.nextInt(1000), rand.nextInt(1000),
+                    rand.nextInt(1000));
+        }
+    }
+
+    /**
+     * The distance calculation Position used before distanceSquaredTo
+     * @param from The position to measure from
+     * @param other The position to measure to
+     * @return The distance between the positions, rounded down
+     */
+    static int powDistance(Position from, Position other) {
+        return (int) Math.floor(Math.pow(Math.pow(other.x - from.x, 2)
+                + Math.pow(other.y - from.y, 2) + Math.pow(other.z - from.z, 2), 0.5));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS * POSITIONS)
+    public int powRangeCheck() {
+        int inRange = 0;
+        for (Position from : positions) {
+            for (Position to : positions) {
+                if (powDistance(from, to) <= 200) {
+                    inRange++;
+                }
+            }
+        }
+        return inRange;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS * POSITIONS)
+    public int distanceToRangeCheck() {
+        int inRange = 0;
+        for (Position from : positions) {
+            for (Position to : positions) {
+                if (from.distanceTo(to) <= 200) {
+                    inRange++;
+                }
+            }
+        }
+        return inRange;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSITIONS * POSITIONS)
+    public int withinDistanceRangeCheck() {
+        int inRange = 0;
+        for (Position from : positions) {
+            for (Position to : positions) {
+                if (from.withinDistance(to, 200)) {
+                    inRange++;
+                }
+            }
+        }
+        return inRange;
+    }
+}
@@ -0,0 +1,141 @@
+package srg.bench;
+
+import srg.game.GameServer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Loads a GameServer running in this JVM: opens many idle sessions, reports the heap they hold,
+ * then measures the round trip of commands sent by a few active sessions while the idle ones stay open.
+ * Usage: ServerLoadClient [idle sessions] [active sessions] [commands per active session] [port]
+ * <p>
+ * With a port, the sessions are opened on a server already running on that local port, such as Main --serve,
+ * so the client and the server each have their own file descriptors. The heap is then not reported.
+ */
+public final class ServerLoadClient {
+    private static final String[] COMMANDS = {"show port", "show actions", "show room CargoHold", "status"};
+
+    private ServerLoadClient() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int idle = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int active = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int commands = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+        int port = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+
+        GameServer server = null;
+        Thread serverThread = null;
+        if (port == 0) {
+            GameServer local = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 4);
+            serverThread = new Thread(() -> {
+                try {
+                    local.run();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }, "game-server");
+            serverThread.start();
+            server = local;
+            port = local.getPort();
+        }
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+
+        long before = usedHeap();
+        List<SocketChannel> idleSessions = new ArrayList<>();
+        ByteBuffer greeting = ByteBuffer.allocate(64);
+        for (int i = 0; i < idle; i++) {
+            SocketChannel channel = SocketChannel.open(address);
+            // Waiting for the prompt makes sure the server has set up the session
+            readUntilPrompt(channel, greeting);
+            idleSessions.add(channel);
+        }
+        if (server != null) {
+            long after = usedHeap();
+            System.out.printf("%d idle sessions: %.0f bytes of heap each (server and client sides)%n",
+                    idle, (double) (after - before) / idle);
+        } else {
+            System.out.printf("%d idle sessions open%n", idle);
+        }
+
+        List<SocketChannel> activeSessions = new ArrayList<>();
+        for (int i = 0; i < active; i++) {
+            SocketChannel channel = SocketChannel.open(address);
+            readUntilPrompt(channel, ByteBuffer.allocate(1 << 16));
+            activeSessions.add(channel);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        // The first round warms up the server before anything is measured
+        roundTrips(activeSessions, commands / 4, buffer, new long[active * (commands / 4)]);
+        long[] latencies = new long[active * commands];
+        int count = roundTrips(activeSessions, commands, buffer, latencies);
+        Arrays.sort(latencies);
+        System.out.printf("%d commands: p50 %.3f ms, p99 %.3f ms, max %.3f ms%n", count,
+                latencies[count / 2] / 1e6, latencies[(int) (count * 0.99)] / 1e6,
+                latencies[count - 1] / 1e6);
+
+        for (SocketChannel channel : idleSessions) {
+            channel.close();
+        }
+        for (SocketChannel channel : activeSessions) {
+            channel.close();
+        }
+        if (server != null) {
+            server.close();
+            serverThread.join();
+        }
+    }
+
+    private static int roundTrips(List<SocketChannel> sessions, int commands, ByteBuffer buffer,
+                                  long[] latencies) throws IOException {
+        int count = 0;
+        for (int i = 0; i < commands; i++) {
+            for (SocketChannel channel : sessions) {
+                ByteBuffer request = ByteBuffer.wrap((COMMANDS[i % COMMANDS.length] + "\n")
+                        .getBytes(StandardCharsets.UTF_8));
+                long start = System.nanoTime();
+                while (request.hasRemaining()) {
+                    channel.write(request);
+                }
+                readUntilPrompt(channel, buffer);
+                latencies[count++] = System.nanoTime() - start;
+            }
+        }
+        return count;
+    }
+
+    private static void readUntilPrompt(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        byte[] prompt = GameServer.PROMPT.getBytes(StandardCharsets.UTF_8);
+        buffer.clear();
+        while (true) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Server closed the session");
+            }
+            int end = buffer.position();
+            if (end >= prompt.length && Arrays.equals(buffer.array(), end - prompt.length, end,
+                    prompt, 0, prompt.length)) {
+                return;
+            }
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+            }
+        }
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,36 @@
+package srg.bench;
+
+import org.openjdk.jmh.annotations.*;
+import srg.game.Simulation;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks one tick of a fleet moving over a shared map; the score in ticks per second is the simulation speed
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimulationBenchmark {
+    @Param({"1000", "10000"})
+    int ships;
+
+    @Param({"10000"})
+    int mapSize;
+
+    Simulation simulation;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        simulation = new Simulation(Maps.randomMap(mapSize, 4), ships);
+    }
+
+    @Benchmark
+    public long tick() {
+        simulation.tick();
+        return simulation.getTick();
+    }
+}
@@ -0,0 +1,48 @@
+package srg.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import srg.exceptions.InsufficientResourcesException;
+import srg.ports.Position;
+import srg.ports.Store;
+import srg.ports.StoreItem;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks buying each item from a freshly stocked store
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StoreBenchmark {
+    Store store;
+    Map<StoreItem, Integer> basket;
+
+    @Setup(Level.Invocation)
+    public void stock() {
+        store = new Store("Omega Tagon", new Position(867, 439, 300));
+        basket = new EnumMap<>(StoreItem.class);
+        basket.put(StoreItem.TRITIUM, 200);
+        basket.put(StoreItem.HYPERDRIVE_CORE, 2);
+        basket.put(StoreItem.REPAIR_KIT, 3);
+    }
+
+    @Benchmark
+    public void purchase(Blackhole blackhole) throws InsufficientResourcesException {
+        blackhole.consume(store.purchase("TRITIUM", 200));
+        blackhole.consume(store.purchase("HYPERDRIVE_CORE", 2));
+        blackhole.consume(store.purchase("REPAIR_KIT", 3));
+    }
+
+    @Benchmark
+    public List<?> purchaseBatch() throws InsufficientResourcesException {
+        return store.purchaseBatch(basket);
+    }
+}
@@ -0,0 +1,41 @@
+package srg.bench;
+
+import org.openjdk.jmh.annotations.*;
+import srg.exceptions.InsufficientResourcesException;
+import srg.ports.Position;
+import srg.ports.Store;
+import srg.ports.StoreItem;
+import srg.resources.ResourceContainer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks many threads purchasing from one shared store.
+ * Run with -t to change the number of threads, e.g. -t 1, -t 4, -t max.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class StoreContentionBenchmark {
+    Store store;
+
+    @Setup
+    public void stock() {
+        store = new Store("Omega Tagon", new Position(867, 439, 300));
+        store.restock(StoreItem.TRITIUM, Integer.MAX_VALUE / 2);
+    }
+
+    @Benchmark
+    public ResourceContainer purchase() throws InsufficientResourcesException {
+        try {
+            return store.purchase(StoreItem.TRITIUM, 1);
+        } catch (InsufficientResourcesException error) {
+            store.restock(StoreItem.TRITIUM, Integer.MAX_VALUE / 2);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package srg.cli.given;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * IO which records everything written in a transcript, if it has one, and reads the queued lines before its own input
+ */
+public abstract class AbstractIO implements IO {
+    private String stdin;
+    private Transcript stdout;
+    private Deque<String> inputQueue = new ArrayDeque<>();
+
+    /**
+     * @param transcript where everything written is recorded, see {@link #getStdout()},
+     *                   or null to record nothing
+     */
+    protected AbstractIO(Transcript transcript) {
+        stdout = transcript;
+    }
+
+    @Override
+    public void writeLn(String line) {
+        if (stdout != null) {
+            stdout.writeLn(line);
+        }
+    }
+
+    @Override
+    public void write(String line) {
+        if (stdout != null) {
+            stdout.write(line);
+        }
+    }
+
+    @Override
+    public String readLine() {
+        if (!inputQueue.isEmpty()) {
+            return inputQueue.poll();
+        }
+        return readInput();
+    }
+
+    /**
+     * @return true if a line was added with addInputLine and has not been read yet
+     */
+    protected boolean hasQueuedLine() {
+        return !inputQueue.isEmpty();
+    }
+
+    /**
+     * Reads the next line of the input once the queued lines are used up.
+     *
+     * @throws NoSuchElementException if the input has ended
+     */
+    protected abstract String readInput();
+
+    @Override
+    public void addInputLine(String line) {
+        inputQueue.add(line);
+    }
+
+    @Override
+    public void addInputLine(List<String> lines) {
+        inputQueue.addAll(lines);
+    }
+
+    @Override
+    public String getStdin() {
+        return stdin;
+    }
+
+    /**
+     * @return everything written that the transcript still holds, or "" if there is no transcript
+     */
+    @Override
+    public String getStdout() {
+        return stdout == null ? "" : stdout.getText();
+    }
+
+    /**
+     * @return the transcript, or null if nothing is recorded
+     */
+    @Override
+    public Transcript getTranscript() {
+        return stdout;
+    }
+}
@@ -0,0 +1,153 @@
+package srg.cli.given;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+/**
+ * IO which reads lines from the bytes of an input buffer and writes UTF-8 into an output buffer,
+ * as when commands arrive over a socket.
+ * Lines end at a line feed, with a carriage return before it dropped.
+ * {@link #readTokens} splits a line where it lies in the input buffer, so no String of the line is made,
+ * and text is encoded straight into the output, so unless a transcript is given no String is made of it either.
+ */
+public class ByteBufferIO extends AbstractIO {
+    private ByteBuffer input = ByteBuffer.allocate(0);
+    // Written bytes from position 0 up to the position, see getOutput
+    private ByteBuffer output;
+
+    /**
+     * Records nothing of what is written, which only goes to the output buffer
+     */
+    public ByteBufferIO() {
+        this(null);
+    }
+
+    /**
+     * @param transcript where everything written is also recorded, see {@link #getStdout()}, or null to record nothing
+     */
+    public ByteBufferIO(Transcript transcript) {
+        super(transcript);
+        output = ByteBuffer.allocate(1 << 12);
+    }
+
+    /**
+     * Reads the lines of the buffer from its position to its limit, moving its position past each line read
+     */
+    public void setInput(ByteBuffer input) {
+        this.input = input;
+    }
+
+    /**
+     * @return the bytes written since the last clearOutput, from position 0 to the position of the buffer,
+     * which is used again once the output is cleared
+     */
+    public ByteBuffer getOutput() {
+        return output;
+    }
+
+    /**
+     * Starts writing from the beginning of the output buffer again
+     */
+    public void clearOutput() {
+        output.clear();
+    }
+
+    @Override
+    public void writeLn(String line) {
+        super.writeLn(line);
+        encode(String.valueOf(line));
+        put((byte) '\n');
+    }
+
+    @Override
+    public void write(String line) {
+        super.write(line);
+        encode(String.valueOf(line));
+    }
+
+    /**
+     * Encodes the text as UTF-8 straight into the output, without a CharsetEncoder or a copy of the text
+     */
+    private void encode(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                put((byte) c);
+            } else if (c < 0x800) {
+                put((byte) (0xc0 | c >> 6));
+                put((byte) (0x80 | c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                put((byte) (0xf0 | codePoint >> 18));
+                put((byte) (0x80 | codePoint >> 12 & 0x3f));
+                put((byte) (0x80 | codePoint >> 6 & 0x3f));
+                put((byte) (0x80 | codePoint & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                // An unpaired surrogate is written as String.getBytes writes it
+                put((byte) '?');
+            } else {
+                put((byte) (0xe0 | c >> 12));
+                put((byte) (0x80 | c >> 6 & 0x3f));
+                put((byte) (0x80 | c & 0x3f));
+            }
+        }
+    }
+
+    private void put(byte b) {
+        if (!output.hasRemaining()) {
+            ByteBuffer grown = ByteBuffer.allocate(output.capacity() * 2);
+            output = grown.put(output.flip());
+        }
+        output.put(b);
+    }
+
+    @Override
+    protected String readInput() {
+        int end = nextLineEnd();
+        int start = input.position();
+        byte[] bytes = new byte[trim(start, end) - start];
+        input.get(start, bytes);
+        skipLine(end);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void readTokens(CommandTokenizer tokens) {
+        if (hasQueuedLine()) {
+            tokens.tokenize(readLine());
+            return;
+        }
+        int end = nextLineEnd();
+        int start = input.position();
+        tokens.tokenize(input, start, trim(start, end));
+        skipLine(end);
+    }
+
+    /**
+     * @return where the next line of the input ends, at its line feed or at the end of the input
+     * @throws NoSuchElementException if the input has ended
+     */
+    private int nextLineEnd() {
+        if (!input.hasRemaining()) {
+            throw new NoSuchElementException("No line found");
+        }
+        int end = input.position();
+        while (end < input.limit() && input.get(end) != '\n') {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * @return where the line ends without the carriage return before its line feed
+     */
+    private int trim(int start, int end) {
+        return end > start && input.get(end - 1) == '\r' ? end - 1 : end;
+    }
+
+    private void skipLine(int end) {
+        input.position(Math.min(end + 1, input.limit()));
+    }
+}
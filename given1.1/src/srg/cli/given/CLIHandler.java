@@ -2,14 +2,19 @@ package srg.cli.given;
 
 import java.util.*;
 import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 
 
 class CommandAction {
     List<String> command;
-    Function<List<String>, Command> action;
+    // Makes the command from the tokens of the line, which are only valid until the next line is split
+    Function<CommandTokenizer, Command> action;
+    // Position in the order the commands were added, used to list candidates in that order
+    int order;
     public CommandAction(List<String> command,
-                         Function<List<String>, Command> action) {
+                         Function<CommandTokenizer, Command> action) {
         this.command = command;
         this.action= action;
     }
@@ -34,70 +39,198 @@ class CommandAction {
 }
 
 
+/**
+ * A node of the command trie. The path from the root spells the first tokens of every
+ * command in {@code commands}.
+ */
+class CommandNode {
+    // Children reached by a token equal to the literal at the same index
+    List<String> literals = new ArrayList<>();
+    List<CommandNode> literalChildren = new ArrayList<>();
+    // Children reached by a token matching the pattern at the same index.
+    // Each pattern has a matcher that is reset for every token, so a node is used by one thread at a time
+    List<Pattern> patterns = new ArrayList<>();
+    List<Matcher> matchers = new ArrayList<>();
+    List<CommandNode> patternChildren = new ArrayList<>();
+    // Commands whose first tokens lead here, in the order they were added
+    List<CommandAction> commands = new ArrayList<>();
+
+    CommandNode child(String token, Map<String, Pattern> compiled) {
+        Pattern pattern = compiled.get(token);
+        if (pattern == null) {
+            int index = literals.indexOf(token);
+            if (index < 0) {
+                literals.add(token);
+                literalChildren.add(new CommandNode());
+                index = literals.size() - 1;
+            }
+            return literalChildren.get(index);
+        }
+        int index = patterns.indexOf(pattern);
+        if (index < 0) {
+            patterns.add(pattern);
+            matchers.add(pattern.matcher(""));
+            patternChildren.add(new CommandNode());
+            index = patterns.size() - 1;
+        }
+        return patternChildren.get(index);
+    }
+
+    void next(CharSequence token, List<CommandNode> into) {
+        for (int i = 0; i < literals.size(); i++) {
+            if (literals.get(i).contentEquals(token)) {
+                into.add(literalChildren.get(i));
+                break;
+            }
+        }
+        for (int i = 0; i < matchers.size(); i++) {
+            if (matchers.get(i).reset(token).matches()) {
+                into.add(patternChildren.get(i));
+            }
+        }
+    }
+}
+
+
 
 public class CLIHandler {
     public static final String NUMBER = "[0-9]+";
     public static final String IDENTIFIER = "[a-zA-Z 0-9'-''_']+";
+    // Commands are immutable, so those without arguments are made once and shared
+    private static final Command SHOW_PORT = new ShipCommand(CommandType.SHOW_PORT, "");
+    private static final Command SHOW_HELP = new Command(CommandType.SHOW_HELP);
+    private static final Command SHOW_ACTIONS = new ShipCommand(CommandType.SHOW_ACTIONS, "");
+    private static final Command SHOW_STATUS = new Command(CommandType.SHOW_STATUS);
+    private static final Command SHOW_METRICS = new Command(CommandType.SHOW_METRICS);
+    private static final Command EXIT = new Command(CommandType.EXIT);
     List<CommandAction> commands;
+    private CommandNode root;
+    private String prompt = "~> ";
+    private ParseError lastError;
+    // Reused for every line, so parsing a line makes no garbage
+    private final CommandTokenizer tokenizer = new CommandTokenizer();
+    private List<CommandNode> nodes = new ArrayList<>();
+    private List<CommandNode> nextNodes = new ArrayList<>();
+
+    /**
+     * Why the last line given to parseOne was not a command
+     */
+    public enum ParseError {
+        AMBIGUOUS,
+        INVALID,
+        MISSING_ARGUMENT,
+    }
 
     public CLIHandler() {
         commands = new ArrayList<>(new ArrayList<>());
 
         commands.add(new CommandAction(List.of(
                 "show", "port"
-        ), cmd -> new ShipCommand(CommandType.SHOW_PORT, "")));
+        ), cmd -> SHOW_PORT));
 
         commands.add(new CommandAction(List.of(
                 "help"
-        ), cmd -> new Command(CommandType.SHOW_HELP)));
+        ), cmd -> SHOW_HELP));
         commands.add(new CommandAction(List.of(
                 "show", "help"
-        ), cmd -> new Command(CommandType.SHOW_HELP)));
+        ), cmd -> SHOW_HELP));
 
         commands.add(new CommandAction(List.of(
                 "show", "actions"
-        ), cmd -> new ShipCommand(CommandType.SHOW_ACTIONS, "")));
+        ), cmd -> SHOW_ACTIONS));
 
         commands.add(new CommandAction(List.of(
                 "show", "status"
-        ), cmd -> new Command(CommandType.SHOW_STATUS)));
+        ), cmd -> SHOW_STATUS));
+
+        commands.add(new CommandAction(List.of(
+                "show", "metrics"
+        ), cmd -> SHOW_METRICS));
 
 
         commands.add(new CommandAction(List.of(
                 "show", "room", IDENTIFIER
-        ), cmd -> new ShipCommand(CommandType.SHOW_ROOM, cmd.get(2))));
+        ), cmd -> new ShipCommand(CommandType.SHOW_ROOM, cmd.string(2))));
 
         commands.add(new CommandAction(List.of(
                 "exit"
-        ), cmd -> new Command(CommandType.EXIT)));
+        ), cmd -> EXIT));
 
 
         commands.add(new CommandAction(List.of(
                 "fly", "to", IDENTIFIER),
-                cmd -> new ShipCommand(CommandType.FLY_TO, cmd.get(2))));
+                cmd -> new ShipCommand(CommandType.FLY_TO, cmd.string(2))));
 
         commands.add(new CommandAction(List.of(
                 "jump", "to", IDENTIFIER),
-                cmd -> new ShipCommand(CommandType.JUMP_TO, cmd.get(2))
+                cmd -> new ShipCommand(CommandType.JUMP_TO, cmd.string(2))
         ));
 
 
         commands.add(new CommandAction(List.of(
                 "repair", IDENTIFIER),
-                cmd -> new ShipCommand(CommandType.REPAIR_ROOM, cmd.get(1))));
+                cmd -> new ShipCommand(CommandType.REPAIR_ROOM, cmd.string(1))));
 
         commands.add(new CommandAction(List.of(
                 "upgrade", IDENTIFIER),
-                cmd -> new ShipCommand(CommandType.UPGRADE_ROOM, cmd.get(1))));
+                cmd -> new ShipCommand(CommandType.UPGRADE_ROOM, cmd.string(1))));
 
         commands.add(new CommandAction(List.of(
                 "purchase", IDENTIFIER, NUMBER),
-        cmd -> new PurchaseCommand(cmd.get(1), Integer.parseInt(cmd.get(2)))));
+        cmd -> new PurchaseCommand(cmd.string(1), cmd.parseInt(2))));
         commands.add(new CommandAction(List.of(
                 "buy", IDENTIFIER, NUMBER),
-                cmd -> new PurchaseCommand(cmd.get(1), Integer.parseInt(cmd.get(2)))));
+                cmd -> new PurchaseCommand(cmd.string(1), cmd.parseInt(2))));
 
+        root = buildTrie(commands);
+    }
 
+    private static CommandNode buildTrie(List<CommandAction> commands) {
+        Map<String, Pattern> compiled = Map.of(
+                NUMBER, Pattern.compile(NUMBER),
+                IDENTIFIER, Pattern.compile(IDENTIFIER));
+        CommandNode root = new CommandNode();
+        for (int i = 0; i < commands.size(); i++) {
+            CommandAction command = commands.get(i);
+            command.order = i;
+            CommandNode node = root;
+            node.commands.add(command);
+            for (String token : command.command) {
+                node = node.child(token, compiled);
+                node.commands.add(command);
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Finds the commands whose first tokens match the tokens, by walking the trie once.
+     * A token can match both a literal and a pattern, so the walk keeps every node reached.
+     */
+    private List<CommandAction> candidates(CommandTokenizer tokens) {
+        nodes.clear();
+        nodes.add(root);
+        for (int t = 0; t < tokens.size(); t++) {
+            nextNodes.clear();
+            for (int i = 0; i < nodes.size(); i++) {
+                nodes.get(i).next(tokens.get(t), nextNodes);
+            }
+            if (nextNodes.isEmpty()) {
+                return List.of();
+            }
+            List<CommandNode> reached = nextNodes;
+            nextNodes = nodes;
+            nodes = reached;
+        }
+        if (nodes.size() == 1) {
+            return nodes.get(0).commands;
+        }
+        List<CommandAction> merged = new ArrayList<>();
+        for (CommandNode node : nodes) {
+            merged.addAll(node.commands);
+        }
+        merged.sort(Comparator.comparingInt(command -> command.order));
+        return merged;
     }
 
     public String getHelp() {
@@ -111,46 +244,35 @@ public class CLIHandler {
 
 
     public Command parseOne(IO ioHandler) {
-        ioHandler.write("~> ");
-        String line = ioHandler.readLine();
-
-        boolean quoted = false;
-        List<String> quote_tokens = List.of(line.split("\""));
-        List<String> tokens = new ArrayList<>();
-
-        for (String quote_token: quote_tokens) {
-            if (quoted) {
-                tokens.add(quote_token);
-            } else {
-                tokens.addAll(List.of(quote_token.split(" ")));
-            }
-            quoted = !quoted;
-        }
-
-
-
-        List<String> match = new LinkedList<>();
-
-        List<CommandAction> commands = new LinkedList<>(this.commands);
-
-        commands.removeIf(command -> tokens.size() > command.command.size());
+        ioHandler.write(prompt);
+        ioHandler.readTokens(tokenizer);
+        return parseOne(tokenizer, ioHandler);
+    }
 
-        for (int i = 0; i < tokens.size(); i++) {
-            int finalI = i;
-            commands.removeIf(command ->
-                    !tokens.get(finalI).matches(command.command.get(finalI)));
-        }
+    /**
+     * Parses a line which was already split, without writing a prompt
+     *
+     * @param tokens    the tokens of the line
+     * @param ioHandler where the reason the line is not a command is written
+     * @return the command, or null if the line is not one, see {@link #getLastError()}
+     */
+    public Command parseOne(CommandTokenizer tokens, IO ioHandler) {
+        lastError = null;
+        List<CommandAction> commands = candidates(tokens);
 
         if (commands.size() > 1) {
+            lastError = ParseError.AMBIGUOUS;
             ioHandler.writeLn("Ambiguous command. could be: ");
             commands.forEach(command -> ioHandler.writeLn(command.toString()));
             return null;
         }
         if (commands.size() != 1) {
+            lastError = ParseError.INVALID;
             ioHandler.writeLn("Invalid command.");
             return null;
         }
         if (tokens.size() != commands.get(0).command.size()) {
+            lastError = ParseError.MISSING_ARGUMENT;
             ioHandler.writeLn("Missing argument.");
             commands.forEach(command -> ioHandler.writeLn(command.toString()));
             return null;
@@ -160,6 +282,20 @@ public class CLIHandler {
     }
 
 
+    /**
+     * @return why the last line was not a command, or null if it was one
+     */
+    public ParseError getLastError() {
+        return lastError;
+    }
+
+    /**
+     * @param prompt written before each line is read, "" to not write one
+     */
+    public void setPrompt(String prompt) {
+        this.prompt = prompt;
+    }
+
     public Command parse(IO ioHandler) {
         Command command;
         do {
@@ -0,0 +1,251 @@
+package srg.cli.given;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Splits command lines into tokens the way CLIHandler always has: text in double quotes is one token,
+ * and the rest is split at each space, with the empty tokens at the end of a part dropped as by
+ * {@link String#split(String)}.
+ * <p>
+ * The tokens are slices of the bytes of the line, read in place from a ByteBuffer, and the same
+ * tokenizer and slices are used again for every line, so splitting a line makes no garbage.
+ * A slice reads each byte as one char, which is exact for ASCII, the only text commands match.
+ * Only {@link #string(int)} makes Strings, and it keeps the ones it made for the next lines.
+ */
+public class CommandTokenizer {
+    // Number of Strings kept by string(int), a power of two
+    private static final int STRING_CACHE_SIZE = 256;
+
+    // The bytes of the current line, and where they start and end
+    private ByteBuffer buffer;
+    private int lineStart;
+    private int lineEnd;
+    // Holds the bytes of lines given as text
+    private byte[] copy = new byte[64];
+    private ByteBuffer copyBuffer = ByteBuffer.wrap(copy);
+
+    // Where each token starts and ends in the buffer
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private Token[] tokens = new Token[8];
+    private int size;
+
+    // The bytes and the String of the tokens string(int) has made, by hash
+    private final byte[][] cachedBytes = new byte[STRING_CACHE_SIZE][];
+    private final String[] cachedStrings = new String[STRING_CACHE_SIZE];
+
+    public CommandTokenizer() {
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = new Token(i);
+        }
+    }
+
+    /**
+     * Splits the bytes of a line, without its line ending, which must not change until the next line is split.
+     * The position and limit of the buffer are not used or changed.
+     *
+     * @param from where the line starts in the buffer
+     * @param to   where the line ends in the buffer
+     */
+    public void tokenize(ByteBuffer buffer, int from, int to) {
+        this.buffer = buffer;
+        this.lineStart = from;
+        this.lineEnd = to;
+        size = 0;
+        // As line.split("\""), with the text between quotes kept whole and the rest split at spaces
+        boolean quoted = false;
+        int end = split(from, to, (byte) '"');
+        if (end < 0) {
+            return;
+        }
+        int start = from;
+        for (int i = from; i <= end; i++) {
+            if (i == end || buffer.get(i) == '"') {
+                if (quoted) {
+                    add(start, i);
+                } else {
+                    splitSpaces(start, i);
+                }
+                quoted = !quoted;
+                start = i + 1;
+            }
+        }
+    }
+
+    /**
+     * Splits a line given as text, by first copying it as UTF-8 into a buffer kept for the next lines
+     */
+    public void tokenize(CharSequence line) {
+        int length = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c >= 0x80) {
+                // Only ASCII is copied char by char
+                byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+                tokenize(ByteBuffer.wrap(bytes), 0, bytes.length);
+                return;
+            }
+            if (length == copy.length) {
+                copy = Arrays.copyOf(copy, length * 2);
+                copyBuffer = ByteBuffer.wrap(copy);
+            }
+            copy[length++] = (byte) c;
+        }
+        tokenize(copyBuffer, 0, length);
+    }
+
+    /**
+     * Finds where the parts of a split at the separator end once the empty parts at the end are dropped
+     *
+     * @return the end of the last part kept, or -1 if every part is empty and none is kept
+     */
+    private int split(int from, int to, byte separator) {
+        int end = to;
+        while (end > from && buffer.get(end - 1) == separator) {
+            end--;
+        }
+        // A line without the separator is one part, even when it is empty
+        if (end == from && to > from) {
+            return -1;
+        }
+        return end;
+    }
+
+    private void splitSpaces(int from, int to) {
+        int end = split(from, to, (byte) ' ');
+        if (end < 0) {
+            return;
+        }
+        int start = from;
+        for (int i = from; i <= end; i++) {
+            if (i == end || buffer.get(i) == ' ') {
+                add(start, i);
+                start = i + 1;
+            }
+        }
+    }
+
+    private void add(int start, int end) {
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+            tokens = Arrays.copyOf(tokens, size * 2);
+            for (int i = size; i < tokens.length; i++) {
+                tokens[i] = new Token(i);
+            }
+        }
+        starts[size] = start;
+        ends[size] = end;
+        size++;
+    }
+
+    /**
+     * @return number of tokens in the line
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return a view of the token, which shows another token once the next line is split
+     */
+    public CharSequence get(int index) {
+        checkIndex(index);
+        return tokens[index];
+    }
+
+    /**
+     * @return the token as a String, the same String as the last time these bytes were a token if it is still kept
+     */
+    public String string(int index) {
+        checkIndex(index);
+        int start = starts[index];
+        int length = ends[index] - start;
+        int hash = 1;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + buffer.get(start + i);
+        }
+        int slot = (hash ^ (hash >>> 16)) & (STRING_CACHE_SIZE - 1);
+        byte[] cached = cachedBytes[slot];
+        if (cached != null && cached.length == length && matches(cached, start)) {
+            return cachedStrings[slot];
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(start, bytes);
+        String string = new String(bytes, StandardCharsets.UTF_8);
+        cachedBytes[slot] = bytes;
+        cachedStrings[slot] = string;
+        return string;
+    }
+
+    private boolean matches(byte[] cached, int start) {
+        for (int i = 0; i < cached.length; i++) {
+            if (cached[i] != buffer.get(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the token as a decimal number, as Integer.parseInt does
+     *
+     * @throws NumberFormatException if the token is not a number which fits in an int
+     */
+    public int parseInt(int index) {
+        checkIndex(index);
+        return Integer.parseInt(tokens[index], 0, tokens[index].length(), 10);
+    }
+
+    /**
+     * @return the whole line, for messages about it
+     */
+    @Override
+    public String toString() {
+        if (buffer == null) {
+            return "";
+        }
+        byte[] bytes = new byte[lineEnd - lineStart];
+        buffer.get(lineStart, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Token " + index + " of " + size);
+        }
+    }
+
+    /**
+     * One token of the current line, read in place
+     */
+    private class Token implements CharSequence {
+        private final int index;
+
+        private Token(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public int length() {
+            return ends[index] - starts[index];
+        }
+
+        @Override
+        public char charAt(int i) {
+            return (char) (buffer.get(starts[index] + i) & 0xff);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return string(index);
+        }
+    }
+}
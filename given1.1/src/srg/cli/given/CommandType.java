@@ -12,4 +12,5 @@ public enum CommandType {
     REPAIR_ROOM,
     UPGRADE_ROOM,
     PURCHASE_ITEM,
+    SHOW_METRICS,
 }
@@ -0,0 +1,84 @@
+package srg.cli.given;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.NoSuchElementException;
+
+/**
+ * IO over an input and an output stream, the console unless others are given
+ */
+public class ConsoleIO extends AbstractIO {
+    // Opened once and kept, so input read ahead by the buffer is not lost between lines
+    private BufferedReader in;
+    // Written lines are batched here until the next prompt boundary, see readLine
+    private PrintWriter out;
+
+    public ConsoleIO() {
+        this(new Transcript());
+    }
+
+    /**
+     * @param transcript where everything written is recorded, see {@link #getStdout()}
+     */
+    public ConsoleIO(Transcript transcript) {
+        this(System.in, System.out, transcript);
+    }
+
+    public ConsoleIO(InputStream in, OutputStream out) {
+        this(in, out, new Transcript());
+    }
+
+    public ConsoleIO(InputStream in, OutputStream out, Transcript transcript) {
+        super(transcript);
+        this.in = new BufferedReader(new InputStreamReader(in));
+        this.out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out)));
+    }
+
+    @Override
+    public void writeLn(String line) {
+        super.writeLn(line);
+        out.println(line);
+    }
+
+    @Override
+    public void write(String line) {
+        super.write(line);
+        out.print(line);
+    }
+
+    /**
+     * Reads the next line of the input.
+     * Written output is flushed first unless more input is already waiting,
+     * so a prompt is always shown before blocking but a piped script is written in batches.
+     *
+     * @throws NoSuchElementException if the input has ended
+     */
+    @Override
+    protected String readInput() {
+        try {
+            if (!in.ready()) {
+                out.flush();
+            }
+            String line = in.readLine();
+            if (line == null) {
+                out.flush();
+                throw new NoSuchElementException("No line found");
+            }
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void flush() {
+        out.flush();
+    }
+}
@@ -1,53 +1,48 @@
 package srg.cli.given;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Scanner;
+import java.util.NoSuchElementException;
 
-public class IO {
-    private String stdin;
-    private String stdout;
-    private List<String> inputQueue;
-    private List<String> inputRecord;
+/**
+ * Where the game reads its commands from and writes its output to.
+ * See {@link ConsoleIO} for streams such as the console, {@link MemoryIO} for lines kept in memory
+ * and {@link ByteBufferIO} for bytes in a buffer.
+ */
+public interface IO {
+    void writeLn(String line);
 
-    public IO() {
-        inputQueue = new LinkedList<>();
-        inputRecord = new ArrayList<>();
-    }
+    void write(String line);
 
-    public void writeLn(String line) {
-        stdout += line + System.lineSeparator();
-        System.out.println(line);
-    }
+    /**
+     * Reads the next queued line, or else the next line of the input.
+     *
+     * @throws NoSuchElementException if the input has ended
+     */
+    String readLine();
 
-    public void write(String line) {
-        stdout += line;
-        System.out.print(line);
+    /**
+     * Reads the next line into the tokens, without keeping the line itself.
+     * IO which holds its input as bytes can split them without making a String of the line.
+     *
+     * @throws NoSuchElementException if the input has ended
+     */
+    default void readTokens(CommandTokenizer tokens) {
+        tokens.tokenize(readLine());
     }
 
-    public String readLine() {
-        if (inputQueue.isEmpty()) {
-            Scanner s = new Scanner(System.in);
-            return s.nextLine();
-        } else {
-            return inputQueue.remove(0);
-        }
+    /**
+     * Writes out everything written so far
+     */
+    default void flush() {
     }
 
-    public void addInputLine(String line) {
-        inputQueue.add(line);
-    }
+    void addInputLine(String line);
 
-    public void addInputLine(List<String> lines) {
-        inputQueue.addAll(lines);
-    }
+    void addInputLine(List<String> lines);
 
-    public String getStdin() {
-        return stdin;
-    }
+    String getStdin();
 
-    public String getStdout() {
-        return stdout;
-    }
+    String getStdout();
+
+    Transcript getTranscript();
 }
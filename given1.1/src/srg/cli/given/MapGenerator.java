@@ -3,15 +3,76 @@ package srg.cli.given;
 import srg.ports.*;
 
 import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 public class MapGenerator {
+    private static final String[] SYLLABLES = {
+            "ab", "ar", "bel", "ca", "cor", "da", "del", "e", "fon", "ga", "har", "i",
+            "ka", "lo", "lun", "ma", "mir", "no", "os", "pho", "qua", "ra", "ros", "sa",
+            "sol", "ta", "tel", "u", "va", "vor", "xi", "ze"
+    };
+
+    /**
+     * Seed of the fixed map of a new game
+     */
+    public static final long DEFAULT_SEED = 4;
 
     List<String> names;
     Random rand;
 
+    // Settings of procedural maps, only used when procedural is true
+    private boolean procedural;
+    private long seed;
+    private int portCount;
+    private int clusterCount;
+    private int clusterRadius;
+    private int extent;
+
+    /**
+     * Generates a procedural map in a cube that grows with the number of ports
+     * @see #MapGenerator(long, int, int, int, int)
+     */
+    public MapGenerator(long seed, int portCount, int clusterCount, int clusterRadius) {
+        this(seed, portCount, clusterCount, clusterRadius,
+                (int) Math.max(1000, Math.cbrt(portCount) * 100));
+    }
+
+    /**
+     * Generates a procedural map of any size. The same settings always give the same map.
+     *
+     * @param seed          seed of every random choice
+     * @param portCount     number of ports, spread evenly over the clusters
+     * @param clusterCount  number of clusters, each generated from its own split of the seed
+     * @param clusterRadius ports are placed up to this far from their cluster centre on each axis
+     * @param extent        cluster centres are placed in a cube of this side
+     */
+    public MapGenerator(long seed, int portCount, int clusterCount, int clusterRadius,
+                        int extent) {
+        if (portCount < 1 || clusterCount < 1 || clusterCount > portCount
+                || clusterRadius < 1 || extent < 1) {
+            throw new IllegalArgumentException("Invalid map settings");
+        }
+        this.procedural = true;
+        this.seed = seed;
+        this.portCount = portCount;
+        this.clusterCount = clusterCount;
+        this.clusterRadius = clusterRadius;
+        this.extent = extent;
+    }
+
     public MapGenerator() {
+        this(DEFAULT_SEED);
+    }
+
+    /**
+     * Generates the fixed map of five clusters, with the names and positions chosen by the seed
+     *
+     * @param seed seed of every random choice
+     */
+    public MapGenerator(long seed) {
         rand = new Random();
-        rand.setSeed(4);
+        rand.setSeed(seed);
 
         names = new ArrayList(List.of(
                 "Las Cyamis e1",
@@ -88,6 +149,12 @@ public class MapGenerator {
     }
 
     public List<SpacePort> generateMap() {
+        if (procedural) {
+            List<SpacePort> ports = new ArrayList<>(portCount);
+            streamMap().forEachOrdered(ports::add);
+            return ports;
+        }
+
         List<SpacePort> ports = new ArrayList<>();
 
         for (int i = 0; i < 5; i++) {
@@ -118,4 +185,71 @@ public class MapGenerator {
 
     }
 
+    /**
+     * Streams the procedural map without holding it in memory.
+     * The stream is parallel over clusters and ordered, so forEachOrdered or collecting
+     * gives the same ports in the same order for the same settings.
+     *
+     * @return the ports, cluster by cluster
+     * @throws IllegalStateException if this generator makes the fixed map
+     */
+    public Stream<SpacePort> streamMap() {
+        if (!procedural) {
+            throw new IllegalStateException("The fixed map can only be generated as a list");
+        }
+        // Splitting happens up front and in order, so each cluster gets the same generator
+        // whichever thread generates it
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] clusterRandoms = new SplittableRandom[clusterCount];
+        for (int c = 0; c < clusterCount; c++) {
+            clusterRandoms[c] = root.split();
+        }
+        return IntStream.range(0, clusterCount).parallel().boxed()
+                .flatMap(c -> generateCluster(c, clusterRandoms[c]));
+    }
+
+    private Stream<SpacePort> generateCluster(int cluster, SplittableRandom random) {
+        int base = portCount / clusterCount;
+        int extra = portCount % clusterCount;
+        // The first clusters take one of the leftover ports each
+        int first = cluster * base + Math.min(cluster, extra);
+        int size = base + (cluster < extra ? 1 : 0);
+        Position centre = new Position(random.nextInt(extent), random.nextInt(extent),
+                random.nextInt(extent));
+
+        return IntStream.range(first, first + size).sequential()
+                .mapToObj(index -> generatePort(index, centre, random));
+    }
+
+    private SpacePort generatePort(int index, Position centre, SplittableRandom random) {
+        String name = generateName(index, random);
+        Position position = new Position(
+                random.nextInt(-clusterRadius, clusterRadius) + centre.x,
+                random.nextInt(-clusterRadius, clusterRadius) + centre.y,
+                random.nextInt(-clusterRadius, clusterRadius) + centre.z);
+        switch (index % 3) {
+            case 0:
+                return new Store(name, position);
+            case 1:
+                return new ShipYard(name, position, random.nextBoolean()
+                        ? List.of("CargoHold") : List.of("NavigationRoom"));
+            default:
+                return new SpacePort(name, position);
+        }
+    }
+
+    /**
+     * Makes a pronounceable name from random syllables. The index is appended so every
+     * name in the map is unique without remembering the names already used.
+     */
+    String generateName(int index, SplittableRandom random) {
+        StringBuilder name = new StringBuilder();
+        int syllables = 2 + random.nextInt(2);
+        for (int i = 0; i < syllables; i++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.append(' ').append(Integer.toString(index, 36).toUpperCase()).toString();
+    }
+
 }
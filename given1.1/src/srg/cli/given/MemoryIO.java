@@ -0,0 +1,27 @@
+package srg.cli.given;
+
+import java.util.NoSuchElementException;
+
+/**
+ * IO which reads only the lines added to it and keeps what is written only in its transcript
+ */
+public class MemoryIO extends AbstractIO {
+    public MemoryIO() {
+        this(new Transcript());
+    }
+
+    /**
+     * @param transcript where everything written is recorded, see {@link #getStdout()}
+     */
+    public MemoryIO(Transcript transcript) {
+        super(transcript);
+    }
+
+    /**
+     * @throws NoSuchElementException always, as every line is queued with addInputLine
+     */
+    @Override
+    protected String readInput() {
+        throw new NoSuchElementException("No line found");
+    }
+}
@@ -0,0 +1,19 @@
+package srg.cli.given;
+
+/**
+ * IO which reads queued lines and discards everything written.
+ * Holds no output state, so one instance can be shared between threads that only write.
+ */
+public class NullIO extends MemoryIO {
+    public NullIO() {
+        super(null);
+    }
+
+    @Override
+    public void writeLn(String line) {
+    }
+
+    @Override
+    public void write(String line) {
+    }
+}
@@ -0,0 +1,153 @@
+package srg.cli.given;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Everything written to an IO, kept as a ring buffer of the most recent lines.
+ * Lines pushed out of the buffer are dropped, or appended to a spill file when one is given.
+ */
+public class Transcript implements Closeable {
+    public static final int DEFAULT_MAX_LINES = 10_000;
+
+    private final int maxLines;
+    private final Path spillFile;
+    private BufferedWriter spill;
+
+    // Completed lines, oldest at head
+    private String[] lines;
+    private int head;
+    private int size;
+    // The line being written, which has no line separator yet
+    private final StringBuilder partial = new StringBuilder();
+    // The text of the transcript, until the next write
+    private String text = "";
+
+    public Transcript() {
+        this(DEFAULT_MAX_LINES);
+    }
+
+    /**
+     * @param maxLines number of completed lines to keep in memory
+     */
+    public Transcript(int maxLines) {
+        this(maxLines, null);
+    }
+
+    /**
+     * @param maxLines  number of completed lines to keep in memory
+     * @param spillFile file the older lines are appended to, or null to drop them
+     */
+    public Transcript(int maxLines, Path spillFile) {
+        if (maxLines < 1) {
+            throw new IllegalArgumentException("Transcript must keep at least one line");
+        }
+        this.maxLines = maxLines;
+        this.spillFile = spillFile;
+        this.lines = new String[Math.min(16, maxLines)];
+    }
+
+    public synchronized void write(String text) {
+        // Written the same way as System.out writes it
+        text = String.valueOf(text);
+        int start = 0;
+        int end;
+        while ((end = text.indexOf('\n', start)) >= 0) {
+            int lineEnd = end > start && text.charAt(end - 1) == '\r' ? end - 1 : end;
+            partial.append(text, start, lineEnd);
+            addLine(partial.toString());
+            partial.setLength(0);
+            start = end + 1;
+        }
+        partial.append(text, start, text.length());
+        this.text = null;
+    }
+
+    public synchronized void writeLn(String line) {
+        write(line);
+        addLine(partial.toString());
+        partial.setLength(0);
+    }
+
+    private void addLine(String line) {
+        if (size == maxLines) {
+            spill(lines[head]);
+            lines[head] = line;
+            head = (head + 1) % lines.length;
+            return;
+        }
+        if (size == lines.length) {
+            String[] grown = new String[(int) Math.min(maxLines, 2L * lines.length)];
+            for (int i = 0; i < size; i++) {
+                grown[i] = lines[(head + i) % lines.length];
+            }
+            lines = grown;
+            head = 0;
+        }
+        lines[(head + size) % lines.length] = line;
+        size++;
+    }
+
+    private void spill(String line) {
+        if (spillFile == null) {
+            return;
+        }
+        try {
+            if (spill == null) {
+                spill = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            spill.write(line);
+            spill.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the lines still in memory, each followed by a line separator, then the unfinished line
+     */
+    public synchronized String getText() {
+        if (text == null) {
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < size; i++) {
+                builder.append(lines[(head + i) % lines.length]).append(System.lineSeparator());
+            }
+            text = builder.append(partial).toString();
+        }
+        return text;
+    }
+
+    /**
+     * @return number of completed lines still in memory
+     */
+    public synchronized int getLineCount() {
+        return size;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(lines, null);
+        head = 0;
+        size = 0;
+        partial.setLength(0);
+        text = "";
+    }
+
+    /**
+     * Flushes the lines spilled so far and closes the spill file
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (spill != null) {
+            spill.close();
+            spill = null;
+        }
+    }
+}
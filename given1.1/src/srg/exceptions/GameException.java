@@ -0,0 +1,43 @@
+package srg.exceptions;
+
+/**
+ * GameException class which is the exception of a routine failure of the game, such as a port out of range
+ * or too little fuel.
+ * Ships run into these failures all the time, and finding the stack trace costs far more than the failure itself,
+ * so when the system property srg.exceptions.stackless is true they are made without a stack trace.
+ */
+public abstract class GameException extends Exception {
+    /**
+     * Version of the serialized form
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * If the exceptions are made without a stack trace unless one is asked for
+     */
+    public static final boolean STACKLESS = Boolean.getBoolean("srg.exceptions.stackless");
+
+    /**
+     * The constructor of the Exception with no error message
+     */
+    protected GameException() {
+        this(null);
+    }
+
+    /**
+     * The constructor of the Exception with error message, with a stack trace unless {@link #STACKLESS}
+     * @param message Detail of the exception
+     */
+    protected GameException(String message) {
+        this(message, !STACKLESS);
+    }
+
+    /**
+     * The constructor of the Exception with error message, choosing whether it has a stack trace
+     * @param message Detail of the exception
+     * @param stackTrace If the stack trace is filled in
+     */
+    protected GameException(String message, boolean stackTrace) {
+        super(message, null, stackTrace, stackTrace);
+    }
+}
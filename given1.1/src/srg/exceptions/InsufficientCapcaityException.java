@@ -3,7 +3,12 @@ package srg.exceptions;
 /**
  * InsufficientCapcaityException class which occurs when there is not enough capacity
  */
-public class InsufficientCapcaityException extends Throwable {
+public class InsufficientCapcaityException extends GameException {
+    /**
+     * Version of the serialized form
+     */
+    private static final long serialVersionUID = 1L;
+
     /**
      * The constructor of the Exception with no error message
      */
@@ -18,4 +23,13 @@ public class InsufficientCapcaityException extends Throwable {
     public InsufficientCapcaityException(String message) {
         super(message);
     }
+
+    /**
+     * The constructor of the Exception with error message, choosing whether it has a stack trace
+     * @param message Detail of the exception
+     * @param stackTrace If the stack trace is filled in
+     */
+    public InsufficientCapcaityException(String message, boolean stackTrace) {
+        super(message, stackTrace);
+    }
 }
@@ -3,7 +3,12 @@ package srg.exceptions;
 /**
  * NoPathException class which occurs when the path to the input port can not be found
  */
-public class NoPathException extends Throwable {
+public class NoPathException extends GameException {
+    /**
+     * Version of the serialized form
+     */
+    private static final long serialVersionUID = 1L;
+
     /**
      * The constructor of the Exception with no error message
      */
@@ -18,4 +23,13 @@ public class NoPathException extends Throwable {
     public NoPathException(String message) {
         super(message);
     }
+
+    /**
+     * The constructor of the Exception with error message, choosing whether it has a stack trace
+     * @param message Detail of the exception
+     * @param stackTrace If the stack trace is filled in
+     */
+    public NoPathException(String message, boolean stackTrace) {
+        super(message, stackTrace);
+    }
 }
@@ -13,14 +13,41 @@ public class Game {
     public List<SpacePort> ports;
     // TODO MAKE SHIP PRIVATE
     public Ship ship;
+    private long seed;
+    // Records every command before it is applied, or null
+    private Journal journal;
 
     public Game() {
-        MapGenerator generator = new MapGenerator();
+        this(MapGenerator.DEFAULT_SEED);
+    }
+
+    public Game(long seed) {
+        this.seed = seed;
+        MapGenerator generator = new MapGenerator(seed);
         ports = generator.generateMap();
         ship = new Ship("Leaden Matter", "Jesko Thoch", "SCS1249", RoomTier.BASIC, RoomTier.BASIC,
                 ports);
     }
 
+    // A game of one ship on a galaxy map shared with other games, such as the sessions of a server
+    public Game(long seed, List<SpacePort> ports, Ship ship) {
+        this.seed = seed;
+        this.ports = ports;
+        this.ship = ship;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public Journal getJournal() {
+        return journal;
+    }
+
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
     private boolean handleGameCommand(IO ioHandler, Command command) {
         switch (command.type) {
             case EXIT -> {
@@ -29,18 +56,37 @@ public class Game {
             case SHOW_STATUS -> {
                 ioHandler.writeLn(ship.toString());
             }
+            case SHOW_METRICS -> {
+                ioHandler.writeLn(ship.getMetrics().toString());
+            }
         }
         return false;
     }
 
     public boolean update(IO ioHandler, Command command) {
         if (command instanceof ShipCommand shipCommand) {
-            ship.performCommand(ioHandler, shipCommand);
+            perform(ioHandler, shipCommand);
         } else {
-            return handleGameCommand(ioHandler, command);
+            record(command);
+            long start = System.nanoTime();
+            boolean exit = handleGameCommand(ioHandler, command);
+            ship.getMetrics().recordCommand(command.type, System.nanoTime() - start, null);
+            return exit;
         }
 
         return false;
     }
 
+    // Returns what stopped the command, or null if it was performed
+    public Exception perform(IO ioHandler, ShipCommand command) {
+        record(command);
+        return ship.performCommand(ioHandler, command);
+    }
+
+    private void record(Command command) {
+        if (journal != null) {
+            journal.append(command);
+        }
+    }
+
 }
@@ -0,0 +1,528 @@
+package srg.game;
+
+import srg.cli.given.ByteBufferIO;
+import srg.cli.given.CLIHandler;
+import srg.cli.given.Command;
+import srg.cli.given.CommandTokenizer;
+import srg.cli.given.CommandType;
+import srg.cli.given.MapGenerator;
+import srg.metrics.Metrics;
+import srg.ports.SpacePort;
+import srg.ship.GalaxyGraph;
+import srg.ship.RoomTier;
+import srg.ship.Ship;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * GameServer class which serves games over TCP, one game and ship per connection, all on one shared galaxy map.
+ * <p>
+ * A single thread runs a selector loop over every connection. Each line a client sends is parsed and
+ * performed as in the console game, and the output and the next prompt are sent back.
+ * The ships share one galaxy graph, and the connections share one parser and one read buffer,
+ * so an idle connection holds little more than its ship.
+ * Output which cannot be sent at once is kept for the connection, which is not read again until it is sent.
+ */
+public class GameServer implements Closeable {
+    /**
+     * The prompt sent before each command
+     */
+    public static final String PROMPT = "~> ";
+    /**
+     * Lines longer than this are dropped
+     */
+    static final int MAX_LINE_BYTES = 4096;
+    /**
+     * How long accepting waits after it fails, if no session closes first
+     */
+    static final long ACCEPT_RETRY_MILLIS = 100;
+
+    /**
+     * Waits for the connections to be ready
+     */
+    private Selector selector;
+    /**
+     * Accepts the connections
+     */
+    private ServerSocketChannel server;
+    /**
+     * The key of the server, ready when connections are waiting
+     */
+    private SelectionKey acceptKey;
+    /**
+     * When accepting is tried again after it failed, in System.nanoTime, or 0 if it is not paused
+     */
+    private long acceptRetryAt;
+    /**
+     * The seed of the galaxy map
+     */
+    private long seed;
+    /**
+     * The galaxy map shared by every game
+     */
+    private List<SpacePort> ports;
+    /**
+     * The graph of the galaxy map shared by every ship
+     */
+    private GalaxyGraph galaxyGraph;
+    /**
+     * Parses the lines of every connection, which is safe as it is only used by the selector thread
+     */
+    private CLIHandler commandParser = new CLIHandler();
+    /**
+     * Splits the lines of every connection where they were read, without making Strings of them
+     */
+    private CommandTokenizer tokens = new CommandTokenizer();
+    /**
+     * Collects the output of the lines being performed, encoded for the connection
+     */
+    private ByteBufferIO ioHandler = new ByteBufferIO();
+    /**
+     * Reads from every connection
+     */
+    private ByteBuffer readBuffer = ByteBuffer.allocateDirect(1 << 16);
+    /**
+     * Number of connections served so far, used to name the ships
+     */
+    private long connectionCount;
+    /**
+     * Number of open connections
+     */
+    private volatile int sessionCount;
+    // Every session has its own metrics, added to these when it closes
+    private final Metrics metrics = new Metrics();
+
+    /**
+     * Constructs server of the fixed galaxy map of the seed, listening on the address
+     * @param address The address to listen on, with port 0 for any free port
+     * @param seed The seed of the galaxy map
+     * @throws IOException If the address cannot be listened on
+     */
+    public GameServer(InetSocketAddress address, long seed) throws IOException {
+        this(address, seed, new MapGenerator(seed).generateMap());
+    }
+
+    /**
+     * Constructs server of the galaxy map, listening on the address
+     * @param address The address to listen on, with port 0 for any free port
+     * @param seed The seed the galaxy map was generated from
+     * @param ports The galaxy map shared by every game
+     * @throws IOException If the address cannot be listened on
+     */
+    public GameServer(InetSocketAddress address, long seed, List<SpacePort> ports) throws IOException {
+        this.seed = seed;
+        this.ports = ports;
+        this.galaxyGraph = new GalaxyGraph(ports);
+        commandParser.setPrompt("");
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(address, 1024);
+        server.configureBlocking(false);
+        acceptKey = server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * Gets the port the server listens on
+     * @return The port
+     * @throws IOException If the server is closed
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) server.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Gets the number of open connections
+     * @return Number of open connections
+     */
+    public int getSessionCount() {
+        return sessionCount;
+    }
+
+    /**
+     * Gets the metrics of the sessions added together, as each session records into its own
+     * @return The metrics of every session which has closed, which is every session once run has returned
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Serves the connections until the server is closed
+     * @throws IOException If the server cannot accept connections
+     */
+    public void run() throws IOException {
+        try {
+            while (server.isOpen()) {
+                if (acceptRetryAt == 0) {
+                    selector.select();
+                } else {
+                    selector.select(Math.max(1, (acceptRetryAt - System.nanoTime()) / 1_000_000));
+                    if (System.nanoTime() - acceptRetryAt >= 0) {
+                        resumeAccepting();
+                    }
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        serve(key);
+                    }
+                }
+            }
+        } catch (ClosedSelectorException closed) {
+            // The server was closed while waiting
+        } finally {
+            closeSessions();
+        }
+    }
+
+    /**
+     * Stops the server, closing every connection
+     * @throws IOException If the server cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        server.close();
+        selector.wakeup();
+    }
+
+    /**
+     * Accepts every waiting connection and sends it the first prompt
+     */
+    private void accept() {
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = server.accept();
+            } catch (IOException e) {
+                // Out of file descriptors, so the connection waits in the backlog. The server stops asking
+                // for connections, which would be ready again at once, until a session closes or a while passes.
+                pauseAccepting();
+                return;
+            }
+            if (channel == null) {
+                return;
+            }
+            open(channel);
+        }
+    }
+
+    /**
+     * Sets up a session for a connection which was accepted and sends it the first prompt.
+     * A connection which fails while it is set up is closed without stopping the others.
+     * @param channel The connection
+     */
+    void open(SocketChannel channel) {
+        SelectionKey key = null;
+        try {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            long number = connectionCount++;
+            Ship ship = new Ship("Ship " + number, "Player " + number, "NET" + number, RoomTier.BASIC,
+                    RoomTier.BASIC, galaxyGraph);
+            Session session = new Session(new Game(seed, ports, ship));
+            key = channel.register(selector, SelectionKey.OP_READ, session);
+            sessionCount++;
+            ioHandler.clearOutput();
+            ioHandler.write(PROMPT);
+            send(key, session);
+        } catch (IOException | RuntimeException e) {
+            if (key != null) {
+                closeSession(key);
+            } else {
+                try {
+                    channel.close();
+                } catch (IOException closing) {
+                    // The connection is gone either way
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops asking for connections until a session closes or {@link #ACCEPT_RETRY_MILLIS} pass
+     */
+    private void pauseAccepting() {
+        acceptKey.interestOps(0);
+        acceptRetryAt = System.nanoTime() + ACCEPT_RETRY_MILLIS * 1_000_000;
+    }
+
+    /**
+     * Asks for connections again after accepting was paused
+     */
+    private void resumeAccepting() {
+        acceptRetryAt = 0;
+        if (acceptKey.isValid()) {
+            acceptKey.interestOps(SelectionKey.OP_ACCEPT);
+        }
+    }
+
+    /**
+     * Reads and performs the lines of a connection which is ready, or sends its kept output
+     * @param key The key of the connection
+     */
+    private void serve(SelectionKey key) {
+        Session session = (Session) key.attachment();
+        try {
+            if (key.isWritable()) {
+                flushPending(key, session);
+            } else if (key.isReadable()) {
+                readLines(key, session);
+            }
+        } catch (IOException | RuntimeException e) {
+            // A failing connection is closed without stopping the others
+            closeSession(key);
+        }
+    }
+
+    /**
+     * Reads what the client has sent and performs every whole line
+     * @param key The key of the connection
+     * @param session The session of the connection
+     * @throws IOException If the connection fails
+     */
+    private void readLines(SelectionKey key, Session session) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        readBuffer.clear();
+        int read = channel.read(readBuffer);
+        if (read < 0) {
+            closeSession(key);
+            return;
+        }
+        readBuffer.flip();
+        ioHandler.clearOutput();
+        while (readBuffer.hasRemaining() && !session.closing) {
+            int start = readBuffer.position();
+            int end = start;
+            while (end < readBuffer.limit() && readBuffer.get(end) != '\n') {
+                end++;
+            }
+            if (end == readBuffer.limit()) {
+                session.keep(readBuffer, start, end);
+                readBuffer.position(end);
+                break;
+            }
+            boolean whole = session.takeLine(readBuffer, start, end, tokens);
+            readBuffer.position(end + 1);
+            if (whole) {
+                perform(session);
+            } else {
+                ioHandler.writeLn("Line too long.");
+                ioHandler.write(PROMPT);
+            }
+        }
+        send(key, session);
+    }
+
+    /**
+     * Parses and performs the line split into the tokens in the game of the session, then writes the next prompt
+     * @param session The session of the connection
+     */
+    private void perform(Session session) {
+        Command command = commandParser.parseOne(tokens, ioHandler);
+        if (command != null && command.type == CommandType.SHOW_HELP) {
+            ioHandler.writeLn(commandParser.getHelp());
+        } else if (command != null && session.game.update(ioHandler, command)) {
+            session.closing = true;
+            return;
+        }
+        ioHandler.write(PROMPT);
+    }
+
+    /**
+     * Sends the output collected for the session, keeping what cannot be sent at once
+     * @param key The key of the connection
+     * @param session The session of the connection
+     * @throws IOException If the connection fails
+     */
+    private void send(SelectionKey key, Session session) throws IOException {
+        ByteBuffer output = ioHandler.getOutput().flip();
+        SocketChannel channel = (SocketChannel) key.channel();
+        if (session.pending == null) {
+            channel.write(output);
+        }
+        if (output.hasRemaining()) {
+            session.addPending(output);
+            key.interestOps(SelectionKey.OP_WRITE);
+        } else if (session.closing) {
+            closeSession(key);
+        }
+    }
+
+    /**
+     * Sends the kept output of the session, and reads from it again once it is all sent
+     * @param key The key of the connection
+     * @param session The session of the connection
+     * @throws IOException If the connection fails
+     */
+    private void flushPending(SelectionKey key, Session session) throws IOException {
+        ((SocketChannel) key.channel()).write(session.pending);
+        if (!session.pending.hasRemaining()) {
+            session.pending = null;
+            if (session.closing) {
+                closeSession(key);
+            } else {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+    }
+
+    /**
+     * Closes a connection
+     * @param key The key of the connection
+     */
+    private void closeSession(SelectionKey key) {
+        if (!(key.attachment() instanceof Session session)) {
+            return;
+        }
+        metrics.add(session.game.ship.getMetrics());
+        key.attach(null);
+        key.cancel();
+        sessionCount--;
+        if (acceptRetryAt != 0) {
+            resumeAccepting();
+        }
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            // The connection is gone either way
+        }
+    }
+
+    /**
+     * Closes every connection and the selector
+     */
+    private void closeSessions() {
+        try {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Session) {
+                    closeSession(key);
+                }
+            }
+            selector.close();
+        } catch (ClosedSelectorException | IOException e) {
+            // Already closed
+        }
+    }
+
+    /**
+     * Session class which holds the game of a connection and the bytes of the connection not yet used
+     */
+    private static class Session {
+        /**
+         * The game of the connection
+         */
+        private final Game game;
+        /**
+         * The start of a line whose end has not been read yet, or null
+         */
+        private byte[] partial;
+        /**
+         * Number of bytes of the partial line, or -1 if the line was too long and is being dropped
+         */
+        private int partialLength;
+        /**
+         * Output which could not be sent yet, or null
+         */
+        private ByteBuffer pending;
+        /**
+         * If the game has ended and the connection is closed once its output is sent
+         */
+        private boolean closing;
+
+        /**
+         * Constructs session of the game
+         * @param game The game of the connection
+         */
+        Session(Game game) {
+            this.game = game;
+        }
+
+        /**
+         * Keeps the start of a line whose end has not been read yet
+         * @param buffer The bytes read
+         * @param start Where the line starts in the buffer
+         * @param end Where the bytes read end
+         */
+        void keep(ByteBuffer buffer, int start, int end) {
+            if (partialLength < 0) {
+                return;
+            }
+            int length = partialLength + end - start;
+            if (length > MAX_LINE_BYTES) {
+                partial = null;
+                partialLength = -1;
+                return;
+            }
+            if (partial == null || partial.length < length) {
+                partial = Arrays.copyOf(partial == null ? new byte[0] : partial,
+                        Math.max(length, 64));
+            }
+            buffer.get(start, partial, partialLength, end - start);
+            partialLength = length;
+        }
+
+        /**
+         * Takes a whole line, joined to its start if that was kept, and splits it into the tokens.
+         * A line read whole is split where it lies in the buffer.
+         * @param buffer The bytes read
+         * @param start Where the rest of the line starts in the buffer
+         * @param end Where the line ends in the buffer, at the line feed
+         * @param tokens The tokenizer the line without its line ending is split into
+         * @return If the line was split returns true, and if it was too long returns false
+         */
+        boolean takeLine(ByteBuffer buffer, int start, int end, CommandTokenizer tokens) {
+            boolean tooLong = partialLength < 0 || partialLength + end - start > MAX_LINE_BYTES;
+            if (tooLong) {
+                partial = null;
+                partialLength = 0;
+                return false;
+            }
+            ByteBuffer line = buffer;
+            if (partial != null) {
+                keep(buffer, start, end);
+                line = ByteBuffer.wrap(partial);
+                start = 0;
+                end = partialLength;
+            }
+            if (end > start && line.get(end - 1) == '\r') {
+                end--;
+            }
+            tokens.tokenize(line, start, end);
+            partial = null;
+            partialLength = 0;
+            return true;
+        }
+
+        /**
+         * Keeps output which could not be sent, after any output already kept
+         * @param output The output not sent
+         */
+        void addPending(ByteBuffer output) {
+            if (pending == null) {
+                pending = ByteBuffer.allocate(output.remaining()).put(output).flip();
+            } else {
+                pending = ByteBuffer.allocate(pending.remaining() + output.remaining())
+                        .put(pending).put(output).flip();
+            }
+        }
+    }
+}
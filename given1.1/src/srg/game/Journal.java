@@ -0,0 +1,570 @@
+package srg.game;
+
+import srg.cli.given.Command;
+import srg.cli.given.CommandType;
+import srg.cli.given.PurchaseCommand;
+import srg.cli.given.ShipCommand;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Journal class which appends every command applied to a game to a file, so the game can be replayed exactly.
+ * <p>
+ * The file starts with the magic number, the version and the seed of the galaxy map of the game,
+ * followed by one record per command: its length, its CRC32, and the command.
+ * Appending only encodes the record into memory. The records are written and forced to disk in batches,
+ * by a background thread every commit interval or as soon as a batch is full, and by {@link #sync}.
+ * A journal which is opened again continues after its last whole record.
+ */
+public class Journal implements Closeable {
+    /**
+     * The first four bytes of a journal file, "SRGJ"
+     */
+    static final int MAGIC = 0x5352474a;
+    /**
+     * Version of the format
+     */
+    static final int VERSION = 1;
+    /**
+     * Number of bytes of the file header
+     */
+    static final int HEADER_BYTES = 2 * Integer.BYTES + Long.BYTES;
+    /**
+     * Number of bytes before the payload of a record, its length and its CRC32
+     */
+    static final int RECORD_HEADER_BYTES = 2 * Integer.BYTES;
+    /**
+     * Default time between commits, in milliseconds
+     */
+    public static final long DEFAULT_COMMIT_INTERVAL = 10;
+    /**
+     * Number of bytes of records after which a batch is committed without waiting for the interval
+     */
+    static final int BATCH_BYTES = 1 << 16;
+
+    /**
+     * Kind of a record of a command with no value
+     */
+    private static final byte COMMAND = 0;
+    /**
+     * Kind of a record of a ship command
+     */
+    private static final byte SHIP_COMMAND = 1;
+    /**
+     * Kind of a record of a purchase command
+     */
+    private static final byte PURCHASE_COMMAND = 2;
+
+    /**
+     * The journal file, open for appending
+     */
+    private FileChannel channel;
+    /**
+     * The seed of the galaxy map of the journalled game
+     */
+    private long seed;
+    /**
+     * Records appended but not yet taken by a commit
+     */
+    private ByteBuffer pending = ByteBuffer.allocate(2 * BATCH_BYTES);
+    /**
+     * Records being written by a commit, swapped with pending
+     */
+    private ByteBuffer writing = ByteBuffer.allocate(2 * BATCH_BYTES);
+    /**
+     * Number of commands in the journal, including those not yet committed
+     */
+    private long commandCount;
+    /**
+     * Number of commands which have been forced to disk
+     */
+    private long committedCount;
+    /**
+     * Guards pending and the counts
+     */
+    private final Object lock = new Object();
+    /**
+     * Held while a batch is written, so batches are written in order
+     */
+    private final Object commitLock = new Object();
+    /**
+     * Commits the batches in the background
+     */
+    private ScheduledExecutorService committer;
+    /**
+     * The failure of the last background commit, reported by the next append or sync
+     */
+    private volatile IOException failure;
+    /**
+     * Encodes the records
+     */
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * Opens the journal with the default commit interval, creating it if it does not exist
+     * @param path The journal file
+     * @param seed The seed of the galaxy map of the game
+     * @throws IOException If the file cannot be opened, or is a journal of a game with another seed
+     */
+    public Journal(Path path, long seed) throws IOException {
+        this(path, seed, DEFAULT_COMMIT_INTERVAL);
+    }
+
+    /**
+     * Opens the journal, creating it if it does not exist
+     * @param path The journal file
+     * @param seed The seed of the galaxy map of the game
+     * @param commitInterval Time between commits, in milliseconds
+     * @throws IOException If the file cannot be opened, or is a journal of a game with another seed
+     */
+    public Journal(Path path, long seed, long commitInterval) throws IOException {
+        this.seed = seed;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION)
+                        .putLong(seed);
+                header.flip();
+                writeFully(header);
+                channel.force(false);
+            } else {
+                Reader reader = new Reader(channel, path);
+                if (reader.getSeed() != seed) {
+                    throw new IOException("Journal of seed " + reader.getSeed() + " cannot record seed "
+                            + seed + ": " + path);
+                }
+                while (reader.skip()) {
+                    commandCount++;
+                }
+                // Anything after the last whole record was torn by a crash
+                channel.truncate(reader.getValidLength());
+            }
+            channel.position(channel.size());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        committedCount = commandCount;
+        committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-commit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        committer.scheduleWithFixedDelay(this::commitInBackground, commitInterval, commitInterval,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets the seed of the galaxy map of the journalled game
+     * @return The seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the number of commands in the journal, including those not yet forced to disk
+     * @return Number of commands
+     */
+    public long getCommandCount() {
+        synchronized (lock) {
+            return commandCount;
+        }
+    }
+
+    /**
+     * Gets the number of commands which have been forced to disk
+     * @return Number of committed commands
+     */
+    public long getCommittedCount() {
+        synchronized (lock) {
+            return committedCount;
+        }
+    }
+
+    /**
+     * Appends the command. The command is written with the next batch.
+     * @param command The command to append
+     * @throws UncheckedIOException If an earlier batch could not be written
+     */
+    public void append(Command command) {
+        IOException failed = failure;
+        if (failed != null) {
+            throw new UncheckedIOException(failed);
+        }
+        boolean full;
+        synchronized (lock) {
+            encode(command);
+            commandCount++;
+            full = pending.position() >= BATCH_BYTES;
+        }
+        if (full && !committer.isShutdown()) {
+            committer.execute(this::commitInBackground);
+        }
+    }
+
+    /**
+     * Reads the commands of a journal in order, until its end or the first record which is torn or corrupt
+     * @param path The journal file
+     * @param commands Takes each command
+     * @return The seed of the galaxy map of the journalled game
+     * @throws IOException If the file cannot be read or is not a journal
+     */
+    public static long read(Path path, Consumer<Command> commands) throws IOException {
+        try (Reader reader = openReader(path)) {
+            Command command;
+            while ((command = reader.next()) != null) {
+                commands.accept(command);
+            }
+            return reader.getSeed();
+        }
+    }
+
+    /**
+     * Opens a journal for reading its commands one at a time
+     * @param path The journal file
+     * @return Reader of the journal, which has read the header
+     * @throws IOException If the file cannot be read or is not a journal
+     */
+    public static Reader openReader(Path path) throws IOException {
+        FileChannel in = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new Reader(in, path);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes every command appended so far and forces it to disk
+     * @throws IOException If the journal cannot be written
+     */
+    public void sync() throws IOException {
+        IOException failed = failure;
+        if (failed != null) {
+            throw failed;
+        }
+        commit();
+    }
+
+    /**
+     * Syncs the journal and closes it
+     * @throws IOException If the journal cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        committer.shutdown();
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes the records appended so far as one batch, and forces them to disk
+     * @throws IOException If the journal cannot be written
+     */
+    private void commit() throws IOException {
+        synchronized (commitLock) {
+            long upTo;
+            synchronized (lock) {
+                if (pending.position() == 0) {
+                    return;
+                }
+                ByteBuffer batch = pending;
+                pending = writing;
+                writing = batch;
+                upTo = commandCount;
+            }
+            writing.flip();
+            writeFully(writing);
+            writing.clear();
+            channel.force(false);
+            synchronized (lock) {
+                committedCount = upTo;
+            }
+        }
+    }
+
+    /**
+     * Commits from the background thread, keeping the failure for the next append or sync
+     */
+    private void commitInBackground() {
+        try {
+            if (channel.isOpen()) {
+                commit();
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * Encodes the command as a record at the end of pending
+     * @param command The command
+     */
+    private void encode(Command command) {
+        byte[] value = null;
+        byte[] item = null;
+        byte kind = COMMAND;
+        if (command instanceof PurchaseCommand purchase) {
+            kind = PURCHASE_COMMAND;
+            item = bytesOf(purchase.item);
+        } else if (command instanceof ShipCommand shipCommand) {
+            kind = SHIP_COMMAND;
+            value = bytesOf(shipCommand.value);
+        }
+        int length = 2;
+        if (kind == SHIP_COMMAND) {
+            length += Integer.BYTES + (value == null ? 0 : value.length);
+        } else if (kind == PURCHASE_COMMAND) {
+            length += 2 * Integer.BYTES + (item == null ? 0 : item.length);
+        }
+        if (pending.remaining() < RECORD_HEADER_BYTES + length) {
+            ByteBuffer larger = ByteBuffer.allocate(
+                    Math.max(pending.capacity() * 2, pending.position() + RECORD_HEADER_BYTES + length));
+            pending.flip();
+            pending = larger.put(pending);
+        }
+        int start = pending.position();
+        pending.position(start + RECORD_HEADER_BYTES);
+        pending.put(kind).put((byte) command.type.ordinal());
+        if (kind == SHIP_COMMAND) {
+            putBytes(value);
+        } else if (kind == PURCHASE_COMMAND) {
+            putBytes(item);
+            pending.putInt(((PurchaseCommand) command).amount);
+        }
+        crc.reset();
+        crc.update(pending.array(), start + RECORD_HEADER_BYTES, length);
+        pending.putInt(start, length);
+        pending.putInt(start + Integer.BYTES, (int) crc.getValue());
+    }
+
+    /**
+     * Decodes the command of a record
+     * @param record The payload of the record
+     * @return The command
+     */
+    static Command decode(ByteBuffer record) {
+        byte kind = record.get();
+        CommandType type = CommandType.values()[record.get()];
+        if (kind == SHIP_COMMAND) {
+            return new ShipCommand(type, getString(record));
+        }
+        if (kind == PURCHASE_COMMAND) {
+            String item = getString(record);
+            return new PurchaseCommand(item, record.getInt());
+        }
+        return new Command(type);
+    }
+
+    /**
+     * Reads a string written as its length and bytes
+     * @param record The record to read from
+     * @return The string, or null
+     */
+    private static String getString(ByteBuffer record) {
+        int length = record.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String text = new String(record.array(), record.arrayOffset() + record.position(), length,
+                StandardCharsets.UTF_8);
+        record.position(record.position() + length);
+        return text;
+    }
+
+    /**
+     * Writes a string as its length and bytes
+     * @param bytes The bytes of the string, or null
+     */
+    private void putBytes(byte[] bytes) {
+        if (bytes == null) {
+            pending.putInt(-1);
+        } else {
+            pending.putInt(bytes.length);
+            pending.put(bytes);
+        }
+    }
+
+    /**
+     * Gets the UTF-8 bytes of a string
+     * @param text The string, or null
+     * @return The bytes, or null for null
+     */
+    private static byte[] bytesOf(String text) {
+        return text == null ? null : text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the whole buffer to the end of the journal
+     * @param buffer The bytes to write
+     * @throws IOException If the journal cannot be written
+     */
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Reader class which reads the commands of a journal through a buffer, so journals of any length can be read.
+     * Reading stops at the end of the journal or at the first record which is torn or corrupt.
+     */
+    public static class Reader implements Closeable {
+        /**
+         * Records longer than this are taken to be torn
+         */
+        private static final int MAX_RECORD_BYTES = 1 << 24;
+
+        /**
+         * The journal file
+         */
+        private final FileChannel in;
+        /**
+         * The bytes read from the file and not yet taken
+         */
+        private ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+        /**
+         * The seed of the galaxy map of the journalled game
+         */
+        private final long seed;
+        /**
+         * Where the last whole record ends in the file
+         */
+        private long validLength = HEADER_BYTES;
+        /**
+         * Checks the records
+         */
+        private final CRC32 crc = new CRC32();
+
+        /**
+         * Constructs reader and reads the header of the journal
+         * @param in The journal file
+         * @param path The journal file, for error messages
+         * @throws IOException If the file cannot be read or is not a journal
+         */
+        private Reader(FileChannel in, Path path) throws IOException {
+            this.in = in;
+            in.position(0);
+            buffer.flip();
+            if (!ensure(HEADER_BYTES) || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a journal file: " + path);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported journal file version " + version + ": " + path);
+            }
+            seed = buffer.getLong();
+        }
+
+        /**
+         * Gets the seed of the galaxy map of the journalled game
+         * @return The seed
+         */
+        public long getSeed() {
+            return seed;
+        }
+
+        /**
+         * Gets where the last whole record read ends in the file
+         * @return Length of the file up to the end of the last whole record
+         */
+        long getValidLength() {
+            return validLength;
+        }
+
+        /**
+         * Reads the next command
+         * @return The command, or null at the end of the journal
+         * @throws IOException If the file cannot be read
+         */
+        public Command next() throws IOException {
+            ByteBuffer record = nextRecord();
+            return record == null ? null : decode(record);
+        }
+
+        /**
+         * Skips the next command without decoding it
+         * @return If there was a command to skip returns true, and at the end of the journal returns false
+         * @throws IOException If the file cannot be read
+         */
+        public boolean skip() throws IOException {
+            return nextRecord() != null;
+        }
+
+        /**
+         * Closes the journal file
+         * @throws IOException If the file cannot be closed
+         */
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        /**
+         * Reads the next record
+         * @return The payload of the record, or null at the end of the journal or at a torn or corrupt record
+         * @throws IOException If the file cannot be read
+         */
+        private ByteBuffer nextRecord() throws IOException {
+            if (!ensure(RECORD_HEADER_BYTES)) {
+                return null;
+            }
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length < 2 || length > MAX_RECORD_BYTES || !ensure(length)) {
+                return null;
+            }
+            ByteBuffer record = buffer.slice(buffer.position(), length);
+            crc.reset();
+            crc.update(record.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                return null;
+            }
+            buffer.position(buffer.position() + length);
+            validLength += RECORD_HEADER_BYTES + length;
+            return record;
+        }
+
+        /**
+         * Reads from the file until the buffer holds the number of bytes
+         * @param bytes Number of bytes needed
+         * @return If the buffer holds the bytes returns true, and if the file ended first returns false
+         * @throws IOException If the file cannot be read
+         */
+        private boolean ensure(int bytes) throws IOException {
+            while (buffer.remaining() < bytes) {
+                if (bytes > buffer.capacity()) {
+                    buffer = ByteBuffer.allocate(bytes).put(buffer).flip();
+                }
+                buffer.compact();
+                int read = in.read(buffer);
+                buffer.flip();
+                if (read < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
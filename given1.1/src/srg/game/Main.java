@@ -2,18 +2,165 @@ package srg.game;
 
 import srg.cli.given.CLIHandler;
 import srg.cli.given.Command;
+import srg.cli.given.ConsoleIO;
 import srg.cli.given.IO;
+import srg.cli.given.MapGenerator;
+import srg.cli.given.Transcript;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
 
 public class Main {
-    public static void main(String[] args) {
+    private static final String USAGE =
+            "usage: Main [--script FILE|-] [--output FILE] [--journal FILE] [--metrics FILE]"
+            + System.lineSeparator()
+            + "       Main --replay FILE [--snapshot FILE]" + System.lineSeparator()
+            + "       Main --serve PORT [--metrics FILE]" + System.lineSeparator()
+            + "  --script    run the commands of FILE, or of stdin for -, without prompts,"
+            + " then print a summary" + System.lineSeparator()
+            + "  --output    write the output of the script to FILE instead of discarding it"
+            + System.lineSeparator()
+            + "  --journal   append every command of the game to the journal FILE" + System.lineSeparator()
+            + "  --metrics   write the metrics of the game, or of every game served, to FILE as JSON when it ends"
+            + System.lineSeparator()
+            + "  --replay    rebuild the game of the journal FILE and print its status" + System.lineSeparator()
+            + "  --snapshot  start the replay from the snapshot FILE" + System.lineSeparator()
+            + "  --serve     serve a game per connection on the local TCP PORT, all on one galaxy map";
+
+    public static void main(String[] args) throws IOException {
+        String script = null;
+        String output = null;
+        String journal = null;
+        String replay = null;
+        String snapshot = null;
+        String serve = null;
+        String metrics = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--script") && i + 1 < args.length) {
+                script = args[++i];
+            } else if (args[i].equals("--output") && i + 1 < args.length) {
+                output = args[++i];
+            } else if (args[i].equals("--journal") && i + 1 < args.length) {
+                journal = args[++i];
+            } else if (args[i].equals("--metrics") && i + 1 < args.length) {
+                metrics = args[++i];
+            } else if (args[i].equals("--replay") && i + 1 < args.length) {
+                replay = args[++i];
+            } else if (args[i].equals("--snapshot") && i + 1 < args.length) {
+                snapshot = args[++i];
+            } else if (args[i].equals("--serve") && i + 1 < args.length) {
+                serve = args[++i];
+            } else {
+                usage();
+            }
+        }
+        if ((script == null && output != null) || (replay == null && snapshot != null)
+                || (replay != null && (script != null || journal != null || metrics != null))
+                || (serve != null && (script != null || journal != null || replay != null))) {
+            usage();
+        }
+
+        if (serve != null) {
+            serve(serve, metrics);
+            return;
+        }
+        if (replay != null) {
+            replay(replay, snapshot);
+            return;
+        }
         Game game = new Game();
-        IO ioHandler = new IO();
+        Journal gameJournal = journal == null ? null : new Journal(Path.of(journal), game.getSeed());
+        game.setJournal(gameJournal);
+        try {
+            if (script != null) {
+                runScript(game, script, output);
+            } else {
+                play(game);
+            }
+        } finally {
+            if (gameJournal != null) {
+                gameJournal.close();
+            }
+            if (metrics != null) {
+                Files.writeString(Path.of(metrics), game.ship.getMetrics().toJson() + System.lineSeparator());
+            }
+        }
+    }
+
+    private static void usage() {
+        System.err.println(USAGE);
+        System.exit(2);
+    }
+
+    private static void play(Game game) {
+        IO ioHandler = new ConsoleIO();
         CLIHandler commandParser = new CLIHandler();
 
         boolean exit;
-        do {
-            Command command = commandParser.parse(ioHandler);
-            exit = game.update(ioHandler, command);
-        } while (!exit);
+        try {
+            do {
+                Command command = commandParser.parse(ioHandler);
+                exit = game.update(ioHandler, command);
+            } while (!exit);
+        } finally {
+            ioHandler.flush();
+        }
+    }
+
+    private static void runScript(Game game, String script, String output) throws IOException {
+        try (InputStream in = script.equals("-") ? System.in : new FileInputStream(script);
+             OutputStream out = output == null ? OutputStream.nullOutputStream()
+                     : new FileOutputStream(output)) {
+            // Only the last line is kept, the output itself goes to out
+            ScriptRunner runner = new ScriptRunner(game, new ConsoleIO(in, out, new Transcript(1)));
+            runner.run();
+            System.out.print(runner.getSummary());
+        }
+    }
+
+    private static void serve(String port, String metrics) throws IOException {
+        int number = 0;
+        try {
+            number = Integer.parseInt(port);
+        } catch (NumberFormatException e) {
+            usage();
+        }
+        GameServer server = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), number),
+                MapGenerator.DEFAULT_SEED);
+        CountDownLatch stopped = new CountDownLatch(1);
+        if (metrics != null) {
+            // The server only stops when the process is, so the sessions are totalled on the way out
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    server.close();
+                    stopped.await();
+                    Files.writeString(Path.of(metrics), server.getMetrics().toJson() + System.lineSeparator());
+                } catch (IOException | InterruptedException e) {
+                    System.err.println("could not write metrics: " + e);
+                }
+            }));
+        }
+        try (server) {
+            System.out.println("serving on port " + server.getPort());
+            server.run();
+        } finally {
+            stopped.countDown();
+        }
+    }
+
+    private static void replay(String journal, String snapshot) throws IOException {
+        Replay replay = new Replay(Path.of(journal));
+        Game game = replay.run(snapshot == null ? null : Path.of(snapshot));
+        System.out.println(game.ship);
+        System.out.printf("replayed: %d, skipped: %d, time: %.3f ms%n", replay.getAppliedCount(),
+                replay.getSkippedCount(), replay.getElapsedNanos() / 1e6);
     }
-}
\ No newline at end of file
+}
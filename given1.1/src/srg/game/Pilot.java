@@ -0,0 +1,20 @@
+package srg.game;
+
+import srg.cli.given.ShipCommand;
+import srg.ship.Ship;
+
+import java.util.SplittableRandom;
+
+/**
+ * Pilot interface which decides what a ship does on each tick of a {@link Simulation}
+ */
+public interface Pilot {
+    /**
+     * Chooses the next command of the ship.
+     * Called from many threads at once, each with a different ship and random.
+     * @param ship The ship to command
+     * @param random Random numbers owned by the ship
+     * @return The command for the ship, or null to wait for this tick
+     */
+    abstract ShipCommand nextCommand(Ship ship, SplittableRandom random);
+}
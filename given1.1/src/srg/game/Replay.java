@@ -0,0 +1,115 @@
+package srg.game;
+
+import srg.cli.given.Command;
+import srg.cli.given.IO;
+import srg.cli.given.NullIO;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Replay class which rebuilds a game from the seed and commands of its journal.
+ * The commands are applied without output and without journalling, and a replay can start from a snapshot
+ * of the game so only the commands after the snapshot are applied.
+ */
+public class Replay {
+    /**
+     * Takes the output of the replayed commands
+     */
+    private static final IO SILENT = new NullIO();
+
+    /**
+     * The journal to replay
+     */
+    private Path journal;
+    /**
+     * Number of commands applied by the last replay
+     */
+    private long appliedCount;
+    /**
+     * Number of commands skipped by the last replay because the snapshot already held them
+     */
+    private long skippedCount;
+    /**
+     * Time taken by the last replay, in nanoseconds
+     */
+    private long elapsedNanos;
+
+    /**
+     * Constructs replay of the journal
+     * @param journal The journal file
+     */
+    public Replay(Path journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Rebuilds the game by applying every command of the journal to a new game of its seed
+     * @return The rebuilt game
+     * @throws IOException If the journal cannot be read
+     */
+    public Game run() throws IOException {
+        return run(null);
+    }
+
+    /**
+     * Rebuilds the game from the snapshot, then applies the commands of the journal after the snapshot.
+     * If the snapshot does not exist or was not taken with the journal, every command is applied instead.
+     * @param snapshot The snapshot file, or null
+     * @return The rebuilt game
+     * @throws IOException If the journal or snapshot cannot be read
+     */
+    public Game run(Path snapshot) throws IOException {
+        long start = System.nanoTime();
+        appliedCount = 0;
+        skippedCount = 0;
+        try (Journal.Reader reader = Journal.openReader(journal)) {
+            Game game = new Game(reader.getSeed());
+            long skip = 0;
+            if (snapshot != null && Files.exists(snapshot)) {
+                long mark = Snapshot.restoreToMark(snapshot, game);
+                if (mark >= 0) {
+                    skip = mark;
+                } else {
+                    game = new Game(reader.getSeed());
+                }
+            }
+            while (skippedCount < skip && reader.skip()) {
+                skippedCount++;
+            }
+            Command command;
+            while ((command = reader.next()) != null) {
+                game.update(SILENT, command);
+                appliedCount++;
+            }
+            return game;
+        } finally {
+            elapsedNanos = System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Gets the number of commands applied by the last replay
+     * @return Number of commands applied
+     */
+    public long getAppliedCount() {
+        return appliedCount;
+    }
+
+    /**
+     * Gets the number of commands of the journal the snapshot already held in the last replay
+     * @return Number of commands skipped
+     */
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * Gets the time taken by the last replay
+     * @return Time taken, in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
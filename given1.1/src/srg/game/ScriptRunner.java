@@ -0,0 +1,148 @@
+package srg.game;
+
+import srg.cli.given.CLIHandler;
+import srg.cli.given.Command;
+import srg.cli.given.CommandType;
+import srg.cli.given.IO;
+import srg.cli.given.ShipCommand;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+/**
+ * ScriptRunner class which plays a game from a script without a player, counting the commands and errors
+ */
+public class ScriptRunner {
+    /**
+     * The game the script is played in
+     */
+    private Game game;
+    /**
+     * Parser of the script lines, which does not write a prompt
+     */
+    private CLIHandler commandParser;
+    /**
+     * Source of the script and sink of the output
+     */
+    private IO ioHandler;
+    /**
+     * Number of lines read
+     */
+    private long lineCount;
+    /**
+     * Number of lines which were parsed into a command
+     */
+    private long commandCount;
+    /**
+     * Number of failed lines, by parse error or by the exception which stopped the command
+     */
+    private Map<String, Long> errors = new TreeMap<>();
+    /**
+     * Time taken by the last run, in nanoseconds
+     */
+    private long elapsedNanos;
+
+    /**
+     * Constructs script runner for the game
+     * @param game The game to play the script in
+     * @param ioHandler Reads the script and takes the output
+     */
+    public ScriptRunner(Game game, IO ioHandler) {
+        this.game = game;
+        this.ioHandler = ioHandler;
+        this.commandParser = new CLIHandler();
+        this.commandParser.setPrompt("");
+    }
+
+    /**
+     * Runs every line of the script until it ends or an exit command is given
+     */
+    public void run() {
+        long start = System.nanoTime();
+        try {
+            boolean exit = false;
+            while (!exit) {
+                exit = runLine();
+            }
+        } catch (NoSuchElementException end) {
+            // The script has ended
+        } finally {
+            ioHandler.flush();
+            elapsedNanos = System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Runs the next line of the script
+     * @return true if the line was an exit command
+     */
+    private boolean runLine() {
+        Command command = commandParser.parseOne(ioHandler);
+        lineCount++;
+        if (command == null) {
+            errors.merge(commandParser.getLastError().toString(), 1L, Long::sum);
+            return false;
+        }
+        commandCount++;
+        if (command.type == CommandType.SHOW_HELP) {
+            ioHandler.writeLn(commandParser.getHelp());
+        } else if (command instanceof ShipCommand shipCommand) {
+            Exception error = game.perform(ioHandler, shipCommand);
+            if (error != null) {
+                errors.merge(error.getClass().getSimpleName(), 1L, Long::sum);
+            }
+        } else {
+            return game.update(ioHandler, command);
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of lines read
+     * @return Number of lines read
+     */
+    public long getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Gets the number of lines which were parsed into a command, whether the command then failed or not
+     * @return Number of commands
+     */
+    public long getCommandCount() {
+        return commandCount;
+    }
+
+    /**
+     * Gets the number of failed lines by the type of failure
+     * @return Number of failed lines, by parse error or by the simple name of the exception
+     */
+    public Map<String, Long> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Gets the time taken by the last run
+     * @return Time taken, in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gives the summary of the last run
+     * @return Lines, commands per second, time taken and errors by type, one per line
+     */
+    public String getSummary() {
+        double seconds = elapsedNanos / 1e9;
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("lines: %d, commands: %d, errors: %d%n", lineCount,
+                commandCount, errors.values().stream().mapToLong(Long::longValue).sum()));
+        summary.append(String.format("time: %.3f s, %.0f commands/sec%n", seconds,
+                seconds > 0 ? commandCount / seconds : 0));
+        errors.forEach((type, count) ->
+                summary.append(String.format("  %s: %d%n", type, count)));
+        return summary.toString();
+    }
+}
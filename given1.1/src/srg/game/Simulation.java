@@ -0,0 +1,148 @@
+package srg.game;
+
+import srg.cli.given.IO;
+import srg.cli.given.NullIO;
+import srg.cli.given.ShipCommand;
+import srg.ports.SpacePort;
+import srg.ship.GalaxyGraph;
+import srg.ship.RoomTier;
+import srg.ship.Ship;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Simulation class which moves a fleet of ships over one shared galaxy map in discrete ticks.
+ * On each tick every ship performs one command chosen by the pilot, and the ships are spread over a fork-join pool.
+ * Ports are shared safely because spaceports and shipyards do not change and stores update their stock atomically.
+ */
+public class Simulation {
+    /**
+     * Seed of the random numbers of the ships when none is given
+     */
+    public static final long DEFAULT_SEED = 4;
+
+    /**
+     * Output of the ships, which is discarded
+     */
+    private static final IO SILENT = new NullIO();
+
+    /**
+     * The shared galaxy map
+     */
+    private List<SpacePort> ports;
+    /**
+     * The ships of the fleet, each with its own rooms
+     */
+    private List<Ship> ships = new ArrayList<>();
+    /**
+     * Random numbers of each ship, so ships never share a generator
+     */
+    private SplittableRandom[] randoms;
+    /**
+     * The pilot which chooses the commands of every ship
+     */
+    private Pilot pilot;
+    /**
+     * The pool that runs the ships
+     */
+    private ForkJoinPool pool;
+    /**
+     * Number of ticks run so far
+     */
+    private long tick;
+
+    /**
+     * Constructs simulation of wandering ships seeded with {@link #DEFAULT_SEED} which uses every core
+     * @param ports The shared galaxy map
+     * @param shipCount Number of ships in the fleet
+     */
+    public Simulation(List<SpacePort> ports, int shipCount) {
+        this(ports, shipCount, new WanderingPilot(), DEFAULT_SEED, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs simulation with all its settings
+     * @param ports The shared galaxy map
+     * @param shipCount Number of ships in the fleet
+     * @param pilot The pilot which chooses the commands of every ship
+     * @param seed Seed of the random numbers of the ships
+     * @param pool The pool that runs the ships
+     */
+    public Simulation(List<SpacePort> ports, int shipCount, Pilot pilot, long seed,
+                      ForkJoinPool pool) {
+        this.ports = ports;
+        this.pilot = pilot;
+        this.pool = pool;
+        GalaxyGraph galaxyGraph = new GalaxyGraph(ports);
+        SplittableRandom seeds = new SplittableRandom(seed);
+        randoms = new SplittableRandom[shipCount];
+        for (int i = 0; i < shipCount; i++) {
+            ships.add(new Ship("Ship " + i, "Simulation", "SIM" + i, RoomTier.BASIC,
+                    RoomTier.BASIC, galaxyGraph));
+            randoms[i] = seeds.split();
+        }
+    }
+
+    /**
+     * Performs one command for every ship
+     */
+    public void tick() {
+        pool.submit(() -> IntStream.range(0, ships.size()).parallel().forEach(this::step)).join();
+        tick++;
+    }
+
+    /**
+     * Runs the ticks and measures how fast they ran
+     * @param ticks Number of ticks to run
+     * @return Ticks run per second
+     */
+    public double run(int ticks) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ticks; i++) {
+            tick();
+        }
+        long elapsed = Math.max(System.nanoTime() - start, 1);
+        return ticks * 1e9 / elapsed;
+    }
+
+    /**
+     * Performs the next command of one ship
+     * @param index The index of the ship
+     */
+    private void step(int index) {
+        Ship ship = ships.get(index);
+        ShipCommand command = pilot.nextCommand(ship, randoms[index]);
+        if (command != null) {
+            ship.performCommand(SILENT, command);
+        }
+    }
+
+    /**
+     * Gets the ships of the fleet
+     * @return Unmodifiable list of the ships
+     */
+    public List<Ship> getShips() {
+        return Collections.unmodifiableList(ships);
+    }
+
+    /**
+     * Gets the shared galaxy map
+     * @return The ports of the galaxy
+     */
+    public List<SpacePort> getPorts() {
+        return ports;
+    }
+
+    /**
+     * Gets the number of ticks run so far
+     * @return Number of ticks
+     */
+    public long getTick() {
+        return tick;
+    }
+}
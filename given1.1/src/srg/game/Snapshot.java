@@ -0,0 +1,474 @@
+package srg.game;
+
+import srg.ports.PortTable;
+import srg.ports.SpacePort;
+import srg.ports.Store;
+import srg.ports.StoreItem;
+import srg.ship.Ship;
+import srg.ship.ShipState;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Snapshot class which checkpoints the state of the ships and stores of a game or simulation to a file.
+ * <p>
+ * The file holds a full record of every ship and of every store whose stock is not the initial stock,
+ * followed by delta records which only hold the ships and stores that changed since the record before.
+ * Each record is written with its length and CRC32 through a FileChannel and forced to disk,
+ * so a record torn by a crash is found and ignored when the file is restored.
+ * A full record is written to a new file which then replaces the old one, so the old file stays whole until then.
+ * When the game is journalled, each record also holds the number of commands in the journal,
+ * so a replay can start from the snapshot and apply only the commands after it.
+ */
+public class Snapshot implements Closeable {
+    /**
+     * The first four bytes of a snapshot file, "SRGS"
+     */
+    static final int MAGIC = 0x53524753;
+    /**
+     * Version of the format
+     */
+    static final int VERSION = 2;
+    /**
+     * Kind of a record of every ship and store
+     */
+    private static final byte FULL = 0;
+    /**
+     * Kind of a record of the ships and stores which changed since the record before
+     */
+    private static final byte DELTA = 1;
+    /**
+     * Number of bytes before the payload of a record, its length and its CRC32
+     */
+    private static final int RECORD_HEADER_BYTES = 2 * Integer.BYTES;
+    /**
+     * Number of bytes of the stock of a store
+     */
+    private static final int STOCK_BYTES = StoreItem.values().length * Integer.BYTES;
+
+    /**
+     * The snapshot file
+     */
+    private Path path;
+    /**
+     * The ships to checkpoint
+     */
+    private List<Ship> ships;
+    /**
+     * The galaxy map the ships are on
+     */
+    private List<SpacePort> ports;
+    /**
+     * The snapshot file, open for appending deltas, or null before the first full record
+     */
+    private FileChannel channel;
+    /**
+     * The version of each ship when it was last written
+     */
+    private long[] shipVersions;
+    /**
+     * The stock of each store when it was last written, for stores whose stock was not the initial stock
+     */
+    private Map<Integer, int[]> storeStocks = new HashMap<>();
+    /**
+     * Number of records written
+     */
+    private long sequence;
+    /**
+     * The journal of the checkpointed game, or null
+     */
+    private Journal journal;
+    /**
+     * Buffer the records are encoded in, reused between records
+     */
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+
+    /**
+     * Constructs snapshot of the game
+     * @param path The snapshot file
+     * @param game The game to checkpoint
+     */
+    public Snapshot(Path path, Game game) {
+        this(path, List.of(game.ship), game.ports);
+    }
+
+    /**
+     * Constructs snapshot of the simulation
+     * @param path The snapshot file
+     * @param simulation The simulation to checkpoint
+     */
+    public Snapshot(Path path, Simulation simulation) {
+        this(path, simulation.getShips(), simulation.getPorts());
+    }
+
+    /**
+     * Constructs snapshot of the ships and the stores of the galaxy map
+     * @param path The snapshot file
+     * @param ships The ships to checkpoint
+     * @param ports The galaxy map the ships are on
+     */
+    public Snapshot(Path path, List<Ship> ships, List<SpacePort> ports) {
+        this.path = path;
+        this.ships = ships;
+        this.ports = ports;
+    }
+
+    /**
+     * Sets the journal of the checkpointed game. Before each record the journal is synced,
+     * and the record holds the number of commands in the journal.
+     * @param journal The journal of the game, or null
+     */
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Writes a full record to a new file which replaces the snapshot file
+     * @throws IOException If the file cannot be written
+     */
+    public void writeFull() throws IOException {
+        close();
+        Map<Integer, Store> stores = getStores(ports);
+        Map<Integer, int[]> changedStores = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Store> entry : stores.entrySet()) {
+            int[] stock = getStock(entry.getValue());
+            if (!isInitialStock(stock)) {
+                changedStores.put(entry.getKey(), stock);
+            }
+        }
+        long[] versions = new long[ships.size()];
+        int[] changedShips = new int[ships.size()];
+        for (int i = 0; i < ships.size(); i++) {
+            versions[i] = ShipState.getVersion(ships.get(i));
+            changedShips[i] = i;
+        }
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        FileChannel full = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(2 * Integer.BYTES).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            writeFully(full, header);
+            writeRecord(full, FULL, changedShips, ships.size(), changedStores);
+            full.force(false);
+        } finally {
+            full.close();
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        shipVersions = versions;
+        storeStocks = changedStores;
+    }
+
+    /**
+     * Appends a delta record of the ships and stores which changed since the last record.
+     * A full record is written instead if there is no record yet.
+     * @throws IOException If the file cannot be written
+     */
+    public void writeDelta() throws IOException {
+        if (channel == null) {
+            writeFull();
+            return;
+        }
+        long[] versions = new long[ships.size()];
+        int[] changedShips = new int[ships.size()];
+        int shipCount = 0;
+        for (int i = 0; i < ships.size(); i++) {
+            versions[i] = ShipState.getVersion(ships.get(i));
+            if (versions[i] != shipVersions[i]) {
+                changedShips[shipCount++] = i;
+            }
+        }
+        Map<Integer, int[]> changedStores = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Store> entry : getStores(ports).entrySet()) {
+            int[] stock = getStock(entry.getValue());
+            int[] written = storeStocks.get(entry.getKey());
+            if (written == null ? !isInitialStock(stock) : !Arrays.equals(written, stock)) {
+                changedStores.put(entry.getKey(), stock);
+            }
+        }
+        writeRecord(channel, DELTA, changedShips, shipCount, changedStores);
+        channel.force(false);
+        shipVersions = versions;
+        storeStocks.putAll(changedStores);
+    }
+
+    /**
+     * Gets the number of records written
+     * @return Number of records written
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Closes the snapshot file. A later record starts a new file with a full record.
+     * @throws IOException If the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Encodes a record and writes it to the file
+     * @param out The file to write to
+     * @param kind Kind of the record
+     * @param changedShips The indexes of the ships to write, in ascending order
+     * @param shipCount Number of ships to write
+     * @param changedStores The stock of the stores to write, by index in the galaxy map
+     * @throws IOException If the file cannot be written
+     */
+    private void writeRecord(FileChannel out, byte kind, int[] changedShips, int shipCount,
+                             Map<Integer, int[]> changedStores) throws IOException {
+        long mark = -1;
+        if (journal != null) {
+            // The snapshot must never be ahead of the journal
+            mark = journal.getCommandCount();
+            journal.sync();
+        }
+        int size = RECORD_HEADER_BYTES + 1 + 2 * Long.BYTES + 4 * Integer.BYTES
+                + changedStores.size() * (Integer.BYTES + STOCK_BYTES);
+        for (int i = 0; i < shipCount; i++) {
+            size += Integer.BYTES + ShipState.size(ships.get(changedShips[i]));
+        }
+        if (buffer.capacity() < size) {
+            buffer = ByteBuffer.allocateDirect(Math.max(buffer.capacity() * 2, size));
+        }
+        buffer.clear();
+        buffer.position(RECORD_HEADER_BYTES);
+        buffer.put(kind).putLong(sequence).putLong(mark).putInt(ships.size()).putInt(ports.size());
+        buffer.putInt(shipCount);
+        for (int i = 0; i < shipCount; i++) {
+            buffer.putInt(changedShips[i]);
+            ShipState.write(ships.get(changedShips[i]), buffer);
+        }
+        buffer.putInt(changedStores.size());
+        for (Map.Entry<Integer, int[]> entry : changedStores.entrySet()) {
+            buffer.putInt(entry.getKey());
+            for (int stock : entry.getValue()) {
+                buffer.putInt(stock);
+            }
+        }
+        buffer.flip();
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(RECORD_HEADER_BYTES, buffer.limit() - RECORD_HEADER_BYTES));
+        buffer.putInt(0, buffer.limit() - RECORD_HEADER_BYTES);
+        buffer.putInt(Integer.BYTES, (int) crc.getValue());
+        writeFully(out, buffer);
+        sequence++;
+    }
+
+    /**
+     * Restores the game from the snapshot file
+     * @param path The snapshot file
+     * @param game The game to restore, which must be on the same galaxy map as the game that was written
+     * @return Number of records restored
+     * @throws IOException If the file cannot be read or is not a snapshot of the game
+     */
+    public static long restore(Path path, Game game) throws IOException {
+        return restore(path, List.of(game.ship), game.ports);
+    }
+
+    /**
+     * Restores the simulation from the snapshot file
+     * @param path The snapshot file
+     * @param simulation The simulation to restore, which must have been made the same way as the one that was written
+     * @return Number of records restored
+     * @throws IOException If the file cannot be read or is not a snapshot of the simulation
+     */
+    public static long restore(Path path, Simulation simulation) throws IOException {
+        return restore(path, simulation.getShips(), simulation.getPorts());
+    }
+
+    /**
+     * Restores the ships and the stores of the galaxy map from the snapshot file.
+     * Records are restored in order until the end of the file or the first record which is torn or corrupt.
+     * @param path The snapshot file
+     * @param ships The ships to restore
+     * @param ports The galaxy map the ships are on, which must be the same map as the one that was written
+     * @return Number of records restored
+     * @throws IOException If the file cannot be read, or is not a snapshot of as many ships on as many ports
+     */
+    public static long restore(Path path, List<Ship> ships, List<SpacePort> ports) throws IOException {
+        return restoreRecords(path, ships, ports)[0];
+    }
+
+    /**
+     * Restores the game from the snapshot file, and finds where in its journal the snapshot was taken
+     * @param path The snapshot file
+     * @param game The game to restore
+     * @return Number of commands in the journal when the last restored record was written,
+     * or -1 if no record was restored or the game was not journalled
+     * @throws IOException If the file cannot be read or is not a snapshot of the game
+     */
+    static long restoreToMark(Path path, Game game) throws IOException {
+        return restoreRecords(path, List.of(game.ship), game.ports)[1];
+    }
+
+    /**
+     * Restores the ships and the stores of the galaxy map from the snapshot file
+     * @param path The snapshot file
+     * @param ships The ships to restore
+     * @param ports The galaxy map the ships are on
+     * @return Number of records restored, and the journal mark of the last restored record or -1
+     * @throws IOException If the file cannot be read, or is not a snapshot of as many ships on as many ports
+     */
+    private static long[] restoreRecords(Path path, List<Ship> ships, List<SpacePort> ports)
+            throws IOException {
+        ByteBuffer file;
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            file = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+        }
+        if (file.remaining() < 2 * Integer.BYTES || file.getInt() != MAGIC) {
+            throw new IOException("Not a snapshot file: " + path);
+        }
+        int version = file.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot file version " + version + ": " + path);
+        }
+
+        long restored = 0;
+        long mark = -1;
+        CRC32 crc = new CRC32();
+        while (file.remaining() >= RECORD_HEADER_BYTES) {
+            int length = file.getInt();
+            int checksum = file.getInt();
+            if (length < 0 || length > file.remaining()) {
+                break;
+            }
+            ByteBuffer record = file.slice(file.position(), length);
+            crc.reset();
+            crc.update(record.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            file.position(file.position() + length);
+            mark = readRecord(record, ships, ports, path);
+            restored++;
+        }
+        return new long[] {restored, mark};
+    }
+
+    /**
+     * Restores one record
+     * @param record The payload of the record
+     * @param ships The ships to restore
+     * @param ports The galaxy map the ships are on
+     * @param path The snapshot file, for error messages
+     * @return Number of commands in the journal when the record was written, or -1 if unknown
+     * @throws IOException If the record is not of as many ships on as many ports
+     */
+    private static long readRecord(ByteBuffer record, List<Ship> ships, List<SpacePort> ports, Path path)
+            throws IOException {
+        byte kind = record.get();
+        record.getLong();
+        long mark = record.getLong();
+        int shipCount = record.getInt();
+        int portCount = record.getInt();
+        if (shipCount != ships.size() || portCount != ports.size()) {
+            throw new IOException("Snapshot of " + shipCount + " ships on " + portCount
+                    + " ports cannot restore " + ships.size() + " ships on " + ports.size()
+                    + " ports: " + path);
+        }
+        Map<Integer, Store> stores = getStores(ports);
+        if (kind == FULL) {
+            for (Store store : stores.values()) {
+                for (StoreItem item : StoreItem.values()) {
+                    store.setStock(item, item.getInitialStock());
+                }
+            }
+        }
+        int changedShips = record.getInt();
+        for (int i = 0; i < changedShips; i++) {
+            ShipState.read(ships.get(record.getInt()), record);
+        }
+        int changedStores = record.getInt();
+        for (int i = 0; i < changedStores; i++) {
+            Store store = (Store) ports.get(record.getInt());
+            for (StoreItem item : StoreItem.values()) {
+                store.setStock(item, record.getInt());
+            }
+        }
+        return mark;
+    }
+
+    /**
+     * Gets the stores of the galaxy map whose stock may have changed
+     * @param ports The galaxy map
+     * @return The stores, by index in the galaxy map
+     */
+    private static Map<Integer, Store> getStores(List<SpacePort> ports) {
+        if (ports instanceof PortTable table) {
+            // A store of a table which has not been read still has its initial stock
+            return table.getReadStores();
+        }
+        Map<Integer, Store> stores = new LinkedHashMap<>();
+        for (int i = 0; i < ports.size(); i++) {
+            if (ports.get(i) instanceof Store store) {
+                stores.put(i, store);
+            }
+        }
+        return Collections.unmodifiableMap(stores);
+    }
+
+    /**
+     * Gets the stock of every item of the store
+     * @param store The store
+     * @return The stock of each item, by ordinal of the item
+     */
+    private static int[] getStock(Store store) {
+        StoreItem[] items = StoreItem.values();
+        int[] stock = new int[items.length];
+        for (int i = 0; i < items.length; i++) {
+            stock[i] = store.getStock(items[i]);
+        }
+        return stock;
+    }
+
+    /**
+     * Checks if the stock of every item is the initial stock
+     * @param stock The stock of each item
+     * @return If every item has its initial stock returns true, and if not returns false
+     */
+    private static boolean isInitialStock(int[] stock) {
+        StoreItem[] items = StoreItem.values();
+        for (int i = 0; i < items.length; i++) {
+            if (stock[i] != items[i].getInitialStock()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the whole buffer to the file
+     * @param out The file to write to
+     * @param buffer The bytes to write
+     * @throws IOException If the file cannot be written
+     */
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+}
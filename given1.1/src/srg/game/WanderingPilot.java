@@ -0,0 +1,67 @@
+package srg.game;
+
+import srg.cli.given.CommandType;
+import srg.cli.given.PurchaseCommand;
+import srg.cli.given.ShipCommand;
+import srg.ports.SpacePort;
+import srg.ports.Store;
+import srg.resources.FuelGrade;
+import srg.resources.ResourceType;
+import srg.ship.CargoHold;
+import srg.ship.NavigationRoom;
+import srg.ship.Ship;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * WanderingPilot class which repairs rooms that need it, buys fuel at stores when low,
+ * and otherwise flies to a random port in range, jumping when it cannot afford the flight
+ */
+public class WanderingPilot implements Pilot {
+    /**
+     * Amount of TRITIUM below which the pilot buys more at a store
+     */
+    public static final int LOW_FUEL = 100;
+
+    /**
+     * Chooses the next command of the ship
+     * @param ship The ship to command
+     * @param random Random numbers owned by the ship
+     * @return The command for the ship, or null if it has nowhere it can afford to go
+     */
+    @Override
+    public ShipCommand nextCommand(Ship ship, SplittableRandom random) {
+        CargoHold cargoHold = ship.getCargoHold();
+        NavigationRoom navigationRoom = ship.getNavigationRoom();
+        if (cargoHold.getTotalAmountByType(ResourceType.REPAIR_KIT) > 0) {
+            if (navigationRoom.needsRepair()) {
+                return new ShipCommand(CommandType.REPAIR_ROOM, "NavigationRoom");
+            }
+            if (cargoHold.needsRepair()) {
+                return new ShipCommand(CommandType.REPAIR_ROOM, "CargoHold");
+            }
+        }
+        if (navigationRoom.getCurrentPort() instanceof Store
+                && cargoHold.getTotalAmountByType(FuelGrade.TRITIUM) < LOW_FUEL
+                && cargoHold.getRemainingCapacity() > 0) {
+            return new PurchaseCommand("TRITIUM", LOW_FUEL);
+        }
+        List<SpacePort> portsInFlyRange = navigationRoom.getPortsInFlyRange();
+        if (!portsInFlyRange.isEmpty()) {
+            SpacePort port = portsInFlyRange.get(random.nextInt(portsInFlyRange.size()));
+            if (navigationRoom.getFuelNeeded(port)
+                    <= cargoHold.getTotalAmountByType(FuelGrade.TRITIUM)) {
+                return new ShipCommand(CommandType.FLY_TO, port.getName());
+            }
+        }
+        if (cargoHold.getTotalAmountByType(FuelGrade.HYPERDRIVE_CORE) > 0) {
+            List<SpacePort> portsInJumpRange = navigationRoom.getPortsInJumpRange();
+            if (!portsInJumpRange.isEmpty()) {
+                SpacePort port = portsInJumpRange.get(random.nextInt(portsInJumpRange.size()));
+                return new ShipCommand(CommandType.JUMP_TO, port.getName());
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,196 @@
+package srg.metrics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram class which counts durations in buckets whose width grows with the duration,
+ * so every duration is kept to within 1/{@link #SUB_BUCKETS} of its value however large it is.
+ * Durations are recorded without locks from any number of threads, each bucket being a LongAdder
+ * which is only made the first time a duration falls in it.
+ * The buckets themselves are only made when the first duration is recorded, so a histogram which is never used,
+ * as for the commands a ship never performs, costs a few counters.
+ */
+public class LatencyHistogram {
+    /**
+     * Number of buckets each power of two is split into
+     */
+    public static final int SUB_BUCKETS = 16;
+    /**
+     * Number of bits of a duration kept exactly
+     */
+    private static final int SUB_BUCKET_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+    /**
+     * Number of buckets needed for every positive long
+     */
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    /**
+     * Number of durations in each bucket, or null for buckets no duration has fallen in.
+     * Null before the first duration is recorded.
+     */
+    private volatile AtomicReferenceArray<LongAdder> buckets;
+    /**
+     * Number of durations recorded
+     */
+    private final LongAdder count = new LongAdder();
+    /**
+     * Sum of the durations recorded
+     */
+    private final LongAdder total = new LongAdder();
+    /**
+     * The longest duration recorded
+     */
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a duration
+     * @param nanos The duration in nanoseconds, counted as 0 if it is negative
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        bucketAt(indexOf(value)).increment();
+        count.increment();
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Adds every duration recorded in another histogram to this one
+     * @param other The histogram to add, which is left as it is
+     */
+    public void add(LatencyHistogram other) {
+        AtomicReferenceArray<LongAdder> others = other.buckets;
+        for (int i = 0; others != null && i < BUCKETS; i++) {
+            LongAdder bucket = others.get(i);
+            if (bucket != null) {
+                bucketAt(i).add(bucket.sum());
+            }
+        }
+        count.add(other.count.sum());
+        total.add(other.total.sum());
+        max.accumulate(other.max.get());
+    }
+
+    /**
+     * Gets the bucket at the index, making it the first time
+     * @param index The index of the bucket
+     * @return The bucket
+     */
+    private LongAdder bucketAt(int index) {
+        AtomicReferenceArray<LongAdder> all = getBuckets();
+        LongAdder bucket = all.get(index);
+        if (bucket == null) {
+            all.compareAndSet(index, null, new LongAdder());
+            bucket = all.get(index);
+        }
+        return bucket;
+    }
+
+    /**
+     * Gets the buckets, making them the first time
+     * @return The buckets
+     */
+    private AtomicReferenceArray<LongAdder> getBuckets() {
+        AtomicReferenceArray<LongAdder> all = buckets;
+        if (all == null) {
+            synchronized (this) {
+                all = buckets;
+                if (all == null) {
+                    all = new AtomicReferenceArray<>(BUCKETS);
+                    buckets = all;
+                }
+            }
+        }
+        return all;
+    }
+
+    /**
+     * Gets the number of durations recorded
+     * @return Number of durations
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the mean of the durations recorded
+     * @return The mean in nanoseconds, or 0 if nothing is recorded
+     */
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) total.sum() / n;
+    }
+
+    /**
+     * Gets the longest duration recorded
+     * @return The longest duration in nanoseconds, or 0 if nothing is recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets the duration which the percentage of the durations recorded are no longer than.
+     * Durations recorded while this runs may or may not be counted.
+     * @param percentile The percentage, from 0 to 100
+     * @return The largest duration of the bucket the percentile falls in, no more than the longest duration,
+     *         or 0 if nothing is recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        AtomicReferenceArray<LongAdder> all = buckets;
+        if (all == null) {
+            return 0;
+        }
+        long[] counts = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            LongAdder bucket = all.get(i);
+            if (bucket != null) {
+                counts[i] = bucket.sum();
+                n += counts[i];
+            }
+        }
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Finds the bucket of a duration
+     * @param value The duration, which must not be negative
+     * @return The index of the bucket
+     */
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Gets the largest duration which falls in a bucket
+     * @param index The index of the bucket
+     * @return The largest duration of the bucket
+     */
+    static long highestValueOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,232 @@
+package srg.metrics;
+
+import srg.cli.given.CommandType;
+import srg.resources.FuelGrade;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics class which counts the commands performed and how long each kind of command takes,
+ * the fuel used by each grade, and the failures by kind of exception.
+ * Every count is a LongAdder, so ships on any number of threads can record into one registry without locks.
+ * Each ship records into its own registry unless it is given another one,
+ * and registries are only combined where it is asked for, with {@link #add(Metrics)}.
+ */
+public class Metrics {
+    /**
+     * Number of commands performed, by type
+     */
+    private final LongAdder[] commands = adders(CommandType.values().length);
+    /**
+     * Number of commands which failed, by type
+     */
+    private final LongAdder[] failedCommands = adders(CommandType.values().length);
+    /**
+     * How long the commands took, by type
+     */
+    private final LatencyHistogram[] latencies = new LatencyHistogram[CommandType.values().length];
+    /**
+     * Amount of fuel used, by grade
+     */
+    private final LongAdder[] fuel = adders(FuelGrade.values().length);
+    /**
+     * Number of failures, by the simple name of the exception
+     */
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an empty registry
+     */
+    public Metrics() {
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Makes counters which start at 0
+     * @param size Number of counters
+     * @return The counters
+     */
+    private static LongAdder[] adders(int size) {
+        LongAdder[] adders = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Records a command which was performed
+     * @param type The type of the command
+     * @param nanos How long the command took, in nanoseconds
+     * @param failure What stopped the command, or null if it succeeded
+     */
+    public void recordCommand(CommandType type, long nanos, Throwable failure) {
+        commands[type.ordinal()].increment();
+        latencies[type.ordinal()].record(nanos);
+        if (failure != null) {
+            failedCommands[type.ordinal()].increment();
+            failures.computeIfAbsent(failure.getClass().getSimpleName(), name -> new LongAdder())
+                    .increment();
+        }
+    }
+
+    /**
+     * Records fuel which was used
+     * @param grade The grade of the fuel
+     * @param amount The amount used
+     */
+    public void recordFuel(FuelGrade grade, int amount) {
+        fuel[grade.ordinal()].add(amount);
+    }
+
+    /**
+     * Adds everything recorded into another registry to this one, as when totalling the games of a process
+     * @param other The registry to add, which is left as it is
+     */
+    public void add(Metrics other) {
+        for (int i = 0; i < commands.length; i++) {
+            commands[i].add(other.commands[i].sum());
+            failedCommands[i].add(other.failedCommands[i].sum());
+            latencies[i].add(other.latencies[i]);
+        }
+        for (int i = 0; i < fuel.length; i++) {
+            fuel[i].add(other.fuel[i].sum());
+        }
+        other.failures.forEach((name, count) ->
+                failures.computeIfAbsent(name, key -> new LongAdder()).add(count.sum()));
+    }
+
+    /**
+     * Gets the number of commands of the type performed, including those which failed
+     * @param type The type of the command
+     * @return Number of commands
+     */
+    public long getCommandCount(CommandType type) {
+        return commands[type.ordinal()].sum();
+    }
+
+    /**
+     * Gets the number of commands of the type which failed
+     * @param type The type of the command
+     * @return Number of failed commands
+     */
+    public long getFailedCount(CommandType type) {
+        return failedCommands[type.ordinal()].sum();
+    }
+
+    /**
+     * Gets how long the commands of the type took
+     * @param type The type of the command
+     * @return Histogram of the durations of the commands
+     */
+    public LatencyHistogram getLatency(CommandType type) {
+        return latencies[type.ordinal()];
+    }
+
+    /**
+     * Gets the amount of fuel of the grade used
+     * @param grade The grade of the fuel
+     * @return Amount of fuel used
+     */
+    public long getFuelUsed(FuelGrade grade) {
+        return fuel[grade.ordinal()].sum();
+    }
+
+    /**
+     * Gets the number of failures by kind of exception
+     * @return Number of failures by the simple name of the exception, in order of the name
+     */
+    public Map<String, Long> getFailures() {
+        Map<String, Long> counts = new TreeMap<>();
+        failures.forEach((name, count) -> counts.put(name, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Returns the metrics as JSON, with durations in nanoseconds
+     * @return JSON object of the commands by type, the fuel used by grade and the failures by exception
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\"commands\":{");
+        String separator = "";
+        for (CommandType type : CommandType.values()) {
+            LatencyHistogram latency = getLatency(type);
+            json.append(separator).append('"').append(type).append("\":{")
+                    .append("\"count\":").append(getCommandCount(type))
+                    .append(",\"failed\":").append(getFailedCount(type))
+                    .append(",\"meanNanos\":").append(Math.round(latency.getMean()))
+                    .append(",\"p50Nanos\":").append(latency.getValueAtPercentile(50))
+                    .append(",\"p99Nanos\":").append(latency.getValueAtPercentile(99))
+                    .append(",\"maxNanos\":").append(latency.getMax())
+                    .append('}');
+            separator = ",";
+        }
+        json.append("},\"fuel\":{");
+        separator = "";
+        for (FuelGrade grade : FuelGrade.values()) {
+            json.append(separator).append('"').append(grade).append("\":").append(getFuelUsed(grade));
+            separator = ",";
+        }
+        json.append("},\"failures\":{");
+        separator = "";
+        for (Map.Entry<String, Long> failure : getFailures().entrySet()) {
+            json.append(separator).append('"').append(escape(failure.getKey())).append("\":")
+                    .append(failure.getValue());
+            separator = ",";
+        }
+        return json.append("}}").toString();
+    }
+
+    /**
+     * Escapes text for a JSON string
+     * @param text The text
+     * @return The text with quotes, backslashes and control characters escaped
+     */
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder();
+        for (char c : text.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < 0x20) {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Returns the metrics as a table, leaving out commands which were never performed
+     * @return Lines of the commands with their counts and durations in milliseconds, the fuel used and the failures
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("METRICS:");
+        for (CommandType type : CommandType.values()) {
+            LatencyHistogram latency = getLatency(type);
+            if (latency.getCount() == 0) {
+                continue;
+            }
+            text.append(System.lineSeparator()).append(String.format(
+                    "    %s: %d (%d failed), mean %.3f ms, p50 %.3f ms, p99 %.3f ms, max %.3f ms",
+                    type, getCommandCount(type), getFailedCount(type), latency.getMean() / 1e6,
+                    latency.getValueAtPercentile(50) / 1e6, latency.getValueAtPercentile(99) / 1e6,
+                    latency.getMax() / 1e6));
+        }
+        for (FuelGrade grade : FuelGrade.values()) {
+            text.append(System.lineSeparator()).append("    fuel ").append(grade).append(": ")
+                    .append(getFuelUsed(grade));
+        }
+        for (Map.Entry<String, Long> failure : getFailures().entrySet()) {
+            text.append(System.lineSeparator()).append("    failure ").append(failure.getKey()).append(": ")
+                    .append(failure.getValue());
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,468 @@
+package srg.ports;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * GalaxyFile class which writes a galaxy map to a compact binary file, and opens such a file as a port table
+ * whose columns are read through memory mapping instead of being loaded.
+ * <p>
+ * The file starts with a header of {@link #HEADER_BYTES} bytes: the magic number, the version,
+ * the numbers of ports, names, lists of rooms and grid cells, the grid cell size,
+ * and then the offset of every section. Each section starts on a multiple of 8 bytes and is big-endian:
+ * the x, y and z coordinate columns (int), the kind column (byte), the name column (int),
+ * the upgrade column (byte), the name offsets (long) and bytes of the name dictionary,
+ * the lists of rooms that can be upgraded, and a grid of the ports made of the ascending cell keys (long),
+ * where each cell starts (int) and the rows of the cells (int).
+ */
+public class GalaxyFile {
+    /**
+     * The first four bytes of a galaxy file, "SRGG"
+     */
+    static final int MAGIC = 0x53524747;
+    /**
+     * Version of the format
+     */
+    static final int VERSION = 1;
+    /**
+     * Number of bytes of the header
+     */
+    static final int HEADER_BYTES = 128;
+
+    /**
+     * Number of the section of the x coordinates
+     */
+    private static final int X = 0;
+    /**
+     * Number of the section of the y coordinates
+     */
+    private static final int Y = 1;
+    /**
+     * Number of the section of the z coordinates
+     */
+    private static final int Z = 2;
+    /**
+     * Number of the section of the kinds
+     */
+    private static final int KINDS = 3;
+    /**
+     * Number of the section of the names of the rows
+     */
+    private static final int NAME_IDS = 4;
+    /**
+     * Number of the section of the rooms that can be upgraded of the rows
+     */
+    private static final int UPGRADE_IDS = 5;
+    /**
+     * Number of the section of the name offsets
+     */
+    private static final int NAME_OFFSETS = 6;
+    /**
+     * Number of the section of the name bytes
+     */
+    private static final int NAME_BYTES = 7;
+    /**
+     * Number of the section of the lists of rooms that can be upgraded
+     */
+    private static final int UPGRADE_LISTS = 8;
+    /**
+     * Number of the section of the cell keys
+     */
+    private static final int CELL_KEYS = 9;
+    /**
+     * Number of the section of the cell starts
+     */
+    private static final int CELL_STARTS = 10;
+    /**
+     * Number of the section of the cell rows
+     */
+    private static final int CELL_ROWS = 11;
+    /**
+     * Number of sections
+     */
+    private static final int SECTIONS = 12;
+    /**
+     * Where the section offsets start in the header
+     */
+    private static final int OFFSETS_START = 32;
+
+    /**
+     * GalaxyFile only has static methods
+     */
+    private GalaxyFile() {
+    }
+
+    /**
+     * Writes the galaxy map to a file, with a grid of the default cell size
+     * @param ports The galaxy map
+     * @param path The file to write, which is replaced if it exists
+     * @throws IOException If the file cannot be written
+     */
+    public static void write(List<SpacePort> ports, Path path) throws IOException {
+        write(ports, path, GridIndex.DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Writes the galaxy map to a file
+     * @param ports The galaxy map
+     * @param path The file to write, which is replaced if it exists
+     * @param cellSize Edge length of a cell of the stored grid
+     * @throws IOException If the file cannot be written
+     * @throws IllegalArgumentException If the cell size is not positive
+     */
+    public static void write(List<SpacePort> ports, Path path, int cellSize) throws IOException {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+        PortTable table = ports instanceof PortTable portTable ? portTable : PortTable.of(ports);
+        int size = table.size();
+
+        long[] rowKeys = new long[size];
+        for (int row = 0; row < size; row++) {
+            Position position = table.getPosition(row);
+            rowKeys[row] = MappedGridIndex.key(MappedGridIndex.cell(position.x, cellSize),
+                    MappedGridIndex.cell(position.y, cellSize), MappedGridIndex.cell(position.z, cellSize));
+        }
+        long[] cellKeys = distinct(rowKeys);
+        int[] cellStarts = new int[cellKeys.length + 1];
+        int[] rowCells = new int[size];
+        for (int row = 0; row < size; row++) {
+            rowCells[row] = Arrays.binarySearch(cellKeys, rowKeys[row]);
+            cellStarts[rowCells[row] + 1]++;
+        }
+        for (int cell = 0; cell < cellKeys.length; cell++) {
+            cellStarts[cell + 1] += cellStarts[cell];
+        }
+        int[] cellRows = new int[size];
+        int[] filled = Arrays.copyOf(cellStarts, cellKeys.length);
+        for (int row = 0; row < size; row++) {
+            cellRows[filled[rowCells[row]]++] = row;
+        }
+
+        List<List<String>> upgradeLists = table.getUpgradeLists();
+        long[] offsets = new long[SECTIONS];
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             SectionWriter out = new SectionWriter(channel, HEADER_BYTES)) {
+            offsets[X] = out.align();
+            for (int row = 0; row < size; row++) {
+                out.putInt(table.getPosition(row).x);
+            }
+            offsets[Y] = out.align();
+            for (int row = 0; row < size; row++) {
+                out.putInt(table.getPosition(row).y);
+            }
+            offsets[Z] = out.align();
+            for (int row = 0; row < size; row++) {
+                out.putInt(table.getPosition(row).z);
+            }
+            offsets[KINDS] = out.align();
+            for (int row = 0; row < size; row++) {
+                out.putByte(table.getKind(row));
+            }
+            offsets[NAME_IDS] = out.align();
+            for (int row = 0; row < size; row++) {
+                out.putInt(table.getNameId(row));
+            }
+            offsets[UPGRADE_IDS] = out.align();
+            for (int row = 0; row < size; row++) {
+                out.putByte((byte) table.getUpgradeId(row));
+            }
+            offsets[NAME_OFFSETS] = out.align();
+            long nameOffset = 0;
+            out.putLong(nameOffset);
+            for (int name = 0; name < table.getNameCount(); name++) {
+                nameOffset += table.getDictionaryName(name).getBytes(StandardCharsets.UTF_8).length;
+                out.putLong(nameOffset);
+            }
+            offsets[NAME_BYTES] = out.align();
+            for (int name = 0; name < table.getNameCount(); name++) {
+                out.putBytes(table.getDictionaryName(name).getBytes(StandardCharsets.UTF_8));
+            }
+            offsets[UPGRADE_LISTS] = out.align();
+            for (List<String> rooms : upgradeLists) {
+                out.putInt(rooms.size());
+                for (String room : rooms) {
+                    byte[] bytes = room.getBytes(StandardCharsets.UTF_8);
+                    out.putInt(bytes.length);
+                    out.putBytes(bytes);
+                }
+            }
+            offsets[CELL_KEYS] = out.align();
+            for (long key : cellKeys) {
+                out.putLong(key);
+            }
+            offsets[CELL_STARTS] = out.align();
+            for (int start : cellStarts) {
+                out.putInt(start);
+            }
+            offsets[CELL_ROWS] = out.align();
+            for (int row : cellRows) {
+                out.putInt(row);
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(table.getNameCount())
+                    .putInt(upgradeLists.size()).putInt(cellSize).putLong(cellKeys.length);
+            for (long offset : offsets) {
+                header.putLong(offset);
+            }
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        }
+    }
+
+    /**
+     * Opens a galaxy file. The file is mapped rather than read, so opening takes the same time for any size of map,
+     * and the ports are read from the page cache as they are used.
+     * @param path The galaxy file
+     * @return A table over the ports of the file, whose stored index is the grid of the file
+     * @throws IOException If the file cannot be read or is not a galaxy file
+     */
+    public static PortTable open(Path path) throws IOException {
+        return open(path, MappedSection.DEFAULT_CHUNK_ELEMENTS);
+    }
+
+    /**
+     * Opens a galaxy file, mapping each section in chunks of the given number of elements
+     * @param path The galaxy file
+     * @param chunkElements Number of elements in each mapped chunk
+     * @return A table over the ports of the file
+     * @throws IOException If the file cannot be read or is not a galaxy file
+     */
+    static PortTable open(Path path, int chunkElements) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                // Keep reading until the header is full or the file ends
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+                throw new IOException("Not a galaxy file: " + path);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported galaxy file version " + version + ": " + path);
+            }
+            int size = header.getInt();
+            int nameCount = header.getInt();
+            int upgradeListCount = header.getInt();
+            int cellSize = header.getInt();
+            long cellCount = header.getLong();
+            long[] offsets = new long[SECTIONS];
+            for (int i = 0; i < SECTIONS; i++) {
+                offsets[i] = header.getLong(OFFSETS_START + i * Long.BYTES);
+            }
+
+            MappedSection nameOffsets = MappedSection.map(channel, offsets[NAME_OFFSETS], nameCount + 1L,
+                    Long.BYTES, chunkElements);
+            MappedSection upgradeLists = MappedSection.map(channel, offsets[UPGRADE_LISTS],
+                    offsets[CELL_KEYS] - offsets[UPGRADE_LISTS], 1, chunkElements);
+            return new PortTable(new MappedColumns(size, nameCount,
+                    MappedSection.map(channel, offsets[X], size, Integer.BYTES, chunkElements),
+                    MappedSection.map(channel, offsets[Y], size, Integer.BYTES, chunkElements),
+                    MappedSection.map(channel, offsets[Z], size, Integer.BYTES, chunkElements),
+                    MappedSection.map(channel, offsets[KINDS], size, 1, chunkElements),
+                    MappedSection.map(channel, offsets[NAME_IDS], size, Integer.BYTES, chunkElements),
+                    MappedSection.map(channel, offsets[UPGRADE_IDS], size, 1, chunkElements),
+                    nameOffsets,
+                    MappedSection.map(channel, offsets[NAME_BYTES], nameOffsets.getLong(nameCount), 1,
+                            chunkElements),
+                    readUpgradeLists(upgradeLists, upgradeListCount),
+                    cellSize, cellCount,
+                    MappedSection.map(channel, offsets[CELL_KEYS], cellCount, Long.BYTES, chunkElements),
+                    MappedSection.map(channel, offsets[CELL_STARTS], cellCount + 1, Integer.BYTES,
+                            chunkElements),
+                    MappedSection.map(channel, offsets[CELL_ROWS], size, Integer.BYTES, chunkElements)));
+        }
+    }
+
+    /**
+     * Reads the lists of rooms that can be upgraded, which are short enough to keep on the heap
+     * @param section The mapped section of the lists, read one byte at a time
+     * @param count Number of lists
+     * @return Every distinct list of rooms, in the order they were written
+     */
+    private static List<List<String>> readUpgradeLists(MappedSection section, int count) {
+        List<List<String>> upgradeLists = new ArrayList<>(count);
+        long at = 0;
+        for (int i = 0; i < count; i++) {
+            int rooms = readInt(section, at);
+            at += Integer.BYTES;
+            List<String> list = new ArrayList<>(rooms);
+            for (int j = 0; j < rooms; j++) {
+                byte[] bytes = new byte[readInt(section, at)];
+                at += Integer.BYTES;
+                section.getBytes(at, bytes);
+                at += bytes.length;
+                list.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+            upgradeLists.add(List.copyOf(list));
+        }
+        return List.copyOf(upgradeLists);
+    }
+
+    /**
+     * Reads a big-endian int from a section of bytes
+     * @param section The section of bytes
+     * @param at Where the int starts
+     * @return The int
+     */
+    private static int readInt(MappedSection section, long at) {
+        byte[] bytes = new byte[Integer.BYTES];
+        section.getBytes(at, bytes);
+        return ByteBuffer.wrap(bytes).getInt();
+    }
+
+    /**
+     * Sorts the keys and removes repeated keys
+     * @param keys The keys, which are not changed
+     * @return The distinct keys in ascending order
+     */
+    private static long[] distinct(long[] keys) {
+        long[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[count++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, count);
+    }
+
+    /**
+     * SectionWriter class which writes big-endian values to a file through a buffer, keeping count of the position
+     */
+    private static class SectionWriter implements AutoCloseable {
+        /**
+         * The file being written
+         */
+        private final FileChannel channel;
+        /**
+         * The values not yet written to the file
+         */
+        private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        /**
+         * Where the buffer will be written in the file
+         */
+        private long position;
+
+        /**
+         * Constructs section writer which starts writing at the position
+         * @param channel The file being written
+         * @param position Where to start writing
+         */
+        SectionWriter(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+        }
+
+        /**
+         * Pads with zeros to a multiple of 8 bytes
+         * @return The position after padding, where the next section starts
+         * @throws IOException If the file cannot be written
+         */
+        long align() throws IOException {
+            while (position() % Long.BYTES != 0) {
+                putByte((byte) 0);
+            }
+            return position();
+        }
+
+        /**
+         * Gets the position of the next value in the file
+         * @return The position of the next value
+         */
+        long position() {
+            return position + buffer.position();
+        }
+
+        /**
+         * Writes a byte
+         * @param value The byte
+         * @throws IOException If the file cannot be written
+         */
+        void putByte(byte value) throws IOException {
+            ensureRemaining(1);
+            buffer.put(value);
+        }
+
+        /**
+         * Writes an int
+         * @param value The int
+         * @throws IOException If the file cannot be written
+         */
+        void putInt(int value) throws IOException {
+            ensureRemaining(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        /**
+         * Writes a long
+         * @param value The long
+         * @throws IOException If the file cannot be written
+         */
+        void putLong(long value) throws IOException {
+            ensureRemaining(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        /**
+         * Writes bytes, which may be longer than the buffer
+         * @param bytes The bytes
+         * @throws IOException If the file cannot be written
+         */
+        void putBytes(byte[] bytes) throws IOException {
+            int written = 0;
+            while (written < bytes.length) {
+                ensureRemaining(1);
+                int length = Math.min(buffer.remaining(), bytes.length - written);
+                buffer.put(bytes, written, length);
+                written += length;
+            }
+        }
+
+        /**
+         * Writes the buffer if it has less room than needed
+         * @param bytes Number of bytes needed
+         * @throws IOException If the file cannot be written
+         */
+        private void ensureRemaining(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        /**
+         * Writes the buffer to the file
+         * @throws IOException If the file cannot be written
+         */
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+        }
+
+        /**
+         * Writes what is left in the buffer
+         * @throws IOException If the file cannot be written
+         */
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
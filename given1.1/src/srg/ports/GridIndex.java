@@ -0,0 +1,190 @@
+package srg.ports;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GridIndex class which buckets the ports into a uniform 3D grid of cubic cells
+ */
+public class GridIndex implements SpatialIndex {
+    /**
+     * Default edge length of a cell
+     */
+    public static final int DEFAULT_CELL_SIZE = 250;
+    /**
+     * Number of bits used for each coordinate of a cell key
+     */
+    private static final int KEY_BITS = 21;
+    /**
+     * Mask of a coordinate in a cell key
+     */
+    private static final long KEY_MASK = (1L << KEY_BITS) - 1;
+
+    /**
+     * The indexed ports
+     */
+    private List<SpacePort> ports;
+    /**
+     * Edge length of a cell
+     */
+    private int cellSize;
+    /**
+     * The indexes of the ports in each non-empty cell, in ascending order
+     */
+    private Map<Long, int[]> cells = new HashMap<>();
+
+    /**
+     * Constructs grid index over the ports with the default cell size
+     * @param ports The ports to index
+     */
+    public GridIndex(List<SpacePort> ports) {
+        this(ports, DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Constructs grid index over the ports
+     * @param ports The ports to index
+     * @param cellSize Edge length of a cell
+     * @throws IllegalArgumentException If the cell size is not positive
+     */
+    public GridIndex(List<SpacePort> ports, int cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+        this.ports = ports;
+        this.cellSize = cellSize;
+
+        long[] keys = new long[ports.size()];
+        Map<Long, Integer> counts = new HashMap<>();
+        for (int i = 0; i < ports.size(); i++) {
+            Position p = ports.get(i).getPosition();
+            keys[i] = key(cell(p.x), cell(p.y), cell(p.z));
+            counts.merge(keys[i], 1, Integer::sum);
+        }
+        Map<Long, Integer> filled = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            int[] cell = cells.computeIfAbsent(keys[i], k -> new int[counts.get(k)]);
+            cell[filled.merge(keys[i], 1, Integer::sum) - 1] = i;
+        }
+    }
+
+    /**
+     * Finds the ports within the distance by checking only the cells which overlap the search cube
+     * @param centre The position to search around
+     * @param maxDistance The maximum distance, as returned by {@link Position#distanceTo}
+     * @return List of the ports within the distance, in the order of the indexed map
+     */
+    @Override
+    public List<SpacePort> findWithin(Position centre, int maxDistance) {
+        List<SpacePort> portsWithin = new ArrayList<>();
+        if (maxDistance < 0) {
+            return portsWithin;
+        }
+        // A floored distance of maxDistance keeps every axis offset within maxDistance
+        int minX = cell(centre.x - maxDistance);
+        int maxX = cell(centre.x + maxDistance);
+        int minY = cell(centre.y - maxDistance);
+        int maxY = cell(centre.y + maxDistance);
+        int minZ = cell(centre.z - maxDistance);
+        int maxZ = cell(centre.z + maxDistance);
+        long cellsInCube = (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+
+        int[] found = new int[16];
+        int count = 0;
+        if (cellsInCube > cells.size()) {
+            for (int[] cell : cells.values()) {
+                found = ensureCapacity(found, count + cell.length);
+                count = collect(cell, centre, maxDistance, found, count);
+            }
+        } else {
+            for (int x = minX; x <= maxX; x++) {
+                for (int y = minY; y <= maxY; y++) {
+                    for (int z = minZ; z <= maxZ; z++) {
+                        int[] cell = cells.get(key(x, y, z));
+                        if (cell != null) {
+                            found = ensureCapacity(found, count + cell.length);
+                            count = collect(cell, centre, maxDistance, found, count);
+                        }
+                    }
+                }
+            }
+        }
+
+        Arrays.sort(found, 0, count);
+        for (int i = 0; i < count; i++) {
+            // Distant cells can share a key, so the same port may be collected twice
+            if (i == 0 || found[i] != found[i - 1]) {
+                portsWithin.add(ports.get(found[i]));
+            }
+        }
+        return portsWithin;
+    }
+
+    /**
+     * Copies the indexes of the ports of the cell which are within the distance
+     * @param cell The indexes of the ports in the cell
+     * @param centre The position to search around
+     * @param maxDistance The maximum distance
+     * @param found The array to copy into, which must have room for the whole cell
+     * @param count The number of indexes already in the array
+     * @return The number of indexes in the array after copying
+     */
+    private int collect(int[] cell, Position centre, int maxDistance, int[] found, int count) {
+        if (ports instanceof PortTable table) {
+            for (int i : cell) {
+                if (table.withinDistance(i, centre, maxDistance)) {
+                    found[count++] = i;
+                }
+            }
+            return count;
+        }
+        for (int i : cell) {
+            if (centre.withinDistance(ports.get(i).getPosition(), maxDistance)) {
+                found[count++] = i;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Makes sure that the array can hold the given number of indexes
+     * @param found The array of the found indexes
+     * @param capacity The number of indexes the array must be able to hold
+     * @return The same array, or a larger copy of it
+     */
+    private static int[] ensureCapacity(int[] found, int capacity) {
+        if (found.length < capacity) {
+            return Arrays.copyOf(found, Math.max(found.length * 2, capacity));
+        }
+        return found;
+    }
+
+    /**
+     * Gives the cell coordinate of a position coordinate
+     * @param coordinate The position coordinate
+     * @return The cell coordinate
+     */
+    private int cell(int coordinate) {
+        return Math.floorDiv(coordinate, cellSize);
+    }
+
+    /**
+     * Packs the cell coordinates into a single key.
+     * The packed bits are scrambled with a reversible mix, because Long.hashCode folds x onto the high bits of y,
+     * so cells along the x axis would share a few buckets of the hash map.
+     * @param x x coordinate of the cell
+     * @param y y coordinate of the cell
+     * @param z z coordinate of the cell
+     * @return The key of the cell
+     */
+    static long key(int x, int y, int z) {
+        long key = ((x & KEY_MASK) << (2 * KEY_BITS)) | ((y & KEY_MASK) << KEY_BITS)
+                | (z & KEY_MASK);
+        key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+        key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return key ^ (key >>> 33);
+    }
+}
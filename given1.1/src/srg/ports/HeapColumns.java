@@ -0,0 +1,132 @@
+package srg.ports;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * HeapColumns class which holds the columns of a port table in arrays
+ */
+class HeapColumns implements PortColumns {
+    /**
+     * x coordinate of each row
+     */
+    private final int[] x;
+    /**
+     * y coordinate of each row
+     */
+    private final int[] y;
+    /**
+     * z coordinate of each row
+     */
+    private final int[] z;
+    /**
+     * Kind of each row
+     */
+    private final byte[] kinds;
+    /**
+     * Name of each row, as an entry of the dictionary
+     */
+    private final int[] nameIds;
+    /**
+     * The UTF-8 bytes of every distinct name, one after the other
+     */
+    private final byte[] nameBytes;
+    /**
+     * Where each name starts in nameBytes, and the number of name bytes at the end
+     */
+    private final int[] nameOffsets;
+    /**
+     * Rooms that can be upgraded of each row, as an entry of upgradeLists
+     */
+    private final byte[] upgradeIds;
+    /**
+     * Every distinct list of rooms that can be upgraded
+     */
+    private final List<List<String>> upgradeLists;
+
+    /**
+     * Constructs heap columns from arrays which are all as long as the number of rows
+     * @param x x coordinate of each row
+     * @param y y coordinate of each row
+     * @param z z coordinate of each row
+     * @param kinds Kind of each row
+     * @param nameIds Name of each row
+     * @param nameBytes The bytes of every distinct name
+     * @param nameOffsets Where each name starts, and the number of name bytes at the end
+     * @param upgradeIds Rooms that can be upgraded of each row
+     * @param upgradeLists Every distinct list of rooms that can be upgraded
+     */
+    HeapColumns(int[] x, int[] y, int[] z, byte[] kinds, int[] nameIds, byte[] nameBytes,
+                int[] nameOffsets, byte[] upgradeIds, List<List<String>> upgradeLists) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.kinds = kinds;
+        this.nameIds = nameIds;
+        this.nameBytes = nameBytes;
+        this.nameOffsets = nameOffsets;
+        this.upgradeIds = upgradeIds;
+        this.upgradeLists = upgradeLists;
+    }
+
+    @Override
+    public int size() {
+        return kinds.length;
+    }
+
+    @Override
+    public int x(int row) {
+        return x[row];
+    }
+
+    @Override
+    public int y(int row) {
+        return y[row];
+    }
+
+    @Override
+    public int z(int row) {
+        return z[row];
+    }
+
+    @Override
+    public byte kind(int row) {
+        return kinds[row];
+    }
+
+    @Override
+    public int nameId(int row) {
+        return nameIds[row];
+    }
+
+    @Override
+    public String name(int nameId) {
+        return new String(nameBytes, nameOffsets[nameId], nameOffsets[nameId + 1] - nameOffsets[nameId],
+                StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int nameCount() {
+        return nameOffsets.length - 1;
+    }
+
+    @Override
+    public int upgradeId(int row) {
+        return upgradeIds[row] & 0xff;
+    }
+
+    @Override
+    public List<List<String>> upgradeLists() {
+        return upgradeLists;
+    }
+
+    /**
+     * Heap columns are built in memory, so there is no stored index
+     * @param table The table over these columns
+     * @return null
+     */
+    @Override
+    public SpatialIndex storedIndex(PortTable table) {
+        return null;
+    }
+}
@@ -0,0 +1,39 @@
+package srg.ports;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LinearScanIndex class which checks every port of the map for each query
+ */
+public class LinearScanIndex implements SpatialIndex {
+    /**
+     * The ports to search
+     */
+    private List<SpacePort> ports;
+
+    /**
+     * Constructs linear scan index over the ports
+     * @param ports The ports to search
+     */
+    public LinearScanIndex(List<SpacePort> ports) {
+        this.ports = ports;
+    }
+
+    /**
+     * Finds the ports within the distance by checking every port
+     * @param centre The position to search around
+     * @param maxDistance The maximum distance, as returned by {@link Position#distanceTo}
+     * @return List of the ports within the distance, in the order of the map
+     */
+    @Override
+    public List<SpacePort> findWithin(Position centre, int maxDistance) {
+        List<SpacePort> portsWithin = new ArrayList<>();
+        for (SpacePort s : ports) {
+            if (centre.withinDistance(s.getPosition(), maxDistance)) {
+                portsWithin.add(s);
+            }
+        }
+        return portsWithin;
+    }
+}
@@ -0,0 +1,180 @@
+package srg.ports;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * MappedColumns class which reads the columns of a port table from a mapped galaxy file.
+ * Nothing is copied onto the heap when the file is opened, except the short lists of rooms that can be upgraded.
+ */
+class MappedColumns implements PortColumns {
+    /**
+     * Number of ports
+     */
+    private final int size;
+    /**
+     * Number of distinct names
+     */
+    private final int nameCount;
+    /**
+     * x coordinate of each row
+     */
+    private final MappedSection x;
+    /**
+     * y coordinate of each row
+     */
+    private final MappedSection y;
+    /**
+     * z coordinate of each row
+     */
+    private final MappedSection z;
+    /**
+     * Kind of each row
+     */
+    private final MappedSection kinds;
+    /**
+     * Name of each row, as an entry of the dictionary
+     */
+    private final MappedSection nameIds;
+    /**
+     * Rooms that can be upgraded of each row, as an entry of upgradeLists
+     */
+    private final MappedSection upgradeIds;
+    /**
+     * Where each name starts in nameBytes, and the number of name bytes at the end
+     */
+    private final MappedSection nameOffsets;
+    /**
+     * The UTF-8 bytes of every distinct name, one after the other
+     */
+    private final MappedSection nameBytes;
+    /**
+     * Every distinct list of rooms that can be upgraded
+     */
+    private final List<List<String>> upgradeLists;
+    /**
+     * Edge length of a cell of the stored grid
+     */
+    private final int cellSize;
+    /**
+     * Number of non-empty cells of the stored grid
+     */
+    private final long cellCount;
+    /**
+     * The key of each non-empty cell, in ascending order
+     */
+    private final MappedSection cellKeys;
+    /**
+     * Where the rows of each cell start, and the number of rows at the end
+     */
+    private final MappedSection cellStarts;
+    /**
+     * The rows of each cell
+     */
+    private final MappedSection cellRows;
+
+    /**
+     * Constructs mapped columns from the mapped sections of a galaxy file
+     * @param size Number of ports
+     * @param nameCount Number of distinct names
+     * @param x x coordinate of each row
+     * @param y y coordinate of each row
+     * @param z z coordinate of each row
+     * @param kinds Kind of each row
+     * @param nameIds Name of each row
+     * @param upgradeIds Rooms that can be upgraded of each row
+     * @param nameOffsets Where each name starts, and the number of name bytes at the end
+     * @param nameBytes The bytes of every distinct name
+     * @param upgradeLists Every distinct list of rooms that can be upgraded
+     * @param cellSize Edge length of a cell of the stored grid
+     * @param cellCount Number of non-empty cells
+     * @param cellKeys The key of each non-empty cell
+     * @param cellStarts Where the rows of each cell start
+     * @param cellRows The rows of each cell
+     */
+    MappedColumns(int size, int nameCount, MappedSection x, MappedSection y, MappedSection z,
+                  MappedSection kinds, MappedSection nameIds, MappedSection upgradeIds,
+                  MappedSection nameOffsets, MappedSection nameBytes, List<List<String>> upgradeLists,
+                  int cellSize, long cellCount, MappedSection cellKeys, MappedSection cellStarts,
+                  MappedSection cellRows) {
+        this.size = size;
+        this.nameCount = nameCount;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.kinds = kinds;
+        this.nameIds = nameIds;
+        this.upgradeIds = upgradeIds;
+        this.nameOffsets = nameOffsets;
+        this.nameBytes = nameBytes;
+        this.upgradeLists = upgradeLists;
+        this.cellSize = cellSize;
+        this.cellCount = cellCount;
+        this.cellKeys = cellKeys;
+        this.cellStarts = cellStarts;
+        this.cellRows = cellRows;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int x(int row) {
+        return x.getInt(row);
+    }
+
+    @Override
+    public int y(int row) {
+        return y.getInt(row);
+    }
+
+    @Override
+    public int z(int row) {
+        return z.getInt(row);
+    }
+
+    @Override
+    public byte kind(int row) {
+        return kinds.getByte(row);
+    }
+
+    @Override
+    public int nameId(int row) {
+        return nameIds.getInt(row);
+    }
+
+    @Override
+    public String name(int nameId) {
+        long start = nameOffsets.getLong(nameId);
+        byte[] bytes = new byte[(int) (nameOffsets.getLong(nameId + 1L) - start)];
+        nameBytes.getBytes(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int nameCount() {
+        return nameCount;
+    }
+
+    @Override
+    public int upgradeId(int row) {
+        return upgradeIds.getByte(row) & 0xff;
+    }
+
+    @Override
+    public List<List<String>> upgradeLists() {
+        return upgradeLists;
+    }
+
+    /**
+     * Gets the grid which was stored in the galaxy file
+     * @param table The table over these columns
+     * @return Index searching the stored grid
+     */
+    @Override
+    public SpatialIndex storedIndex(PortTable table) {
+        return new MappedGridIndex(table, cellSize, cellCount, cellKeys, cellStarts, cellRows);
+    }
+}
@@ -0,0 +1,179 @@
+package srg.ports;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * MappedGridIndex class which searches the grid stored in a galaxy file without loading it.
+ * The keys of the non-empty cells are stored in ascending order, so a cell is found by binary search,
+ * and the rows of each cell are stored one cell after the other.
+ */
+class MappedGridIndex implements SpatialIndex {
+    /**
+     * Number of bits used for each coordinate of a cell key
+     */
+    private static final int KEY_BITS = 21;
+    /**
+     * Mask of a coordinate in a cell key
+     */
+    private static final long KEY_MASK = (1L << KEY_BITS) - 1;
+
+    /**
+     * The indexed table
+     */
+    private final PortTable table;
+    /**
+     * Edge length of a cell
+     */
+    private final int cellSize;
+    /**
+     * Number of non-empty cells
+     */
+    private final long cellCount;
+    /**
+     * The key of each non-empty cell, in ascending order
+     */
+    private final MappedSection keys;
+    /**
+     * Where the rows of each cell start, and the number of rows at the end
+     */
+    private final MappedSection starts;
+    /**
+     * The rows of each cell, in ascending order within a cell
+     */
+    private final MappedSection rows;
+
+    /**
+     * Constructs mapped grid index over the stored grid of the table
+     * @param table The indexed table
+     * @param cellSize Edge length of a cell
+     * @param cellCount Number of non-empty cells
+     * @param keys The key of each non-empty cell
+     * @param starts Where the rows of each cell start
+     * @param rows The rows of each cell
+     */
+    MappedGridIndex(PortTable table, int cellSize, long cellCount, MappedSection keys,
+                    MappedSection starts, MappedSection rows) {
+        this.table = table;
+        this.cellSize = cellSize;
+        this.cellCount = cellCount;
+        this.keys = keys;
+        this.starts = starts;
+        this.rows = rows;
+    }
+
+    /**
+     * Finds the ports within the distance by checking only the cells which overlap the search cube
+     * @param centre The position to search around
+     * @param maxDistance The maximum distance, as returned by {@link Position#distanceTo}
+     * @return List of the ports within the distance, in the order of the table
+     */
+    @Override
+    public List<SpacePort> findWithin(Position centre, int maxDistance) {
+        List<SpacePort> portsWithin = new ArrayList<>();
+        if (maxDistance < 0) {
+            return portsWithin;
+        }
+        int minX = cell(centre.x - maxDistance, cellSize);
+        int maxX = cell(centre.x + maxDistance, cellSize);
+        int minY = cell(centre.y - maxDistance, cellSize);
+        int maxY = cell(centre.y + maxDistance, cellSize);
+        int minZ = cell(centre.z - maxDistance, cellSize);
+        int maxZ = cell(centre.z + maxDistance, cellSize);
+        long cellsInCube = (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+
+        int[] found = new int[16];
+        int count = 0;
+        if (cellsInCube > cellCount) {
+            for (long cell = 0; cell < cellCount; cell++) {
+                found = ensureCapacity(found, count + cellLength(cell));
+                count = collect(cell, centre, maxDistance, found, count);
+            }
+        } else {
+            for (int x = minX; x <= maxX; x++) {
+                for (int y = minY; y <= maxY; y++) {
+                    for (int z = minZ; z <= maxZ; z++) {
+                        long cell = keys.binarySearch(cellCount, key(x, y, z));
+                        if (cell >= 0) {
+                            found = ensureCapacity(found, count + cellLength(cell));
+                            count = collect(cell, centre, maxDistance, found, count);
+                        }
+                    }
+                }
+            }
+        }
+
+        Arrays.sort(found, 0, count);
+        for (int i = 0; i < count; i++) {
+            // Distant cells can share a key, so the same row may be collected twice
+            if (i == 0 || found[i] != found[i - 1]) {
+                portsWithin.add(table.get(found[i]));
+            }
+        }
+        return portsWithin;
+    }
+
+    /**
+     * Gets the number of rows in the cell
+     * @param cell The number of the cell
+     * @return Number of rows in the cell
+     */
+    private int cellLength(long cell) {
+        return starts.getInt(cell + 1) - starts.getInt(cell);
+    }
+
+    /**
+     * Copies the rows of the cell which are within the distance
+     * @param cell The number of the cell
+     * @param centre The position to search around
+     * @param maxDistance The maximum distance
+     * @param found The array to copy into, which must have room for the whole cell
+     * @param count The number of rows already in the array
+     * @return The number of rows in the array after copying
+     */
+    private int collect(long cell, Position centre, int maxDistance, int[] found, int count) {
+        int end = starts.getInt(cell + 1);
+        for (int i = starts.getInt(cell); i < end; i++) {
+            int row = rows.getInt(i);
+            if (table.withinDistance(row, centre, maxDistance)) {
+                found[count++] = row;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Makes sure that the array can hold the given number of rows
+     * @param found The array of the found rows
+     * @param capacity The number of rows the array must be able to hold
+     * @return The same array, or a larger copy of it
+     */
+    private static int[] ensureCapacity(int[] found, int capacity) {
+        if (found.length < capacity) {
+            return Arrays.copyOf(found, Math.max(found.length * 2, capacity));
+        }
+        return found;
+    }
+
+    /**
+     * Gives the cell coordinate of a position coordinate
+     * @param coordinate The position coordinate
+     * @param cellSize Edge length of a cell
+     * @return The cell coordinate
+     */
+    static int cell(int coordinate, int cellSize) {
+        return Math.floorDiv(coordinate, cellSize);
+    }
+
+    /**
+     * Packs the cell coordinates into a single key, which is never negative
+     * @param x x coordinate of the cell
+     * @param y y coordinate of the cell
+     * @param z z coordinate of the cell
+     * @return The key of the cell
+     */
+    static long key(int x, int y, int z) {
+        return ((x & KEY_MASK) << (2 * KEY_BITS)) | ((y & KEY_MASK) << KEY_BITS) | (z & KEY_MASK);
+    }
+}
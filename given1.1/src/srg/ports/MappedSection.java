@@ -0,0 +1,133 @@
+package srg.ports;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * MappedSection class which reads an array of fixed size elements from a mapped file.
+ * A single mapping cannot be larger than 2GB, so the section is mapped in chunks of a fixed number of elements.
+ */
+final class MappedSection {
+    /**
+     * Default number of elements in each chunk, which keeps a chunk of longs at 1GB
+     */
+    static final int DEFAULT_CHUNK_ELEMENTS = 1 << 27;
+
+    /**
+     * The mapped chunks of the section
+     */
+    private final MappedByteBuffer[] chunks;
+    /**
+     * Number of elements in each chunk
+     */
+    private final int chunkElements;
+    /**
+     * Number of bytes of each element
+     */
+    private final int elementBytes;
+
+    /**
+     * Constructs mapped section from its chunks
+     * @param chunks The mapped chunks
+     * @param chunkElements Number of elements in each chunk
+     * @param elementBytes Number of bytes of each element
+     */
+    private MappedSection(MappedByteBuffer[] chunks, int chunkElements, int elementBytes) {
+        this.chunks = chunks;
+        this.chunkElements = chunkElements;
+        this.elementBytes = elementBytes;
+    }
+
+    /**
+     * Maps a section of the file
+     * @param channel The file, open for reading
+     * @param offset Where the section starts in the file
+     * @param count Number of elements of the section
+     * @param elementBytes Number of bytes of each element
+     * @param chunkElements Number of elements in each chunk
+     * @return The mapped section
+     * @throws IOException If the section cannot be mapped
+     */
+    static MappedSection map(FileChannel channel, long offset, long count, int elementBytes,
+                             int chunkElements) throws IOException {
+        int chunkCount = (int) ((count + chunkElements - 1) / chunkElements);
+        MappedByteBuffer[] chunks = new MappedByteBuffer[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            long first = (long) i * chunkElements;
+            long length = Math.min(chunkElements, count - first) * elementBytes;
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                    offset + first * elementBytes, length);
+        }
+        return new MappedSection(chunks, chunkElements, elementBytes);
+    }
+
+    /**
+     * Reads a byte element
+     * @param index The index of the element
+     * @return The element
+     */
+    byte getByte(long index) {
+        return chunks[(int) (index / chunkElements)].get((int) (index % chunkElements));
+    }
+
+    /**
+     * Reads an int element
+     * @param index The index of the element
+     * @return The element
+     */
+    int getInt(long index) {
+        return chunks[(int) (index / chunkElements)]
+                .getInt((int) (index % chunkElements) * elementBytes);
+    }
+
+    /**
+     * Reads a long element
+     * @param index The index of the element
+     * @return The element
+     */
+    long getLong(long index) {
+        return chunks[(int) (index / chunkElements)]
+                .getLong((int) (index % chunkElements) * elementBytes);
+    }
+
+    /**
+     * Copies byte elements, which may span more than one chunk
+     * @param index The index of the first element
+     * @param bytes The array to copy into, as long as the number of elements to copy
+     */
+    void getBytes(long index, byte[] bytes) {
+        int copied = 0;
+        while (copied < bytes.length) {
+            long at = index + copied;
+            int inChunk = (int) (at % chunkElements);
+            MappedByteBuffer chunk = chunks[(int) (at / chunkElements)];
+            int length = Math.min(bytes.length - copied, chunk.capacity() - inChunk);
+            chunk.get(inChunk, bytes, copied, length);
+            copied += length;
+        }
+    }
+
+    /**
+     * Finds a long element in a section of longs which are in ascending order
+     * @param count Number of elements of the section
+     * @param key The element to look for
+     * @return The index of the element, or -1 if it is not in the section
+     */
+    long binarySearch(long count, long key) {
+        long low = 0;
+        long high = count - 1;
+        while (low <= high) {
+            long middle = (low + high) >>> 1;
+            long value = getLong(middle);
+            if (value < key) {
+                low = middle + 1;
+            } else if (value > key) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,82 @@
+package srg.ports;
+
+import java.util.List;
+
+/**
+ * PortColumns interface which is the storage behind a PortTable, one column per field of a port
+ */
+interface PortColumns {
+    /**
+     * Gets the number of ports
+     * @return Number of ports
+     */
+    int size();
+
+    /**
+     * Gets the x coordinate of the port of the row
+     * @param row The row of the port
+     * @return x coordinate
+     */
+    int x(int row);
+
+    /**
+     * Gets the y coordinate of the port of the row
+     * @param row The row of the port
+     * @return y coordinate
+     */
+    int y(int row);
+
+    /**
+     * Gets the z coordinate of the port of the row
+     * @param row The row of the port
+     * @return z coordinate
+     */
+    int z(int row);
+
+    /**
+     * Gets the kind of the port of the row
+     * @param row The row of the port
+     * @return Kind of the port, as defined by PortTable
+     */
+    byte kind(int row);
+
+    /**
+     * Gets the entry of the name of the port of the row in the name dictionary
+     * @param row The row of the port
+     * @return Entry of the name
+     */
+    int nameId(int row);
+
+    /**
+     * Gets a name of the name dictionary
+     * @param nameId Entry of the name
+     * @return The name
+     */
+    String name(int nameId);
+
+    /**
+     * Gets the number of distinct names
+     * @return Number of entries of the name dictionary
+     */
+    int nameCount();
+
+    /**
+     * Gets the entry of the rooms the port of the row can upgrade
+     * @param row The row of the port
+     * @return Entry of {@link #upgradeLists()}
+     */
+    int upgradeId(int row);
+
+    /**
+     * Gets every distinct list of rooms that can be upgraded
+     * @return The lists of rooms
+     */
+    List<List<String>> upgradeLists();
+
+    /**
+     * Gets a spatial index which was stored with the columns
+     * @param table The table over these columns
+     * @return The stored index, or null if there is none
+     */
+    SpatialIndex storedIndex(PortTable table);
+}
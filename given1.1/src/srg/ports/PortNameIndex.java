@@ -0,0 +1,296 @@
+package srg.ports;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * PortNameIndex class which finds the ports of a galaxy map by name without scanning the map.
+ * Each distinct name is an entry, which stands for the first port of the map with the name,
+ * the port a scan of the map would find.
+ * Exact names are found in a hash table built with the index. Names which ignore case, and names which
+ * start with a prefix, are found in tables built the first time they are asked for, so a map whose names
+ * are only looked up exactly never pays for them.
+ * The map must not change after the index is built. The index can be shared by every ship on the map.
+ */
+public class PortNameIndex {
+    /**
+     * The galaxy map
+     */
+    private final List<SpacePort> ports;
+    /**
+     * The name of each entry
+     */
+    private final IntFunction<String> entryNames;
+    /**
+     * The first row of the map with the name of each entry
+     */
+    private final int[] entryRows;
+    /**
+     * Number of entries
+     */
+    private final int entryCount;
+    /**
+     * Hash table of the entries by name, each slot holding an entry plus one, or 0 if it is empty
+     */
+    private final int[] exact;
+    /**
+     * Hash table of the entries by name ignoring case, in the same form, or null before it is built
+     */
+    private volatile int[] ignoringCase;
+    /**
+     * The entries in the order of their names ignoring case, or null before it is built
+     */
+    private volatile int[] sorted;
+    /**
+     * The names of the sorted entries, in the same order
+     */
+    private String[] sortedNames;
+
+    /**
+     * Constructs index of the names of the galaxy map
+     * @param ports The galaxy map, which must not change afterwards
+     */
+    public PortNameIndex(List<SpacePort> ports) {
+        this.ports = ports;
+        if (ports instanceof PortTable table) {
+            // The names of a table are already kept once each, so each dictionary name is an entry
+            entryCount = table.getNameCount();
+            entryRows = new int[entryCount];
+            Arrays.fill(entryRows, -1);
+            for (int row = table.size() - 1; row >= 0; row--) {
+                entryRows[table.getNameId(row)] = row;
+            }
+            entryNames = table::getDictionaryName;
+            exact = new int[tableSize(entryCount)];
+            for (int entry = 0; entry < entryCount; entry++) {
+                if (entryRows[entry] >= 0) {
+                    exact[freeSlot(exact, spread(entryNames.apply(entry).hashCode()))] = entry + 1;
+                }
+            }
+        } else {
+            int[] rows = new int[ports.size()];
+            int[] table = new int[tableSize(ports.size())];
+            int count = 0;
+            for (int row = 0; row < ports.size(); row++) {
+                String name = ports.get(row).getName();
+                int slot = spread(name.hashCode()) & (table.length - 1);
+                while (table[slot] != 0 && !ports.get(rows[table[slot] - 1]).getName().equals(name)) {
+                    slot = (slot + 1) & (table.length - 1);
+                }
+                if (table[slot] == 0) {
+                    rows[count] = row;
+                    table[slot] = ++count;
+                }
+            }
+            entryCount = count;
+            entryRows = Arrays.copyOf(rows, count);
+            entryNames = entry -> ports.get(entryRows[entry]).getName();
+            exact = table;
+        }
+    }
+
+    /**
+     * Gets the size of a hash table which is at most half full with the number of entries
+     * @param entries Number of entries
+     * @return A power of two at least twice the number of entries
+     */
+    private static int tableSize(int entries) {
+        return Integer.highestOneBit(Math.max(1, entries) * 2 - 1) << 1;
+    }
+
+    /**
+     * Spreads the high bits of a hash code into the low bits, which choose the slot
+     * @param hash The hash code
+     * @return The spread hash code
+     */
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Finds the first empty slot from where the hash code points
+     * @param table The hash table
+     * @param hash The spread hash code
+     * @return The empty slot
+     */
+    private static int freeSlot(int[] table, int hash) {
+        int slot = hash & (table.length - 1);
+        while (table[slot] != 0) {
+            slot = (slot + 1) & (table.length - 1);
+        }
+        return slot;
+    }
+
+    /**
+     * Gets the index of the first port with the name
+     * @param name The name of the port
+     * @return The index of the port in the galaxy map, or -1 if no port has the name
+     */
+    public int indexOf(String name) {
+        int slot = spread(name.hashCode()) & (exact.length - 1);
+        while (exact[slot] != 0) {
+            int entry = exact[slot] - 1;
+            if (entryNames.apply(entry).equals(name)) {
+                return entryRows[entry];
+            }
+            slot = (slot + 1) & (exact.length - 1);
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the first port with the name
+     * @param name The name of the port
+     * @return The port, or null if no port has the name
+     */
+    public SpacePort get(String name) {
+        int index = indexOf(name);
+        return index < 0 ? null : ports.get(index);
+    }
+
+    /**
+     * Gets the index of the first port with the name, ignoring case as String.equalsIgnoreCase does
+     * @param name The name of the port in any case
+     * @return The index of the port in the galaxy map, or -1 if no port has the name
+     */
+    public int indexOfIgnoreCase(String name) {
+        int[] table = getIgnoringCase();
+        int slot = spread(foldedHash(name)) & (table.length - 1);
+        while (table[slot] != 0) {
+            int entry = table[slot] - 1;
+            if (entryNames.apply(entry).equalsIgnoreCase(name)) {
+                return entryRows[entry];
+            }
+            slot = (slot + 1) & (table.length - 1);
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the first port with the name, ignoring case
+     * @param name The name of the port in any case
+     * @return The port, or null if no port has the name
+     */
+    public SpacePort getIgnoreCase(String name) {
+        int index = indexOfIgnoreCase(name);
+        return index < 0 ? null : ports.get(index);
+    }
+
+    /**
+     * Finds the ports whose names start with the prefix, ignoring case, as when completing a name
+     * @param prefix The start of the name in any case
+     * @param limit The most ports to find
+     * @return The first port with each matching name, in the order of the names ignoring case
+     */
+    public List<SpacePort> findByPrefix(String prefix, int limit) {
+        int[] order = getSorted();
+        String[] names = sortedNames;
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (String.CASE_INSENSITIVE_ORDER.compare(names[middle], prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        List<SpacePort> found = new ArrayList<>();
+        for (int i = low; i < order.length && found.size() < limit
+                && names[i].regionMatches(true, 0, prefix, 0, prefix.length()); i++) {
+            found.add(ports.get(entryRows[order[i]]));
+        }
+        return Collections.unmodifiableList(found);
+    }
+
+    /**
+     * Gives a hash code which is the same for names which are equal ignoring case
+     * @param name The name
+     * @return Hash code of the name with each char folded as String.equalsIgnoreCase folds it
+     */
+    private static int foldedHash(String name) {
+        int hash = 0;
+        for (int i = 0; i < name.length(); i++) {
+            hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(name.charAt(i)));
+        }
+        return hash;
+    }
+
+    /**
+     * Gets the hash table of the entries by name ignoring case, building it the first time
+     * @return The hash table, holding the entry of the first port for names which differ only in case
+     */
+    private int[] getIgnoringCase() {
+        int[] table = ignoringCase;
+        if (table == null) {
+            synchronized (this) {
+                table = ignoringCase;
+                if (table == null) {
+                    table = buildIgnoringCase();
+                    ignoringCase = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Builds the hash table of the entries by name ignoring case
+     * @return The hash table
+     */
+    private int[] buildIgnoringCase() {
+        int[] table = new int[tableSize(entryCount)];
+        for (int entry = 0; entry < entryCount; entry++) {
+            if (entryRows[entry] < 0) {
+                continue;
+            }
+            String name = entryNames.apply(entry);
+            int slot = spread(foldedHash(name)) & (table.length - 1);
+            while (table[slot] != 0 && !entryNames.apply(table[slot] - 1).equalsIgnoreCase(name)) {
+                slot = (slot + 1) & (table.length - 1);
+            }
+            if (table[slot] == 0 || entryRows[entry] < entryRows[table[slot] - 1]) {
+                table[slot] = entry + 1;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Gets the entries in the order of their names ignoring case, sorting them the first time
+     * @return The sorted entries, with their names in {@link #sortedNames}
+     */
+    private int[] getSorted() {
+        int[] order = sorted;
+        if (order == null) {
+            synchronized (this) {
+                order = sorted;
+                if (order == null) {
+                    String[] names = new String[entryCount];
+                    List<Integer> entries = new ArrayList<>(entryCount);
+                    for (int entry = 0; entry < entryCount; entry++) {
+                        if (entryRows[entry] >= 0) {
+                            names[entry] = entryNames.apply(entry);
+                            entries.add(entry);
+                        }
+                    }
+                    entries.sort(Comparator.<Integer, String>comparing(entry -> names[entry],
+                            String.CASE_INSENSITIVE_ORDER).thenComparingInt(entry -> entryRows[entry]));
+                    order = entries.stream().mapToInt(Integer::intValue).toArray();
+                    String[] ordered = new String[order.length];
+                    for (int i = 0; i < order.length; i++) {
+                        ordered[i] = names[order[i]];
+                    }
+                    // Written before the volatile order, so a thread which sees the order sees the names
+                    sortedNames = ordered;
+                    sorted = order;
+                }
+            }
+        }
+        return order;
+    }
+}
@@ -0,0 +1,429 @@
+package srg.ports;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PortTable class which stores a galaxy map column by column instead of as one object per port.
+ * Coordinates are kept in int arrays, the kind of each port in a byte array,
+ * and names in a dictionary of UTF-8 bytes where equal names are stored once.
+ * The table is a list of spaceports: reading a SpacePort or ShipYard makes a small view of its row,
+ * while each Store is made once, when it is first read, because it holds its own stock.
+ */
+public class PortTable extends AbstractList<SpacePort> implements RandomAccess {
+    /**
+     * Kind of a plain spaceport
+     */
+    public static final byte SPACE_PORT = 0;
+    /**
+     * Kind of a store
+     */
+    public static final byte STORE = 1;
+    /**
+     * Kind of a shipyard
+     */
+    public static final byte SHIP_YARD = 2;
+
+    /**
+     * The columns holding the ports
+     */
+    private final PortColumns columns;
+    /**
+     * The store of each store row which has been read
+     */
+    private final Map<Integer, Store> stores = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs port table over columns
+     * @param columns The columns holding the ports
+     */
+    PortTable(PortColumns columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * Copies a galaxy map into a table. Stores are copied with their initial stock.
+     * @param ports The ports to copy
+     * @return The table holding the same ports, in the same order
+     */
+    public static PortTable of(List<SpacePort> ports) {
+        Builder builder = new Builder();
+        for (SpacePort port : ports) {
+            builder.add(port);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Gets the number of ports
+     * @return Number of ports
+     */
+    @Override
+    public int size() {
+        return columns.size();
+    }
+
+    /**
+     * Gets the port of the row.
+     * Views are not kept, so each call makes a new one, equal to the others of the row but not the same object.
+     * Code which visits many ports works with rows instead, as GalaxyGraph and RoutePlanner do.
+     * @param row The row of the port
+     * @return A view of the row, or the store of the row
+     */
+    @Override
+    public SpacePort get(int row) {
+        Objects.checkIndex(row, columns.size());
+        switch (columns.kind(row)) {
+            case STORE:
+                return stores.computeIfAbsent(row, r -> new Store(this, r));
+            case SHIP_YARD:
+                return new ShipYard(this, row, columns.upgradeLists().get(columns.upgradeId(row)));
+            default:
+                return new SpacePort(this, row);
+        }
+    }
+
+    /**
+     * Finds the row of the port without scanning, if it is a port of this table
+     * @param other The port to look for
+     * @return The row of the port, or -1 if it is not a port of this table
+     */
+    @Override
+    public int indexOf(Object other) {
+        if (other instanceof SpacePort port && port.getTable() == this) {
+            return port.getRow();
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the row of the port without scanning, since a port is only ever in one row
+     * @param other The port to look for
+     * @return The row of the port, or -1 if it is not a port of this table
+     */
+    @Override
+    public int lastIndexOf(Object other) {
+        return indexOf(other);
+    }
+
+    /**
+     * Checks if the port is a port of this table
+     * @param other The port to look for
+     * @return If the port is a port of this table returns true, and if not returns false
+     */
+    @Override
+    public boolean contains(Object other) {
+        return indexOf(other) >= 0;
+    }
+
+    /**
+     * Gets the kind of the port of the row
+     * @param row The row of the port
+     * @return {@link #SPACE_PORT}, {@link #STORE} or {@link #SHIP_YARD}
+     */
+    public byte getKind(int row) {
+        return columns.kind(row);
+    }
+
+    /**
+     * Gets the name of the port of the row
+     * @param row The row of the port
+     * @return The name of the port
+     */
+    public String getName(int row) {
+        return columns.name(columns.nameId(row));
+    }
+
+    /**
+     * Gets the position of the port of the row
+     * @param row The row of the port
+     * @return A new position holding the coordinates of the port
+     */
+    public Position getPosition(int row) {
+        return new Position(columns.x(row), columns.y(row), columns.z(row));
+    }
+
+    /**
+     * Checks if the port of the row is within the distance of the centre, reading only the coordinate columns
+     * @param row The row of the port
+     * @param centre The position to measure from
+     * @param maxDistance The maximum distance, compared with {@link Position#distanceTo}
+     * @return If the port is not further than the maximum distance returns true, and if it is returns false
+     */
+    public boolean withinDistance(int row, Position centre, int maxDistance) {
+        long dx = (long) columns.x(row) - centre.x;
+        long dy = (long) columns.y(row) - centre.y;
+        long dz = (long) columns.z(row) - centre.z;
+        return Position.isWithin(dx * dx + dy * dy + dz * dz, maxDistance);
+    }
+
+    /**
+     * Finds the ports within the distance by scanning the coordinate columns
+     * @param centre The position to search around
+     * @param maxDistance The maximum distance, as returned by {@link Position#distanceTo}
+     * @return List of the ports within the distance, in the order of the table
+     */
+    public List<SpacePort> findWithin(Position centre, int maxDistance) {
+        List<SpacePort> portsWithin = new ArrayList<>();
+        for (int row = 0; row < columns.size(); row++) {
+            if (withinDistance(row, centre, maxDistance)) {
+                portsWithin.add(get(row));
+            }
+        }
+        return portsWithin;
+    }
+
+    /**
+     * Gets the number of distinct names in the dictionary
+     * @return Number of distinct names
+     */
+    public int getNameCount() {
+        return columns.nameCount();
+    }
+
+    /**
+     * Gets the stores which have been read so far. Every other store of the table still has its initial stock.
+     * @return Unmodifiable view of the stores which have been read, by row
+     */
+    public Map<Integer, Store> getReadStores() {
+        return Collections.unmodifiableMap(stores);
+    }
+
+    /**
+     * Gets the spatial index which was stored with the table, such as the grid of a galaxy file
+     * @return The stored index, or null if the table has none
+     */
+    public SpatialIndex getStoredIndex() {
+        return columns.storedIndex(this);
+    }
+
+    /**
+     * Gets the kinds of rooms each shipyard of the table can upgrade
+     * @return Every distinct list of rooms, the first being the empty list of rows which are not shipyards
+     */
+    List<List<String>> getUpgradeLists() {
+        return columns.upgradeLists();
+    }
+
+    /**
+     * Gets the entry of the rooms the port of the row can upgrade
+     * @param row The row of the port
+     * @return Entry of the list of rooms
+     */
+    int getUpgradeId(int row) {
+        return columns.upgradeId(row);
+    }
+
+    /**
+     * Gets the entry of the name of the port of the row
+     * @param row The row of the port
+     * @return Entry of the name dictionary
+     */
+    int getNameId(int row) {
+        return columns.nameId(row);
+    }
+
+    /**
+     * Gets a name of the name dictionary
+     * @param nameId Entry of the name
+     * @return The name
+     */
+    String getDictionaryName(int nameId) {
+        return columns.name(nameId);
+    }
+
+    /**
+     * Builder class which adds the ports of a table one row at a time
+     */
+    public static class Builder {
+        /**
+         * Number of rows added
+         */
+        private int size;
+        /**
+         * x coordinate of each row
+         */
+        private int[] x = new int[16];
+        /**
+         * y coordinate of each row
+         */
+        private int[] y = new int[16];
+        /**
+         * z coordinate of each row
+         */
+        private int[] z = new int[16];
+        /**
+         * Kind of each row
+         */
+        private byte[] kinds = new byte[16];
+        /**
+         * Name of each row, as an entry of the dictionary
+         */
+        private int[] nameIds = new int[16];
+        /**
+         * Rooms that can be upgraded of each row, as an entry of upgradeLists
+         */
+        private byte[] upgradeIds = new byte[16];
+        /**
+         * The entry of each distinct name
+         */
+        private Map<String, Integer> names = new HashMap<>();
+        /**
+         * The bytes of the names added so far
+         */
+        private byte[] nameBytes = new byte[256];
+        /**
+         * Number of name bytes added
+         */
+        private int nameByteCount;
+        /**
+         * Where each name starts in nameBytes
+         */
+        private int[] nameOffsets = new int[17];
+        /**
+         * Every distinct list of rooms that can be upgraded
+         */
+        private List<List<String>> upgradeLists = new ArrayList<>(List.of(List.of()));
+
+        /**
+         * Adds a copy of the port. A store is added with its initial stock.
+         * @param port The port to add
+         * @return This builder
+         */
+        public Builder add(SpacePort port) {
+            Position position = port.getPosition();
+            if (port instanceof Store) {
+                return addStore(port.getName(), position.x, position.y, position.z);
+            }
+            if (port instanceof ShipYard shipYard) {
+                return addShipYard(port.getName(), position.x, position.y, position.z,
+                        shipYard.getCanUpgrade());
+            }
+            return addSpacePort(port.getName(), position.x, position.y, position.z);
+        }
+
+        /**
+         * Adds a plain spaceport
+         * @param name Name of the port
+         * @param x x coordinate of the port
+         * @param y y coordinate of the port
+         * @param z z coordinate of the port
+         * @return This builder
+         */
+        public Builder addSpacePort(String name, int x, int y, int z) {
+            addRow(name, x, y, z, SPACE_PORT, 0);
+            return this;
+        }
+
+        /**
+         * Adds a store
+         * @param name Name of the store
+         * @param x x coordinate of the store
+         * @param y y coordinate of the store
+         * @param z z coordinate of the store
+         * @return This builder
+         */
+        public Builder addStore(String name, int x, int y, int z) {
+            addRow(name, x, y, z, STORE, 0);
+            return this;
+        }
+
+        /**
+         * Adds a shipyard
+         * @param name Name of the shipyard
+         * @param x x coordinate of the shipyard
+         * @param y y coordinate of the shipyard
+         * @param z z coordinate of the shipyard
+         * @param canUpgrade The rooms that can be upgraded at the shipyard
+         * @return This builder
+         * @throws IllegalArgumentException If there are already 256 different lists of rooms
+         */
+        public Builder addShipYard(String name, int x, int y, int z, List<String> canUpgrade) {
+            int upgrades = upgradeLists.indexOf(canUpgrade);
+            if (upgrades < 0) {
+                if (upgradeLists.size() == 256) {
+                    throw new IllegalArgumentException("Too many different lists of rooms");
+                }
+                upgradeLists.add(List.copyOf(canUpgrade));
+                upgrades = upgradeLists.size() - 1;
+            }
+            addRow(name, x, y, z, SHIP_YARD, upgrades);
+            return this;
+        }
+
+        /**
+         * Adds a row to every column
+         * @param name Name of the port
+         * @param x x coordinate of the port
+         * @param y y coordinate of the port
+         * @param z z coordinate of the port
+         * @param kind Kind of the port
+         * @param upgrades Entry of the rooms that can be upgraded
+         */
+        private void addRow(String name, int x, int y, int z, byte kind, int upgrades) {
+            if (size == this.x.length) {
+                int capacity = size * 2;
+                this.x = Arrays.copyOf(this.x, capacity);
+                this.y = Arrays.copyOf(this.y, capacity);
+                this.z = Arrays.copyOf(this.z, capacity);
+                kinds = Arrays.copyOf(kinds, capacity);
+                nameIds = Arrays.copyOf(nameIds, capacity);
+                upgradeIds = Arrays.copyOf(upgradeIds, capacity);
+            }
+            this.x[size] = x;
+            this.y[size] = y;
+            this.z[size] = z;
+            kinds[size] = kind;
+            nameIds[size] = intern(name);
+            upgradeIds[size] = (byte) upgrades;
+            size++;
+        }
+
+        /**
+         * Finds the name in the dictionary, adding it if it is new
+         * @param name The name
+         * @return The entry of the name
+         */
+        private int intern(String name) {
+            Integer known = names.get(name);
+            if (known != null) {
+                return known;
+            }
+            int entry = names.size();
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            if (nameByteCount + bytes.length > nameBytes.length) {
+                nameBytes = Arrays.copyOf(nameBytes,
+                        Math.max(nameBytes.length * 2, nameByteCount + bytes.length));
+            }
+            System.arraycopy(bytes, 0, nameBytes, nameByteCount, bytes.length);
+            nameByteCount += bytes.length;
+            if (entry + 2 > nameOffsets.length) {
+                nameOffsets = Arrays.copyOf(nameOffsets, nameOffsets.length * 2);
+            }
+            nameOffsets[entry + 1] = nameByteCount;
+            names.put(name, entry);
+            return entry;
+        }
+
+        /**
+         * Builds the table, with every column trimmed to its length
+         * @return The table
+         */
+        public PortTable build() {
+            return new PortTable(new HeapColumns(Arrays.copyOf(x, size), Arrays.copyOf(y, size),
+                    Arrays.copyOf(z, size), Arrays.copyOf(kinds, size), Arrays.copyOf(nameIds, size),
+                    Arrays.copyOf(nameBytes, nameByteCount),
+                    Arrays.copyOf(nameOffsets, names.size() + 1), Arrays.copyOf(upgradeIds, size),
+                    List.copyOf(upgradeLists)));
+        }
+    }
+}
@@ -33,12 +33,55 @@ public class Position {
     /**
      * Calculates the difference between the input position and this position
      * @param other The position to calculate with this position
-     * @return The distance between this position and input position
+     * @return The distance between this position and input position, rounded down
      */
     public int distanceTo(Position other) {
-        int distance = (int) Math.floor(Math.pow(Math.pow(other.x - x, 2)
-                + Math.pow(other.y - y, 2) + Math.pow(other.z - z, 2), 0.5));
-        return distance;
+        long squared = distanceSquaredTo(other);
+        long distance = (long) Math.sqrt(squared);
+        // The double square root can be one off for squares beyond 2^52
+        if (distance * distance > squared) {
+            distance--;
+        } else if ((distance + 1) * (distance + 1) <= squared) {
+            distance++;
+        }
+        return (int) distance;
+    }
+
+    /**
+     * Calculates the square of the distance between the input position and this position
+     * @param other The position to calculate with this position
+     * @return The exact squared distance between this position and input position
+     */
+    public long distanceSquaredTo(Position other) {
+        long dx = (long) other.x - x;
+        long dy = (long) other.y - y;
+        long dz = (long) other.z - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Checks if the input position is within the distance of this position, without taking a square root
+     * @param other The position to calculate with this position
+     * @param maxDistance The maximum distance, compared with {@link #distanceTo}
+     * @return If the distance to the input position is not larger than the maximum distance returns true, and if it is returns false
+     */
+    public boolean withinDistance(Position other, int maxDistance) {
+        return isWithin(distanceSquaredTo(other), maxDistance);
+    }
+
+    /**
+     * Checks if a squared distance is within the distance
+     * @param squared The exact squared distance
+     * @param maxDistance The maximum distance, compared with {@link #distanceTo}
+     * @return If the floored root of the squared distance is not larger than the maximum distance returns true, and if it is returns false
+     */
+    static boolean isWithin(long squared, int maxDistance) {
+        if (maxDistance < 0) {
+            return false;
+        }
+        // distanceTo rounds down, so it stays at maxDistance until the square reaches (maxDistance + 1)^2
+        long limit = (long) maxDistance + 1;
+        return squared < limit * limit;
     }
 
     /**
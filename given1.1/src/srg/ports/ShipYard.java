@@ -10,14 +10,6 @@ import java.util.*;
  * ShipYard class
  */
 public class ShipYard extends SpacePort {
-    /**
-     * Name of the Shipyard
-     */
-    private String name;
-    /**
-     * Position of the ShipYard
-     */
-    private Position position;
     /**
      * The List of the ports that can be upgraded
      */
@@ -31,11 +23,28 @@ public class ShipYard extends SpacePort {
      */
     public ShipYard(String name, Position position, List<String> canUpgrade) {
         super(name, position);
-        this.name = name;
-        this.position = position;
         this.canUpgrade = canUpgrade;
     }
 
+    /**
+     * Constructs shipyard object which is a view of a row of a port table
+     * @param table The table which holds the name and position of the shipyard
+     * @param row The row of the shipyard in the table
+     * @param canUpgrade The list of the rooms that can be upgraded
+     */
+    ShipYard(PortTable table, int row, List<String> canUpgrade) {
+        super(table, row);
+        this.canUpgrade = canUpgrade;
+    }
+
+    /**
+     * Gets the rooms that can be upgraded at this shipyard
+     * @return The list of the rooms that can be upgraded
+     */
+    public List<String> getCanUpgrade() {
+        return canUpgrade;
+    }
+
     /**
      * Gets actions that can be performed at this spaceport
      * @return The list of the actions that can be performed at this spaceport in String type
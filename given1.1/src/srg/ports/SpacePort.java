@@ -14,6 +14,14 @@ public class SpacePort {
      * Position of the Spaceport
      */
     private Position position;
+    /**
+     * The table this spaceport is a view of, or null if the spaceport holds its own name and position
+     */
+    private PortTable table;
+    /**
+     * The row of this spaceport in its table
+     */
+    private int row;
 
     /**
      * Constructs SpacePort object with the name of the spaceport and the position of the spaceport
@@ -25,12 +33,38 @@ public class SpacePort {
         this.position = position;
     }
 
+    /**
+     * Constructs SpacePort object which is a view of a row of a port table
+     * @param table The table which holds the name and position of the spaceport
+     * @param row The row of the spaceport in the table
+     */
+    SpacePort(PortTable table, int row) {
+        this.table = table;
+        this.row = row;
+    }
+
+    /**
+     * Gets the table this spaceport is a view of
+     * @return The table, or null if the spaceport holds its own name and position
+     */
+    PortTable getTable() {
+        return table;
+    }
+
+    /**
+     * Gets the row of this spaceport in its table
+     * @return The row of the spaceport
+     */
+    int getRow() {
+        return row;
+    }
+
     /**
      * Gets the name of the spaceport
      * @return The name of the spaceport
      */
     public String getName() {
-        return name;
+        return table == null ? name : table.getName(row);
     }
 
     /**
@@ -38,7 +72,7 @@ public class SpacePort {
      * @return The position of the spaceport
      */
     public Position getPosition() {
-        return position;
+        return table == null ? position : table.getPosition(row);
     }
 
     /**
@@ -50,6 +84,31 @@ public class SpacePort {
         return "PORT: \"" + getName() + "\" SpacePort at " + getPosition();
     }
 
+    /**
+     * Checks if the object is the same spaceport.
+     * Views of the same row of the same table are the same spaceport, and any other spaceport is only equal to itself.
+     * @param other The object to compare with
+     * @return If the object is the same spaceport returns true, and if not returns false
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        return table != null && other instanceof SpacePort port
+                && port.table == table && port.row == row;
+    }
+
+    /**
+     * Gives the hash code which is consistent with equals
+     * @return Hash code of the spaceport
+     */
+    @Override
+    public int hashCode() {
+        return table == null ? System.identityHashCode(this)
+                : 31 * System.identityHashCode(table) + row;
+    }
+
     /**
      * Gets actions that can be performed in this spaceport
      * @return The list of the actions that can be performed only in this spaceport
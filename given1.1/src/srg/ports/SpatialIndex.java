@@ -0,0 +1,43 @@
+package srg.ports;
+
+import java.util.List;
+
+/**
+ * SpatialIndex interface which answers radius queries over the positions of spaceports
+ */
+public interface SpatialIndex {
+    /**
+     * Maps with fewer ports than this are searched by a linear scan
+     */
+    static final int LINEAR_SCAN_THRESHOLD = 256;
+
+    /**
+     * Finds the ports whose distance from the centre is not larger than the maximum distance
+     * @param centre The position to search around
+     * @param maxDistance The maximum distance, as returned by {@link Position#distanceTo}
+     * @return List of the ports within the distance, in the order of the indexed map
+     */
+    abstract List<SpacePort> findWithin(Position centre, int maxDistance);
+
+    /**
+     * Chooses the index for the map by its size
+     * @param ports The ports to index
+     * @return The stored index of a table opened from a galaxy file,
+     * and otherwise linear scan index for small maps and grid index for large maps
+     */
+    static SpatialIndex of(List<SpacePort> ports) {
+        if (ports instanceof PortTable table) {
+            SpatialIndex stored = table.getStoredIndex();
+            if (stored != null) {
+                return stored;
+            }
+        }
+        if (ports instanceof PortTable table && ports.size() < LINEAR_SCAN_THRESHOLD) {
+            return table::findWithin;
+        }
+        if (ports.size() < LINEAR_SCAN_THRESHOLD) {
+            return new LinearScanIndex(ports);
+        }
+        return new GridIndex(ports);
+    }
+}
@@ -1,15 +1,14 @@
 package srg.ports;
 
 import srg.exceptions.InsufficientResourcesException;
-import srg.resources.FuelContainer;
-import srg.resources.FuelGrade;
 import srg.resources.ResourceContainer;
-import srg.resources.ResourceType;
-import srg.ship.CargoHold;
-import srg.ship.RoomTier;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
 
 import static java.util.Collections.sort;
 
@@ -18,36 +17,16 @@ import static java.util.Collections.sort;
  */
 public class Store extends SpacePort {
     /**
-     * Name of the Store
+     * The remaining amount of each item in the store.
+     * The map is final and filled once in the constructor, so any thread which sees the store sees the map filled,
+     * and only the counters change afterwards, so ships docked at the same store can purchase from different threads.
      */
-    private String name;
+    private final Map<StoreItem, AtomicInteger> stock = new EnumMap<>(StoreItem.class);
     /**
-     * Position of the Store
+     * Lock which changes to the stock share, each changing its own counter atomically,
+     * and which a batch purchase holds alone so no other change sees the batch half done
      */
-    private Position position;
-    /**
-     * Average tier CargoHold of the store
-     */
-    private CargoHold cargoHold = new CargoHold(RoomTier.AVERAGE);
-    /**
-     * Initial resource
-     * Hypercontainer in the store
-     */
-    private FuelContainer hyperContainer;
-    /**
-     * Initial resource
-     * triContainer in the store
-     */
-    private FuelContainer triContainer;
-    /**
-     * Initial resource
-     * repairContainer in the store
-     */
-    private ResourceContainer repairContainer;
-    /**
-     * List of the resource containers
-     */
-    private List<ResourceContainer> resourceContainersList;
+    private final StampedLock lock = new StampedLock();
 
     /**
      * Constructs Store object with its name and position
@@ -56,22 +35,26 @@ public class Store extends SpacePort {
      */
     public Store(String name, Position position) {
         super(name, position);
-        this.name = name;
-        this.position = position;
-        this.resourceContainersList = new ArrayList<>();
-
-        this.hyperContainer = new FuelContainer(FuelGrade.HYPERDRIVE_CORE, 
-                FuelContainer.MAXIMUM_CAPACITY);
-        this.resourceContainersList.add(hyperContainer);
-
-        this.triContainer = new FuelContainer(FuelGrade.TRITIUM, 
-                FuelContainer.MAXIMUM_CAPACITY);
-        this.resourceContainersList.add(triContainer);
+        fillStock();
+    }
 
-        this.repairContainer = new ResourceContainer(ResourceType.REPAIR_KIT, 
-                ResourceContainer.MAXIMUM_CAPACITY);
-        this.resourceContainersList.add(repairContainer);
+    /**
+     * Constructs Store object which is a view of a row of a port table
+     * @param table The table which holds the name and position of the store
+     * @param row The row of the store in the table
+     */
+    Store(PortTable table, int row) {
+        super(table, row);
+        fillStock();
+    }
 
+    /**
+     * Fills the stock with the initial stock of every item
+     */
+    private void fillStock() {
+        for (StoreItem item : StoreItem.values()) {
+            stock.put(item, new AtomicInteger(item.getInitialStock()));
+        }
     }
 
     /**
@@ -82,53 +65,167 @@ public class Store extends SpacePort {
      * @throws InsufficientResourcesException If the store does not have the enough amount of the resource
      * If the item is not in the store print "The specified resource does not exist." message
      */
-    public ResourceContainer purchase(String item, int amount) 
+    public ResourceContainer purchase(String item, int amount)
             throws InsufficientResourcesException {
-        if (resourceContainersList.isEmpty()) {
+        StoreItem storeItem = StoreItem.fromName(item);
+        if (storeItem == null) {
+            throw new InsufficientResourcesException("The specified resource does not exist.");
+        }
+        return purchase(storeItem, amount);
+    }
+
+    /**
+     * Check if the store has the amount of the item to purchase and if it does take it out of the stock
+     * @param item The item to purchase from the store
+     * @param amount The amount of the item to purchase from the store
+     * @return The container containing the amount of the item
+     * @throws InsufficientResourcesException If the store does not have the enough amount of the item
+     * @throws IllegalArgumentException If the amount is not positive
+     */
+    public ResourceContainer purchase(StoreItem item, int amount)
+            throws InsufficientResourcesException {
+        ResourceContainer container = tryPurchase(item, amount);
+        if (container == null) {
             throw new InsufficientResourcesException("Error Here");
         }
-        if (item.equals("FUEL")) {
-            throw new InsufficientResourcesException("The specified resource does not exist.");
+        return container;
+    }
+
+    /**
+     * Purchases the amount of the item as purchase does, but returns null instead of throwing when it cannot
+     * @param item The name of the item to purchase from the store
+     * @param amount The amount of the item to purchase from the store
+     * @return The container containing the amount of the item, or null if the store has no such item or not enough of it
+     * @throws IllegalArgumentException If the amount is not positive
+     */
+    public ResourceContainer tryPurchase(String item, int amount) {
+        StoreItem storeItem = StoreItem.fromName(item);
+        return storeItem == null ? null : tryPurchase(storeItem, amount);
+    }
+
+    /**
+     * Purchases the amount of the item as purchase does, but returns null instead of throwing when it cannot
+     * @param item The item to purchase from the store
+     * @param amount The amount of the item to purchase from the store
+     * @return The container containing the amount of the item, or null if the store does not have enough of it
+     * @throws IllegalArgumentException If the amount is not positive
+     */
+    public ResourceContainer tryPurchase(StoreItem item, int amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
         }
-        if (item.equals("TRITIUM") || item.equals("REPAIR_KIT") || item.equals("HYPERDRIVE_CORE")) {
-            List<Integer> indexArr = new ArrayList<>();
-            for (int i = 0; i < resourceContainersList.size(); i++) {
-                ResourceContainer container = resourceContainersList.get(i);
-                if (container.getShortName().equals(item)) {
-                    if (container.getAmount() < amount) {
-                        amount -= container.getAmount();
-                        indexArr.add(i);
-                    } else if (container.getAmount() > amount) {
-                        if (!indexArr.isEmpty()) {
-                            for (int j : indexArr) {
-                                resourceContainersList.remove(j);
-                            }
-                        }
-                        resourceContainersList.get(i).setAmount(container.getAmount() - amount);
-                        if (container instanceof FuelContainer) {
-                            container.setAmount(amount);
-                            return container;
-                        } else {
-                            return new ResourceContainer(container.getType(), amount);
-                        }
-                    } else {
-                        if (!indexArr.isEmpty()) {
-                            for (int j : indexArr) {
-                                resourceContainersList.remove(j);
-                            }
-                        }
-                        resourceContainersList.remove(container);
-                        return container;
-                    }
+        if (!take(item, amount)) {
+            return null;
+        }
+        return item.newContainer(amount);
+    }
+
+    /**
+     * Purchases every item of the basket at once.
+     * The whole basket is checked and taken while no other purchase or restock can change the stock,
+     * so either all items are purchased or none are, and no other purchase ever sees part of the basket taken.
+     * @param basket The amount of each item to purchase
+     * @return The containers of the purchased items, one for each item in the order of {@link StoreItem}
+     * @throws InsufficientResourcesException If the store does not have the enough amount of any item of the basket
+     * @throws IllegalArgumentException If any item or amount is null, or any amount is not positive
+     */
+    public List<ResourceContainer> purchaseBatch(Map<StoreItem, Integer> basket)
+            throws InsufficientResourcesException {
+        for (Map.Entry<StoreItem, Integer> entry : basket.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null) {
+                throw new IllegalArgumentException("Basket must not hold null items or amounts");
+            }
+            if (entry.getValue() <= 0) {
+                throw new IllegalArgumentException("Amount must be positive");
+            }
+        }
+        long stamp = lock.writeLock();
+        try {
+            for (Map.Entry<StoreItem, Integer> entry : basket.entrySet()) {
+                if (stock.get(entry.getKey()).get() < entry.getValue()) {
+                    throw new InsufficientResourcesException("Error Here");
                 }
             }
-            if (amount > 0) {
-                throw new InsufficientResourcesException();
+            List<ResourceContainer> containers = new ArrayList<>();
+            for (StoreItem item : StoreItem.values()) {
+                Integer amount = basket.get(item);
+                if (amount != null) {
+                    stock.get(item).addAndGet(-amount);
+                    containers.add(item.newContainer(amount));
+                }
             }
-        } else {
-            throw new InsufficientResourcesException("The specified resource does not exist.");
+            return containers;
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        throw new InsufficientResourcesException("Error Here");
+    }
+
+    /**
+     * Takes the amount out of the stock of the item if there is enough of it
+     * @param item The item to take
+     * @param amount The amount to take
+     * @return If the amount was taken returns true, and if there was not enough returns false
+     */
+    private boolean take(StoreItem item, int amount) {
+        AtomicInteger remaining = stock.get(item);
+        long stamp = lock.readLock();
+        try {
+            int current;
+            do {
+                current = remaining.get();
+                if (current < amount) {
+                    return false;
+                }
+            } while (!remaining.compareAndSet(current, current - amount));
+            return true;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Adds the amount to the stock of the item
+     * @param item The item to restock
+     * @param amount The amount to add
+     * @throws IllegalArgumentException If the amount is negative
+     */
+    public void restock(StoreItem item, int amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Amount must not be negative");
+        }
+        long stamp = lock.readLock();
+        try {
+            stock.get(item).addAndGet(amount);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Sets the remaining stock of the item, as when restoring a snapshot
+     * @param item The item
+     * @param amount The remaining stock of the item
+     * @throws IllegalArgumentException If the amount is negative
+     */
+    public void setStock(StoreItem item, int amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Amount must not be negative");
+        }
+        long stamp = lock.readLock();
+        try {
+            stock.get(item).set(amount);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Gets the remaining amount of the item in the store
+     * @param item The item to check
+     * @return The amount of the item the store can still sell
+     */
+    public int getStock(StoreItem item) {
+        return stock.get(item).get();
     }
 
     /**
@@ -138,18 +235,10 @@ public class Store extends SpacePort {
     @Override
     public List<String> getActions() {
         List<String> actionList = new ArrayList<>();
-        String result = "";
-        if (resourceContainersList.isEmpty()) {
-            return actionList;
-        }
-        for (ResourceContainer r : resourceContainersList) {
-            if (r.getShortName().equals("REPAIR_KIT")) {
-                result = "buy " + r.getType() + " 1.." + r.getAmount();
-                actionList.add(result);
-            } else if (r instanceof FuelContainer) {
-                FuelContainer f = (FuelContainer) r;
-                result = "buy " + f.getFuelGrade() + " 1.." + f.getAmount();
-                actionList.add(result);
+        for (StoreItem item : StoreItem.values()) {
+            int remaining = stock.get(item).get();
+            if (remaining > 0) {
+                actionList.add("buy " + item + " 1.." + remaining);
             }
         }
         sort(actionList);
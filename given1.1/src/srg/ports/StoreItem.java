@@ -0,0 +1,92 @@
+package srg.ports;
+
+import srg.resources.FuelContainer;
+import srg.resources.FuelGrade;
+import srg.resources.ResourceContainer;
+import srg.resources.ResourceType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enumerates the items that can be purchased from a {@link Store}
+ */
+public enum StoreItem {
+    /**
+     * Fuel used to jump, sold in fuel containers
+     */
+    HYPERDRIVE_CORE(ResourceType.FUEL, FuelGrade.HYPERDRIVE_CORE, FuelContainer.MAXIMUM_CAPACITY),
+    /**
+     * Fuel used to fly, sold in fuel containers
+     */
+    TRITIUM(ResourceType.FUEL, FuelGrade.TRITIUM, FuelContainer.MAXIMUM_CAPACITY),
+    /**
+     * Kits used to repair rooms, sold in resource containers
+     */
+    REPAIR_KIT(ResourceType.REPAIR_KIT, null, ResourceContainer.MAXIMUM_CAPACITY);
+
+    /**
+     * The items by their names, as typed in purchase commands
+     */
+    private static final Map<String, StoreItem> BY_NAME = new HashMap<>();
+
+    static {
+        for (StoreItem item : values()) {
+            BY_NAME.put(item.name(), item);
+        }
+    }
+
+    /**
+     * The type of the resource
+     */
+    private final ResourceType type;
+    /**
+     * The grade of the fuel, or null if the item is not fuel
+     */
+    private final FuelGrade grade;
+    /**
+     * The amount a store is stocked with
+     */
+    private final int initialStock;
+
+    /**
+     * Constructor which sets the resource type, fuel grade and initial stock of the item
+     * @param type The type of the resource
+     * @param grade The grade of the fuel, or null if the item is not fuel
+     * @param initialStock The amount a store is stocked with
+     */
+    StoreItem(ResourceType type, FuelGrade grade, int initialStock) {
+        this.type = type;
+        this.grade = grade;
+        this.initialStock = initialStock;
+    }
+
+    /**
+     * Gets the amount a store is stocked with
+     * @return The initial stock of the item
+     */
+    public int getInitialStock() {
+        return initialStock;
+    }
+
+    /**
+     * Creates a container holding the amount of this item
+     * @param amount The amount of the item in the container
+     * @return Fuel container for fuel items, and resource container for the others
+     */
+    public ResourceContainer newContainer(int amount) {
+        if (grade != null) {
+            return new FuelContainer(grade, amount);
+        }
+        return new ResourceContainer(type, amount);
+    }
+
+    /**
+     * Finds the item with the name
+     * @param name The name of the item, such as "TRITIUM"
+     * @return The item with the name, or null if no item has the name
+     */
+    public static StoreItem fromName(String name) {
+        return BY_NAME.get(name);
+    }
+}
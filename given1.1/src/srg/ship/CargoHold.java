@@ -22,6 +22,14 @@ public class CargoHold extends Room {
      * The list of the resourceContainer
      */
     private List<ResourceContainer> resourceContainersList = new ArrayList<>();
+    /**
+     * Running total amount of each resource type, indexed by the ordinal of the type
+     */
+    private int[] typeTotals = new int[ResourceType.values().length];
+    /**
+     * Running total amount of each fuel grade, indexed by the ordinal of the grade
+     */
+    private int[] gradeTotals = new int[FuelGrade.values().length];
 
     /**
      * Constructs cargoHold of the input tier
@@ -37,7 +45,7 @@ public class CargoHold extends Room {
      * @return The number of the containers that can be added in the current cargoHold
      */
     public int getRemainingCapacity() {
-        return getMaximumCapacity() - getResources().size();
+        return getMaximumCapacity() - resourceContainersList.size();
     }
 
     /**
@@ -56,26 +64,99 @@ public class CargoHold extends Room {
     }
 
     /**
-     * Gets the list of the containers in the cargoHold
-     * @return List of the containers in the cargoHold
+     * Gets copies of the containers in the cargoHold.
+     * The cargoHold keeps running totals of its resources, so it never hands out its own containers:
+     * changing the list or a container in it does not change the cargoHold.
+     * Use storeResource and consumeResource to change it.
+     * @return Unmodifiable list of copies of the containers in the cargoHold, in the order they were stored
      */
     public List<ResourceContainer> getResources() {
-        return this.resourceContainersList;
+        List<ResourceContainer> copies = new ArrayList<>(resourceContainersList.size());
+        for (ResourceContainer resource : resourceContainersList) {
+            copies.add(copyOf(resource));
+        }
+        return Collections.unmodifiableList(copies);
+    }
+
+    /**
+     * Copies a container
+     * @param resource The container to copy
+     * @return A new container of the same type, grade and amount
+     */
+    private static ResourceContainer copyOf(ResourceContainer resource) {
+        if (resource instanceof FuelContainer fuel) {
+            return new FuelContainer(fuel.getFuelGrade(), fuel.getAmount());
+        }
+        return new ResourceContainer(resource.getType(), resource.getAmount());
     }
 
     /**
-     * Stores new container in the cargoHold
+     * Stores a copy of the container in the cargoHold, so changing the container afterwards does not change the cargoHold
      * @param resource The container to add in the cargoHold
      * @throws InsufficientCapcaityException If the cargoHold is currently full to store a new container
      */
     public void storeResource(ResourceContainer resource) throws InsufficientCapcaityException {
         if (getRemainingCapacity() > 0) {
-            getResources().add(resource);
+            addResource(copyOf(resource));
         } else {
             throw new InsufficientCapcaityException("Error Here");
         }
     }
 
+    /**
+     * Adds the container to the cargoHold without checking the capacity, used for the initial cargo of a ship
+     * @param resource The container to add in the cargoHold
+     */
+    void addResource(ResourceContainer resource) {
+        resourceContainersList.add(resource);
+        updateTotals(resource, resource.getAmount());
+        assert totalsMatchResources();
+    }
+
+    /**
+     * Replaces every resource of the cargoHold, as when restoring a snapshot
+     * @param resources The resources the cargoHold holds
+     */
+    void restoreResources(List<ResourceContainer> resources) {
+        resourceContainersList.clear();
+        Arrays.fill(typeTotals, 0);
+        Arrays.fill(gradeTotals, 0);
+        for (ResourceContainer resource : resources) {
+            addResource(resource);
+        }
+        changed();
+    }
+
+    /**
+     * Adds the amount to the running totals of the type and grade of the container, and records the change
+     * @param resource The container whose type and grade are updated
+     * @param amount The amount to add, negative when the resource is consumed
+     */
+    private void updateTotals(ResourceContainer resource, int amount) {
+        typeTotals[resource.getType().ordinal()] += amount;
+        if (resource instanceof FuelContainer) {
+            gradeTotals[((FuelContainer) resource).getFuelGrade().ordinal()] += amount;
+        }
+        changed();
+    }
+
+    /**
+     * Checks the running totals against a full scan of the containers.
+     * Called after each change when assertions are enabled.
+     * @return If every running total equals the sum of its containers returns true, and if not returns false
+     */
+    public boolean totalsMatchResources() {
+        int[] types = new int[typeTotals.length];
+        int[] grades = new int[gradeTotals.length];
+        for (ResourceContainer r : resourceContainersList) {
+            types[r.getType().ordinal()] += r.getAmount();
+            if (r instanceof FuelContainer) {
+                grades[((FuelContainer) r).getFuelGrade().ordinal()] += r.getAmount();
+            }
+        }
+        return Arrays.equals(types, typeTotals) && Arrays.equals(grades, gradeTotals);
+    }
+
     /**
      * Generates a list of the Resource containers which is input type
      * @param type The type of the Resource container to gather
@@ -115,13 +196,7 @@ public class CargoHold extends Room {
      * @return Total amount of the input type resource in cargoHold
      */
     public int getTotalAmountByType(ResourceType type) {
-        int sumAmountResourceType = 0;
-        for (ResourceContainer r : this.getResources()) {
-            if (r.getType().equals(type)) {
-                sumAmountResourceType += r.getAmount();
-            }
-        }
-        return sumAmountResourceType;
+        return typeTotals[type.ordinal()];
     }
 
     /**
@@ -130,16 +205,7 @@ public class CargoHold extends Room {
      * @return Total amount of the input grade resource in cargoHold
      */
     public int getTotalAmountByType(FuelGrade grade) {
-        int sumAmountFuelType = 0;
-        for (ResourceContainer r : this.getResources()) {
-            if (r instanceof FuelContainer) {
-                FuelContainer f = (FuelContainer) (r);
-                if (f.getFuelGrade().equals(grade)) {
-                    sumAmountFuelType += f.getAmount();
-                }
-            }
-        }
-        return sumAmountFuelType;
+        return gradeTotals[grade.ordinal()];
     }
 
     /**
@@ -151,36 +217,28 @@ public class CargoHold extends Room {
      */
     public void consumeResource(ResourceType type, int amount)
             throws InsufficientResourcesException {
+        if (!tryConsumeResource(type, amount)) {
+            throw new InsufficientResourcesException("Error Here");
+        }
+    }
+
+    /**
+     * Consumes the amount of the input type resource as consumeResource does, but tells whether it could instead of throwing
+     * @param type The type of the resource to consume from the cargoHold
+     * @param amount The amount of the resource to consume from the cargoHold
+     * @return If the amount was consumed returns true, and if the cargoHold does not hold enough returns false
+     * @throws IllegalArgumentException If the type of the resource is Fuel
+     */
+    public boolean tryConsumeResource(ResourceType type, int amount) {
         if (type.equals(ResourceType.FUEL)) {
             throw new IllegalArgumentException();
         }
         if (this.getTotalAmountByType(type) < amount) {
-            throw new InsufficientResourcesException("Error Here");
-        } else {
-            int consumeResourceAmount = amount;
-            List<ResourceContainer> consumeResourceList = this.getResourceByType(type);
-            for (ResourceContainer container : consumeResourceList) {
-                int containerAmount = container.getAmount();
-                if (containerAmount > consumeResourceAmount) {
-                    getResources().remove(container);
-                    getResources().add(new ResourceContainer(type, containerAmount
-                            - consumeResourceAmount));
-                    consumeResourceAmount -= containerAmount;
-                    break;
-                }
-                if (containerAmount < consumeResourceAmount) {
-                    getResources().remove(container);
-                    consumeResourceAmount -= containerAmount;
-                } else {
-                    getResources().remove(container);
-                    consumeResourceAmount -= containerAmount;
-                    break;
-                }
-            }
-            if (consumeResourceAmount > 0) {
-                throw new InsufficientResourcesException("Error Here");
-            }
+            return false;
         }
+        drain(type, null, amount);
+        assert totalsMatchResources();
+        return true;
     }
 
     /**
@@ -190,30 +248,57 @@ public class CargoHold extends Room {
      * @throws InsufficientResourcesException If the amount is greater than the total amount of the fuel resource of the input grade in the cargoHold
      */
     public void consumeResource(FuelGrade grade, int amount) throws InsufficientResourcesException {
-        if (getTotalAmountByType(grade) < amount) {
+        if (!tryConsumeResource(grade, amount)) {
             throw new InsufficientResourcesException("Error Here");
-        } else {
-            int consumeResourceAmount = amount;
-            List<ResourceContainer> consumeResourceList = this.getResourceByType(grade);
-            for (int i = 0; i < consumeResourceList.size(); i++) {
-                ResourceContainer container = consumeResourceList.get(i);
-                int containerAmount = container.getAmount();
-                if (containerAmount > consumeResourceAmount) {
-                    getResources().remove(container);
-                    getResources().add(new FuelContainer(grade, containerAmount
-                            - consumeResourceAmount));
-                    break;
-                }
-                if (containerAmount < consumeResourceAmount) {
-                    getResources().remove(container);
-                    consumeResourceAmount -= containerAmount;
-                } else {
-                    getResources().remove(container);
-                    break;
-                }
+        }
+    }
 
+    /**
+     * Consumes the amount of the input grade Fuel resource as consumeResource does, but tells whether it could instead of throwing
+     * @param grade The grade of the fuel resource to consume from the cargoHold
+     * @param amount The amount of the fuel resource to consume from the cargoHold
+     * @return If the amount was consumed returns true, and if the cargoHold does not hold enough returns false
+     */
+    public boolean tryConsumeResource(FuelGrade grade, int amount) {
+        if (getTotalAmountByType(grade) < amount) {
+            return false;
+        }
+        drain(ResourceType.FUEL, grade, amount);
+        assert totalsMatchResources();
+        return true;
+    }
+
+    /**
+     * Takes the amount out of the matching containers in a single pass over the cargoHold.
+     * Containers are drained in order, a partly used container keeps its place with the rest of its amount,
+     * and emptied containers are removed by shifting the remaining containers forward.
+     * @param type The type of the resource to consume
+     * @param grade The grade of the fuel to consume, or null to match every container of the type
+     * @param amount The amount to consume, which must not be greater than the total of the matching containers
+     */
+    private void drain(ResourceType type, FuelGrade grade, int amount) {
+        int remaining = amount;
+        int kept = 0;
+        int size = resourceContainersList.size();
+        for (int i = 0; i < size; i++) {
+            if (remaining == 0 && kept == i) {
+                // Nothing left to take and nothing removed, so the rest stays where it is
+                return;
+            }
+            ResourceContainer container = resourceContainersList.get(i);
+            if (remaining > 0 && container.getType().equals(type) && (grade == null
+                    || ((FuelContainer) container).getFuelGrade().equals(grade))) {
+                int used = Math.min(remaining, container.getAmount());
+                container.setAmount(container.getAmount() - used);
+                updateTotals(container, -used);
+                remaining -= used;
+                if (container.getAmount() == 0) {
+                    continue;
+                }
             }
+            resourceContainersList.set(kept++, container);
         }
+        resourceContainersList.subList(kept, size).clear();
     }
 
     /**
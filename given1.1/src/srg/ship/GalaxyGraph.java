@@ -0,0 +1,470 @@
+package srg.ship;
+
+import srg.ports.PortNameIndex;
+import srg.ports.PortTable;
+import srg.ports.Position;
+import srg.ports.SpacePort;
+import srg.ports.SpatialIndex;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * GalaxyGraph class which holds, for each tier of navigation room, the ports every port can fly and jump to.
+ * The neighbours of each tier are found once, the first time the tier is asked for, and never change,
+ * so one graph can be shared by every ship on the same galaxy map.
+ * Maps larger than {@link #EAGER_THRESHOLD} find the neighbours of each port the first time that port is asked for instead,
+ * keeping at most {@link #ROW_CACHE_SIZE} of them, so a long-running server does not keep every port it has visited.
+ */
+public class GalaxyGraph {
+    /**
+     * Maps with more ports than this find neighbours one port at a time
+     */
+    public static final int EAGER_THRESHOLD = 1 << 20;
+    /**
+     * Most ports whose neighbours are kept when neighbours are found one port at a time
+     */
+    public static final int ROW_CACHE_SIZE = 1 << 16;
+
+    /**
+     * The galaxy map, which must not change after the graph is built
+     */
+    private List<SpacePort> ports;
+    /**
+     * Spatial index over the galaxy map, used to find the neighbours
+     */
+    private SpatialIndex spatialIndex;
+    /**
+     * The index of each port in the galaxy map, or null if the map is a port table which can find its own ports
+     */
+    private Map<SpacePort, Integer> indexes;
+    /**
+     * Index of the ports by name, or null before a name is first looked up
+     */
+    private volatile PortNameIndex nameIndex;
+    /**
+     * The ports each port can fly and jump to, by tier, or null before the tier is built
+     */
+    private AtomicReferenceArray<Adjacency[]> tiers =
+            new AtomicReferenceArray<>(RoomTier.values().length);
+    /**
+     * The ports some ports can fly and jump to, when the map is too large to build whole tiers, or null for smaller maps.
+     * Each tier and port has one slot, shared with others, and a row found later replaces the row in its slot.
+     */
+    private AtomicReferenceArray<CachedRow> rows;
+
+    /**
+     * Constructs galaxy graph over the galaxy map
+     * @param ports The galaxy map
+     */
+    public GalaxyGraph(List<SpacePort> ports) {
+        this(ports, SpatialIndex.of(ports));
+    }
+
+    /**
+     * Constructs galaxy graph over the galaxy map with an index which was already built for the map
+     * @param ports The galaxy map
+     * @param spatialIndex Spatial index over the galaxy map
+     */
+    public GalaxyGraph(List<SpacePort> ports, SpatialIndex spatialIndex) {
+        this(ports, spatialIndex, ports.size() > EAGER_THRESHOLD);
+    }
+
+    /**
+     * Constructs galaxy graph over the galaxy map, choosing how neighbours are found
+     * @param ports The galaxy map
+     * @param spatialIndex Spatial index over the galaxy map
+     * @param byPort If neighbours are found one port at a time instead of one tier at a time
+     */
+    GalaxyGraph(List<SpacePort> ports, SpatialIndex spatialIndex, boolean byPort) {
+        this(ports, spatialIndex, byPort ? ROW_CACHE_SIZE : 0);
+    }
+
+    /**
+     * Constructs galaxy graph over the galaxy map, choosing how many ports' neighbours are kept
+     * @param ports The galaxy map
+     * @param spatialIndex Spatial index over the galaxy map
+     * @param rowCacheSize Most ports whose neighbours are kept, a power of two, or 0 to find neighbours
+     *                     one tier at a time
+     */
+    GalaxyGraph(List<SpacePort> ports, SpatialIndex spatialIndex, int rowCacheSize) {
+        this.ports = ports;
+        this.spatialIndex = spatialIndex;
+        if (rowCacheSize > 0) {
+            rows = new AtomicReferenceArray<>(rowCacheSize);
+        }
+        if (!(ports instanceof PortTable)) {
+            indexes = new HashMap<>();
+            for (int i = 0; i < ports.size(); i++) {
+                indexes.putIfAbsent(ports.get(i), i);
+            }
+        }
+    }
+
+    /**
+     * Gets the galaxy map of the graph
+     * @return The galaxy map
+     */
+    public List<SpacePort> getPorts() {
+        return ports;
+    }
+
+    /**
+     * Gets the spatial index over the galaxy map
+     * @return Spatial index over the galaxy map
+     */
+    public SpatialIndex getSpatialIndex() {
+        return spatialIndex;
+    }
+
+    /**
+     * Gets the position of a port, without making a view of the port when the map is a port table
+     * @param index The index of the port
+     * @return The position of the port
+     */
+    public Position getPosition(int index) {
+        if (ports instanceof PortTable table) {
+            return table.getPosition(index);
+        }
+        return ports.get(index).getPosition();
+    }
+
+    /**
+     * Gets the index of the port in the galaxy map
+     * @param port The port to look for
+     * @return The index of the port, or -1 if the port is not in the galaxy map
+     */
+    public int indexOf(SpacePort port) {
+        if (indexes == null) {
+            return ports.indexOf(port);
+        }
+        Integer index = indexes.get(port);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Gets the index of the ports by name, building it the first time, so opening a map costs nothing for names
+     * @return Index of the ports of the galaxy map by name
+     */
+    public PortNameIndex getNameIndex() {
+        PortNameIndex index = nameIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = nameIndex;
+                if (index == null) {
+                    index = new PortNameIndex(ports);
+                    nameIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Gets the ports the port can fly to with a navigation room of the tier
+     * @param tier The tier of the navigation room
+     * @param port The index of the port
+     * @return The other ports within the maximum fly distance
+     */
+    public Neighbours getFlyNeighbours(RoomTier tier, int port) {
+        if (rows != null) {
+            return getRow(tier, port)[0];
+        }
+        return getAdjacencies(tier)[0].of(port);
+    }
+
+    /**
+     * Gets the ports the port can jump to with a navigation room of the tier
+     * @param tier The tier of the navigation room
+     * @param port The index of the port
+     * @return The ports within the maximum jump distance which are further than the maximum fly distance
+     */
+    public Neighbours getJumpNeighbours(RoomTier tier, int port) {
+        if (rows != null) {
+            return getRow(tier, port)[1];
+        }
+        return getAdjacencies(tier)[1].of(port);
+    }
+
+    /**
+     * Gets the fly and jump neighbours of every port for the tier, building them the first time
+     * @param tier The tier of the navigation room
+     * @return The fly and the jump adjacency of the tier
+     */
+    private Adjacency[] getAdjacencies(RoomTier tier) {
+        Adjacency[] adjacencies = tiers.get(tier.ordinal());
+        if (adjacencies == null) {
+            adjacencies = build(tier);
+        }
+        return adjacencies;
+    }
+
+    /**
+     * Finds the fly and jump neighbours of every port for the tier, unless another thread already has
+     * @param tier The tier of the navigation room
+     * @return The fly and the jump adjacency of the tier
+     */
+    private synchronized Adjacency[] build(RoomTier tier) {
+        Adjacency[] adjacencies = tiers.get(tier.ordinal());
+        if (adjacencies != null) {
+            return adjacencies;
+        }
+        Builder fly = new Builder(ports.size());
+        Builder jump = new Builder(ports.size());
+        for (int i = 0; i < ports.size(); i++) {
+            addNeighbours(tier, i, fly, jump);
+        }
+        adjacencies = new Adjacency[] {fly.build(), jump.build()};
+        tiers.set(tier.ordinal(), adjacencies);
+        return adjacencies;
+    }
+
+    /**
+     * Gets the fly and jump neighbours of one port for the tier, finding them again if they are not in the row cache
+     * @param tier The tier of the navigation room
+     * @param port The index of the port
+     * @return The fly and the jump neighbours of the port
+     */
+    private Neighbours[] getRow(RoomTier tier, int port) {
+        long key = ((long) tier.ordinal() << 32) | port;
+        int slot = (port * RoomTier.values().length + tier.ordinal()) & (rows.length() - 1);
+        CachedRow row = rows.get(slot);
+        if (row == null || row.key != key) {
+            Builder fly = new Builder(1);
+            Builder jump = new Builder(1);
+            addNeighbours(tier, port, fly, jump);
+            row = new CachedRow(key, new Neighbours[] {fly.build().of(0), jump.build().of(0)});
+            rows.set(slot, row);
+        }
+        return row.neighbours;
+    }
+
+    /**
+     * Finds the fly and jump neighbours of the port and adds them as the next port of the builders
+     * @param tier The tier of the navigation room
+     * @param port The index of the port
+     * @param fly Builder of the fly neighbours
+     * @param jump Builder of the jump neighbours
+     */
+    private void addNeighbours(RoomTier tier, int port, Builder fly, Builder jump) {
+        int maxFly = NavigationRoom.getMaximumFlyDistance(tier);
+        int maxJump = NavigationRoom.getMaximumJumpDistance(tier);
+        Position position = getPosition(port);
+        for (SpacePort other : spatialIndex.findWithin(position, maxJump)) {
+            int distance = position.distanceTo(other.getPosition());
+            int index = indexOf(other);
+            if (distance > maxFly) {
+                jump.add(index, distance);
+            } else if (index != port) {
+                fly.add(index, distance);
+            }
+        }
+        fly.endPort();
+        jump.endPort();
+    }
+
+    /**
+     * Neighbours class which lists the neighbours of one port, in the order of the galaxy map,
+     * with the distance to each of them
+     */
+    public static final class Neighbours {
+        /**
+         * The neighbours of every port of the adjacency this is part of
+         */
+        private final int[] targets;
+        /**
+         * The distances of every port of the adjacency this is part of
+         */
+        private final int[] distances;
+        /**
+         * Where the neighbours of the port start in the arrays
+         */
+        private final int from;
+        /**
+         * Where the neighbours of the port end in the arrays
+         */
+        private final int to;
+
+        /**
+         * Constructs neighbours from a part of the arrays
+         * @param targets The neighbours of every port of the adjacency
+         * @param distances The distances of every port of the adjacency
+         * @param from Where the neighbours of the port start
+         * @param to Where the neighbours of the port end
+         */
+        private Neighbours(int[] targets, int[] distances, int from, int to) {
+            this.targets = targets;
+            this.distances = distances;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Gets the number of neighbours
+         * @return Number of neighbours
+         */
+        public int size() {
+            return to - from;
+        }
+
+        /**
+         * Gets a neighbour
+         * @param k The number of the neighbour, from 0 to size - 1
+         * @return The index of the neighbour in the galaxy map
+         */
+        public int target(int k) {
+            return targets[from + k];
+        }
+
+        /**
+         * Gets the distance to a neighbour, which is also the TRITIUM needed to fly to it
+         * @param k The number of the neighbour, from 0 to size - 1
+         * @return The distance to the neighbour
+         */
+        public int distance(int k) {
+            return distances[from + k];
+        }
+
+        /**
+         * Finds a neighbour
+         * @param target The index of the port in the galaxy map
+         * @return The number of the neighbour, or -1 if the port is not a neighbour
+         */
+        public int find(int target) {
+            int found = Arrays.binarySearch(targets, from, to, target);
+            return found < 0 ? -1 : found - from;
+        }
+    }
+
+    /**
+     * Adjacency class which holds the neighbours of every port in two arrays,
+     * with the neighbours of each port one after the other
+     */
+    private static class Adjacency {
+        /**
+         * Where the neighbours of each port start, and the number of neighbours at the end
+         */
+        private final int[] offsets;
+        /**
+         * The index of each neighbour
+         */
+        private final int[] targets;
+        /**
+         * The distance to each neighbour
+         */
+        private final int[] distances;
+
+        /**
+         * Constructs adjacency from its arrays
+         * @param offsets Where the neighbours of each port start, and the number of neighbours at the end
+         * @param targets The index of each neighbour
+         * @param distances The distance to each neighbour
+         */
+        private Adjacency(int[] offsets, int[] targets, int[] distances) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.distances = distances;
+        }
+
+        /**
+         * Gets the neighbours of the port
+         * @param port The index of the port
+         * @return The neighbours of the port
+         */
+        Neighbours of(int port) {
+            return new Neighbours(targets, distances, offsets[port], offsets[port + 1]);
+        }
+    }
+
+    /**
+     * CachedRow class which holds the neighbours of one port for one tier in a slot of the row cache
+     */
+    private static class CachedRow {
+        /**
+         * The tier in the high bits and the index of the port in the low bits
+         */
+        private final long key;
+        /**
+         * The fly and the jump neighbours of the port
+         */
+        private final Neighbours[] neighbours;
+
+        /**
+         * Constructs cached row of the neighbours
+         * @param key The tier and the index of the port
+         * @param neighbours The fly and the jump neighbours of the port
+         */
+        CachedRow(long key, Neighbours[] neighbours) {
+            this.key = key;
+            this.neighbours = neighbours;
+        }
+    }
+
+    /**
+     * Builder class which collects the edges of the ports in order
+     */
+    private static class Builder {
+        /**
+         * The first edge of each port
+         */
+        private int[] offsets;
+        /**
+         * The number of ports whose edges are collected
+         */
+        private int portCount;
+        /**
+         * The neighbours collected so far
+         */
+        private int[] targets = new int[16];
+        /**
+         * The distances collected so far
+         */
+        private int[] distances = new int[16];
+        /**
+         * The number of edges collected
+         */
+        private int edgeCount;
+
+        /**
+         * Constructs builder for the number of ports
+         * @param portCount Number of ports
+         */
+        Builder(int portCount) {
+            offsets = new int[portCount + 1];
+        }
+
+        /**
+         * Adds an edge to the current port
+         * @param target The index of the neighbour
+         * @param distance The distance to the neighbour
+         */
+        void add(int target, int distance) {
+            if (edgeCount == targets.length) {
+                targets = Arrays.copyOf(targets, edgeCount * 2);
+                distances = Arrays.copyOf(distances, edgeCount * 2);
+            }
+            targets[edgeCount] = target;
+            distances[edgeCount] = distance;
+            edgeCount++;
+        }
+
+        /**
+         * Finishes the edges of the current port and moves on to the next port
+         */
+        void endPort() {
+            offsets[++portCount] = edgeCount;
+        }
+
+        /**
+         * Builds the adjacency from the edges collected
+         * @return The adjacency, with arrays trimmed to the number of edges
+         */
+        Adjacency build() {
+            return new Adjacency(offsets, Arrays.copyOf(targets, edgeCount),
+                    Arrays.copyOf(distances, edgeCount));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package srg.ship;
+
+/**
+ * NavResult enum which tells how an attempt to fly or jump ended, so a failed attempt costs no exception
+ */
+public enum NavResult {
+    /**
+     * The ship moved to the port
+     */
+    OK,
+    /**
+     * There is no port with the name
+     */
+    NO_SUCH_PORT,
+    /**
+     * The port is not in range of the current port
+     */
+    OUT_OF_RANGE,
+    /**
+     * The navigation room or the cargoHold is broken
+     */
+    BROKEN,
+    /**
+     * The cargoHold does not have the fuel needed
+     */
+    NOT_ENOUGH_FUEL;
+
+    /**
+     * Gives information about whether the ship moved
+     * @return If the ship moved returns true, and if not returns false
+     */
+    public boolean isOk() {
+        return this == OK;
+    }
+}
@@ -1,8 +1,10 @@
 package srg.ship;
 
 import srg.exceptions.NoPathException;
+import srg.metrics.Metrics;
 import srg.ports.ShipYard;
 import srg.ports.SpacePort;
+import srg.ports.SpatialIndex;
 import srg.ports.Store;
 import srg.resources.FuelGrade;
 
@@ -25,6 +27,18 @@ public class NavigationRoom extends Room implements Damageable {
      * Current port of the ship
      */
     private SpacePort currentPort;
+    /**
+     * Index of the current port in the galaxyMap
+     */
+    private int currentIndex;
+    /**
+     * The ports each port of the galaxyMap can fly and jump to
+     */
+    private GalaxyGraph galaxyGraph;
+    /**
+     * Where the fuel used by flying and jumping is recorded, which is the registry of the ship of the room
+     */
+    private Metrics metrics = new Metrics();
 
     /**
      * Constructs NavigationRoom with tier and galaxMap
@@ -32,10 +46,32 @@ public class NavigationRoom extends Room implements Damageable {
      * @param galaxyMap Galaxy map to navigate
      */
     public NavigationRoom(RoomTier roomTier, List<SpacePort> galaxyMap) {
+        this(roomTier, new GalaxyGraph(galaxyMap));
+    }
+
+    /**
+     * Constructs NavigationRoom with tier, galaxyMap and an index which was already built for the galaxyMap
+     * @param roomTier Room tier of the Navigation Room
+     * @param galaxyMap Galaxy map to navigate
+     * @param spatialIndex Spatial index over the galaxyMap, which can be shared between ships
+     */
+    public NavigationRoom(RoomTier roomTier, List<SpacePort> galaxyMap,
+                          SpatialIndex spatialIndex) {
+        this(roomTier, new GalaxyGraph(galaxyMap, spatialIndex));
+    }
+
+    /**
+     * Constructs NavigationRoom with tier and a graph which was already built for the galaxyMap
+     * @param roomTier Room tier of the Navigation Room
+     * @param galaxyGraph Graph of the galaxy map to navigate, which can be shared between ships
+     */
+    public NavigationRoom(RoomTier roomTier, GalaxyGraph galaxyGraph) {
         super(roomTier);
         this.roomTier = roomTier;
-        this.galaxyMap = galaxyMap;
+        this.galaxyMap = galaxyGraph.getPorts();
+        this.galaxyGraph = galaxyGraph;
         this.currentPort = galaxyMap.get(0);
+        this.currentIndex = 0;
     }
 
     /**
@@ -47,18 +83,40 @@ public class NavigationRoom extends Room implements Damageable {
     }
 
     /**
-     * Calculates the distance from other ports and compares with the maximum fly distance to find if the port is able to fly from the current port.
+     * Gets the spatial index over the galaxyMap
+     * @return Spatial index used for the range queries
+     */
+    public SpatialIndex getSpatialIndex() {
+        return galaxyGraph.getSpatialIndex();
+    }
+
+    /**
+     * Gets the graph of the galaxyMap
+     * @return Graph used for the range queries
+     */
+    public GalaxyGraph getGalaxyGraph() {
+        return galaxyGraph;
+    }
+
+    /**
+     * Finds the ports within the maximum fly distance from the current port.
      * @return List of the ports which is in the fly range
      */
     public List<SpacePort> getPortsInFlyRange() {
-        List<SpacePort> portsInFlyRange = new ArrayList<>();
-        for (SpacePort s : galaxyMap) {
-            if (getCurrentPort().getPosition().distanceTo(s.getPosition())
-                    <= getMaximumFlyDistance() && !s.equals(getCurrentPort())) {
-                portsInFlyRange.add(s);
-            }
+        return getPorts(galaxyGraph.getFlyNeighbours(getTier(), currentIndex));
+    }
+
+    /**
+     * Gets the ports of the neighbours
+     * @param neighbours The neighbours of the current port
+     * @return List of the neighbouring ports, in the order of the galaxyMap
+     */
+    private List<SpacePort> getPorts(GalaxyGraph.Neighbours neighbours) {
+        List<SpacePort> ports = new ArrayList<>(neighbours.size());
+        for (int k = 0; k < neighbours.size(); k++) {
+            ports.add(galaxyMap.get(neighbours.target(k)));
         }
-        return portsInFlyRange;
+        return ports;
     }
 
     /**
@@ -66,8 +124,17 @@ public class NavigationRoom extends Room implements Damageable {
      * @return Maximum distance of the ship for flying
      */
     public int getMaximumFlyDistance() {
+        return getMaximumFlyDistance(getTier());
+    }
+
+    /**
+     * Returns the maximum fly distance of a navigation room of the tier
+     * @param tier Tier of the navigation room
+     * @return Maximum distance of the ship for flying
+     */
+    static int getMaximumFlyDistance(RoomTier tier) {
         int maxFlyDistance = 0;
-        switch (getTier()) {
+        switch (tier) {
             case BASIC:
                 maxFlyDistance = 200;
                 break;
@@ -83,18 +150,11 @@ public class NavigationRoom extends Room implements Damageable {
 
 
     /**
-     * Calculates the distance from other ports and compares with the maximum jump distance to find if the port is able to jump from the current port.
+     * Finds the ports within the maximum jump distance from the current port, which are further than the maximum fly distance.
      * @return List of the ports which is in the jump range
      */
     public List<SpacePort> getPortsInJumpRange() {
-        List<SpacePort> portsInJumpRange = new ArrayList<>();
-        for (SpacePort s : galaxyMap) {
-            int amountFuel = getFuelNeeded(s);
-            if (amountFuel <= getMaximumJumpDistance() && amountFuel > getMaximumFlyDistance()) {
-                portsInJumpRange.add(s);
-            }
-        }
-        return portsInJumpRange;
+        return getPorts(galaxyGraph.getJumpNeighbours(getTier(), currentIndex));
     }
 
     /**
@@ -102,8 +162,17 @@ public class NavigationRoom extends Room implements Damageable {
      * @return Maximum distance of the ship for jumping
      */
     public int getMaximumJumpDistance() {
+        return getMaximumJumpDistance(getTier());
+    }
+
+    /**
+     * Returns the maximum jump distance of a navigation room of the tier
+     * @param tier Tier of the navigation room
+     * @return Maximum distance of the ship for jumping
+     */
+    static int getMaximumJumpDistance(RoomTier tier) {
         int maxJumpDistance = 0;
-        switch (getTier()) {
+        switch (tier) {
             case BASIC:
                 maxJumpDistance = 500;
                 break;
@@ -126,8 +195,10 @@ public class NavigationRoom extends Room implements Damageable {
         List<String> actionList = new ArrayList<>();
         String result = "";
         int amountFuel = 0;
-        for (SpacePort s : getPortsInFlyRange()) {
-            amountFuel = getFuelNeeded(s);
+        GalaxyGraph.Neighbours fly = galaxyGraph.getFlyNeighbours(getTier(), currentIndex);
+        for (int k = 0; k < fly.size(); k++) {
+            SpacePort s = galaxyMap.get(fly.target(k));
+            amountFuel = fly.distance(k);
             result = "fly to \"" + s.getName() + "\": PORT: \"" + s.getName()
                     + "\" " + s.getClass().getSimpleName() + " at " + s.getPosition()
                     + " [COST: " + amountFuel + " TRITIUM FUEL]";
@@ -185,26 +256,37 @@ public class NavigationRoom extends Room implements Damageable {
      */
     public void flyTo(String portName, CargoHold cargoHold) throws
             InsufficientResourcesException, NoPathException {
-        int count = 0;
-        for (SpacePort s : getPortsInFlyRange()) {
-            if (s.equals(getSpacePortFromName(portName))) {
-                if (cargoHold.isBroken() || this.isBroken()
-                        || (cargoHold.getTotalAmountByType(FuelGrade.TRITIUM))
-                        < getFuelNeeded(s)) {
-                    throw new InsufficientResourcesException("Error Here");
-                } else {
-                    cargoHold.consumeResource(FuelGrade.TRITIUM, getFuelNeeded(s));
-                    currentPort = s;
-                    cargoHold.damage();
-                    this.damage();
-                }
-                break;
-            }
-            count++;
+        throwIfFailed(tryFlyTo(portName, cargoHold));
+    }
+
+    /**
+     * Moves the ship to the destination as flyTo does, but tells how the attempt ended instead of throwing
+     * @param portName The port name of the destination
+     * @param cargoHold The cargoHold object which contains the resources
+     * @return OK if the ship moved, or why it did not, checking the port before the rooms and the fuel
+     */
+    public NavResult tryFlyTo(String portName, CargoHold cargoHold) {
+        GalaxyGraph.Neighbours fly = galaxyGraph.getFlyNeighbours(getTier(), currentIndex);
+        int index = galaxyGraph.getNameIndex().indexOf(portName);
+        if (index < 0) {
+            return NavResult.NO_SUCH_PORT;
         }
-        if (count == getPortsInFlyRange().size()) {
-            throw new NoPathException("Error Here");
+        int k = fly.find(index);
+        if (k < 0) {
+            return NavResult.OUT_OF_RANGE;
+        }
+        int fuelNeeded = fly.distance(k);
+        if (cargoHold.isBroken() || this.isBroken()) {
+            return NavResult.BROKEN;
+        }
+        if (!cargoHold.tryConsumeResource(FuelGrade.TRITIUM, fuelNeeded)) {
+            return NavResult.NOT_ENOUGH_FUEL;
         }
+        metrics.recordFuel(FuelGrade.TRITIUM, fuelNeeded);
+        moveTo(fly.target(k));
+        cargoHold.damage();
+        this.damage();
+        return NavResult.OK;
     }
 
     /**
@@ -216,27 +298,80 @@ public class NavigationRoom extends Room implements Damageable {
      */
     public void jumpTo(String portName, CargoHold cargoHold) throws
             InsufficientResourcesException, NoPathException  {
-        int count = 0;
-        for (SpacePort s : getPortsInJumpRange()) {
-            if (s.equals(getSpacePortFromName(portName))) {
-                if (cargoHold.isBroken() || this.isBroken()
-                        || (cargoHold.getTotalAmountByType(FuelGrade.HYPERDRIVE_CORE)) <= 0) {
-                    throw new InsufficientResourcesException("Error Here");
-                } else {
-                    cargoHold.consumeResource(FuelGrade.HYPERDRIVE_CORE, 1);
-                    currentPort = s;
-                    cargoHold.damage();
-                    this.damage();
-                }
-                break;
-            }
-            count++;
+        throwIfFailed(tryJumpTo(portName, cargoHold));
+    }
+
+    /**
+     * Moves the ship to the destination as jumpTo does, but tells how the attempt ended instead of throwing
+     * @param portName The port name of the destination
+     * @param cargoHold The cargoHold object which contains the resources
+     * @return OK if the ship moved, or why it did not, checking the port before the rooms and the fuel
+     */
+    public NavResult tryJumpTo(String portName, CargoHold cargoHold) {
+        GalaxyGraph.Neighbours jump = galaxyGraph.getJumpNeighbours(getTier(), currentIndex);
+        int index = galaxyGraph.getNameIndex().indexOf(portName);
+        if (index < 0) {
+            return NavResult.NO_SUCH_PORT;
         }
-        if (count == getPortsInJumpRange().size()) {
-            throw new NoPathException("Error Here");
+        int k = jump.find(index);
+        if (k < 0) {
+            return NavResult.OUT_OF_RANGE;
+        }
+        if (cargoHold.isBroken() || this.isBroken()) {
+            return NavResult.BROKEN;
+        }
+        if (!cargoHold.tryConsumeResource(FuelGrade.HYPERDRIVE_CORE, 1)) {
+            return NavResult.NOT_ENOUGH_FUEL;
+        }
+        metrics.recordFuel(FuelGrade.HYPERDRIVE_CORE, 1);
+        moveTo(jump.target(k));
+        cargoHold.damage();
+        this.damage();
+        return NavResult.OK;
+    }
+
+    /**
+     * Throws the exception flyTo and jumpTo have always thrown for a failed attempt
+     * @param result How the attempt ended
+     * @throws InsufficientResourcesException If a room is broken or there is not enough fuel
+     * @throws NoPathException If the port cannot be found or is out of range
+     */
+    private static void throwIfFailed(NavResult result)
+            throws InsufficientResourcesException, NoPathException {
+        switch (result) {
+            case NO_SUCH_PORT, OUT_OF_RANGE -> throw new NoPathException("Error Here");
+            case BROKEN, NOT_ENOUGH_FUEL -> throw new InsufficientResourcesException("Error Here");
+            default -> {
+            }
         }
     }
 
+    /**
+     * Sets where the fuel used is recorded
+     * @param metrics The registry to record into
+     */
+    void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Gets the index of the current port in the galaxyMap
+     * @return Index of the current port
+     */
+    int getCurrentIndex() {
+        return currentIndex;
+    }
+
+    /**
+     * Moves to the port and records the change
+     * @param index The index of the port in the galaxyMap
+     */
+    void moveTo(int index) {
+        currentIndex = index;
+        currentPort = galaxyMap.get(index);
+        changed();
+    }
+
     /**
      * Finds the port object with the String type name
      * @param name The name of the port
@@ -244,12 +379,30 @@ public class NavigationRoom extends Room implements Damageable {
      * @throws NoPathException If there is no Spaceport that matches the input name
      */
     public SpacePort getSpacePortFromName(String name) throws NoPathException {
-        for (SpacePort s : galaxyMap) {
-            if (name.equals(s.getName())) {
-                return s;
-            }
+        SpacePort port = findSpacePort(name);
+        if (port == null) {
+            throw new NoPathException("Error Here");
         }
-        throw new NoPathException("Error Here");
+        return port;
+    }
+
+    /**
+     * Finds the port object with the String type name, without throwing when there is none
+     * @param name The name of the port
+     * @return The Spaceport which has the same name with the input, or null if there is none
+     */
+    public SpacePort findSpacePort(String name) {
+        return galaxyGraph.getNameIndex().get(name);
+    }
+
+    /**
+     * Finds the ports whose names start with what has been typed so far, ignoring case
+     * @param prefix The start of the name
+     * @param limit The most ports to find
+     * @return The first port with each matching name, in the order of the names
+     */
+    public List<SpacePort> completePortName(String prefix, int limit) {
+        return galaxyGraph.getNameIndex().findByPrefix(prefix, limit);
     }
 
     /**
@@ -23,6 +23,10 @@ public class Room implements Damageable {
      * The room object
      */
     private Room room;
+    /**
+     * Counts the changes to the room, so views of it can tell when they are out of date
+     */
+    private long version;
 
     /**
      * Constructs default Room object with is BASIC tier and sets all settings as the room of BASIC tier
@@ -48,6 +52,42 @@ public class Room implements Damageable {
      */
     public void damage() {
         this.health = this.health - newDamageRate;
+        changed();
+    }
+
+    /**
+     * Gets the health of the room in points rather than as a percentage
+     * @return Health points of the room
+     */
+    int getHealthPoints() {
+        return health;
+    }
+
+    /**
+     * Sets the tier and health of the room, as when restoring a snapshot
+     * @param tier Tier of the room
+     * @param healthPoints Health points of the room
+     */
+    void restore(RoomTier tier, int healthPoints) {
+        this.tier = tier;
+        setDamageRate(tier.damageMultiplier * DAMAGE_RATE);
+        this.health = healthPoints;
+        changed();
+    }
+
+    /**
+     * Gets the version of the room, which is increased by every change to its tier, health or contents
+     * @return Version of the room
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Records that the room has changed
+     */
+    protected void changed() {
+        version++;
     }
 
     /**
@@ -82,6 +122,7 @@ public class Room implements Damageable {
      */
     public void resetHealth() {
         this.health = HEALTH_MULTIPLIER * getTier().healthMultiplier;
+        changed();
     }
 
     /**
@@ -0,0 +1,126 @@
+package srg.ship;
+
+import srg.exceptions.InsufficientResourcesException;
+import srg.exceptions.NoPathException;
+import srg.ports.SpacePort;
+import srg.resources.FuelGrade;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Route class which holds the hops planned by the {@link RoutePlanner}
+ */
+public class Route {
+    /**
+     * The port reached by each hop
+     */
+    private List<SpacePort> ports = new ArrayList<>();
+    /**
+     * The fuel used by each hop, TRITIUM for flying and HYPERDRIVE_CORE for jumping
+     */
+    private List<FuelGrade> fuelGrades = new ArrayList<>();
+    /**
+     * The amount of the fuel used by each hop
+     */
+    private List<Integer> fuelAmounts = new ArrayList<>();
+    /**
+     * The cost of the route used by the planner
+     */
+    private long cost;
+
+    /**
+     * Adds a hop at the start of the route
+     * @param port The port reached by the hop
+     * @param grade The fuel used by the hop
+     * @param amount The amount of the fuel used by the hop
+     */
+    void addFirst(SpacePort port, FuelGrade grade, int amount) {
+        ports.add(0, port);
+        fuelGrades.add(0, grade);
+        fuelAmounts.add(0, amount);
+    }
+
+    /**
+     * Sets the cost of the route
+     * @param cost The cost of the route used by the planner
+     */
+    void setCost(long cost) {
+        this.cost = cost;
+    }
+
+    /**
+     * Gets the ports reached by each hop, ending with the destination
+     * @return List of the ports of the route
+     */
+    public List<SpacePort> getPorts() {
+        return ports;
+    }
+
+    /**
+     * Gets the fuel used by each hop
+     * @return List of the fuel grades of the route
+     */
+    public List<FuelGrade> getFuelGrades() {
+        return fuelGrades;
+    }
+
+    /**
+     * Gets the cost of the route, where flying costs its TRITIUM and jumping costs the jump cost of the planner
+     * @return The cost of the route
+     */
+    public long getCost() {
+        return cost;
+    }
+
+    /**
+     * Calculates the total amount of the fuel of the grade needed to follow the route
+     * @param grade The grade of the fuel
+     * @return Total amount of the fuel of the grade
+     */
+    public int getFuelNeeded(FuelGrade grade) {
+        int fuelNeeded = 0;
+        for (int i = 0; i < fuelGrades.size(); i++) {
+            if (fuelGrades.get(i).equals(grade)) {
+                fuelNeeded += fuelAmounts.get(i);
+            }
+        }
+        return fuelNeeded;
+    }
+
+    /**
+     * Moves the ship along the route, flying or jumping each hop
+     * @param navigationRoom The navigation room of the ship
+     * @param cargoHold The cargoHold which contains the fuel
+     * @throws InsufficientResourcesException If a hop cannot be made due to lack of fuel or a broken room
+     * @throws NoPathException If a hop is no longer in range of the navigation room
+     */
+    public void follow(NavigationRoom navigationRoom, CargoHold cargoHold)
+            throws InsufficientResourcesException, NoPathException {
+        for (int i = 0; i < ports.size(); i++) {
+            if (fuelGrades.get(i).equals(FuelGrade.TRITIUM)) {
+                navigationRoom.flyTo(ports.get(i).getName(), cargoHold);
+            } else {
+                navigationRoom.jumpTo(ports.get(i).getName(), cargoHold);
+            }
+        }
+    }
+
+    /**
+     * Gives the hops of the route
+     * @return The hops of the route in String type
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("ROUTE: " + ports.size() + " hops, "
+                + getFuelNeeded(FuelGrade.TRITIUM) + " TRITIUM, "
+                + getFuelNeeded(FuelGrade.HYPERDRIVE_CORE) + " HYPERDRIVE_CORE");
+        for (int i = 0; i < ports.size(); i++) {
+            String verb = fuelGrades.get(i).equals(FuelGrade.TRITIUM) ? "fly to" : "jump to";
+            result.append("\n    ").append(verb).append(" \"").append(ports.get(i).getName())
+                    .append("\" [COST: ").append(fuelAmounts.get(i)).append(" ")
+                    .append(fuelGrades.get(i)).append("]");
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,193 @@
+package srg.ship;
+
+import srg.exceptions.NoPathException;
+import srg.ports.Position;
+import srg.ports.SpacePort;
+import srg.resources.FuelGrade;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * RoutePlanner class which finds the cheapest multi-hop route from the current port of a navigation room.
+ * Flying costs the TRITIUM it uses and jumping costs the jump cost of the planner,
+ * both limited by the current tier of the navigation room.
+ */
+public class RoutePlanner {
+    /**
+     * The navigation room to plan for
+     */
+    private NavigationRoom navigationRoom;
+    /**
+     * The cost of a jump, in TRITIUM
+     */
+    private int jumpCost;
+
+    /**
+     * Constructs route planner which values a jump as much as the longest flight of the navigation room
+     * @param navigationRoom The navigation room to plan for
+     */
+    public RoutePlanner(NavigationRoom navigationRoom) {
+        this(navigationRoom, navigationRoom.getMaximumFlyDistance());
+    }
+
+    /**
+     * Constructs route planner with the cost of a jump
+     * @param navigationRoom The navigation room to plan for
+     * @param jumpCost The cost of a jump, in TRITIUM
+     * @throws IllegalArgumentException If the jump cost is negative
+     */
+    public RoutePlanner(NavigationRoom navigationRoom, int jumpCost) {
+        if (jumpCost < 0) {
+            throw new IllegalArgumentException("Jump cost must not be negative");
+        }
+        this.navigationRoom = navigationRoom;
+        this.jumpCost = jumpCost;
+    }
+
+    /**
+     * Plans the cheapest route to the named port
+     * @param portName The name of the destination
+     * @return The cheapest route from the current port to the destination
+     * @throws NoPathException If there is no port with the name, or it cannot be reached
+     */
+    public Route planRoute(String portName) throws NoPathException {
+        return planRoute(navigationRoom.getSpacePortFromName(portName));
+    }
+
+    /**
+     * Plans the cheapest route to the port with A* search, using the straight line distance as the heuristic.
+     * Ports are searched by their index in the galaxy map, so a port table makes no views of the ports it passes.
+     * @param destination The destination port
+     * @return The cheapest route from the current port to the destination
+     * @throws NoPathException If the destination cannot be reached
+     */
+    public Route planRoute(SpacePort destination) throws NoPathException {
+        GalaxyGraph galaxyGraph = navigationRoom.getGalaxyGraph();
+        RoomTier tier = navigationRoom.getTier();
+        int maxFly = navigationRoom.getMaximumFlyDistance();
+        int maxJump = navigationRoom.getMaximumJumpDistance();
+        // Ports sit on whole coordinates, so a flight costs at least half its straight distance,
+        // and a jump covers less than maxJump + 1, so no hop is cheaper than this rate
+        double rate = Math.min(0.5, jumpCost / (maxJump + 1.0));
+        Position goal = destination.getPosition();
+        int target = galaxyGraph.indexOf(destination);
+        if (target < 0) {
+            throw new NoPathException("No route to " + destination.getName());
+        }
+
+        Map<Integer, Long> costs = new HashMap<>();
+        Map<Integer, Integer> previous = new HashMap<>();
+        PriorityQueue<Step> frontier = new PriorityQueue<>();
+        int start = navigationRoom.getCurrentIndex();
+        costs.put(start, 0L);
+        frontier.add(new Step(start, 0, rate * straightDistance(galaxyGraph.getPosition(start), goal)));
+
+        while (!frontier.isEmpty()) {
+            Step step = frontier.poll();
+            if (step.cost > costs.get(step.port)) {
+                continue;
+            }
+            if (step.port == target) {
+                return buildRoute(galaxyGraph, start, target, previous, step.cost, maxFly);
+            }
+            GalaxyGraph.Neighbours fly = galaxyGraph.getFlyNeighbours(tier, step.port);
+            GalaxyGraph.Neighbours jump = galaxyGraph.getJumpNeighbours(tier, step.port);
+            for (GalaxyGraph.Neighbours hops : new GalaxyGraph.Neighbours[] {fly, jump}) {
+                for (int k = 0; k < hops.size(); k++) {
+                    int next = hops.target(k);
+                    long cost = step.cost + (hops == fly ? hops.distance(k) : jumpCost);
+                    Long known = costs.get(next);
+                    if (known == null || cost < known) {
+                        costs.put(next, cost);
+                        previous.put(next, step.port);
+                        frontier.add(new Step(next, cost,
+                                cost + rate * straightDistance(galaxyGraph.getPosition(next), goal)));
+                    }
+                }
+            }
+        }
+        throw new NoPathException("No route to " + destination.getName());
+    }
+
+    /**
+     * Builds the route by walking back from the destination
+     * @param galaxyGraph The graph which was searched
+     * @param start The index of the port the route starts from
+     * @param destination The index of the destination port
+     * @param previous The index of the port each port was reached from
+     * @param cost The cost of the route
+     * @param maxFly The maximum fly distance
+     * @return The route from the start to the destination
+     */
+    private Route buildRoute(GalaxyGraph galaxyGraph, int start, int destination,
+                             Map<Integer, Integer> previous, long cost, int maxFly) {
+        Route route = new Route();
+        route.setCost(cost);
+        for (int port = destination; port != start; port = previous.get(port)) {
+            int distance = galaxyGraph.getPosition(previous.get(port))
+                    .distanceTo(galaxyGraph.getPosition(port));
+            SpacePort hop = galaxyGraph.getPorts().get(port);
+            if (distance <= maxFly) {
+                route.addFirst(hop, FuelGrade.TRITIUM, distance);
+            } else {
+                route.addFirst(hop, FuelGrade.HYPERDRIVE_CORE, 1);
+            }
+        }
+        return route;
+    }
+
+    /**
+     * Calculates the straight line distance without flooring it
+     * @param from The position to measure from
+     * @param to The position to measure to
+     * @return The straight line distance between the positions
+     */
+    private static double straightDistance(Position from, Position to) {
+        double dx = to.x - from.x;
+        double dy = to.y - from.y;
+        double dz = to.z - from.z;
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    /**
+     * Step class which is a port waiting in the search frontier
+     */
+    private static class Step implements Comparable<Step> {
+        /**
+         * The index of the port reached
+         */
+        private final int port;
+        /**
+         * The cost to reach the port
+         */
+        private final long cost;
+        /**
+         * The cost plus the heuristic estimate to the destination
+         */
+        private final double estimate;
+
+        /**
+         * Constructs step of the search
+         * @param port The index of the port reached
+         * @param cost The cost to reach the port
+         * @param estimate The cost plus the heuristic estimate to the destination
+         */
+        Step(int port, long cost, double estimate) {
+            this.port = port;
+            this.cost = cost;
+            this.estimate = estimate;
+        }
+
+        /**
+         * Orders steps by their estimate
+         * @param other The step to compare with
+         * @return Negative, zero or positive as this estimate is lower, equal or higher
+         */
+        @Override
+        public int compareTo(Step other) {
+            return Double.compare(estimate, other.estimate);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import srg.cli.given.ShipCommand;
 import srg.exceptions.InsufficientCapcaityException;
 import srg.exceptions.InsufficientResourcesException;
 import srg.exceptions.NoPathException;
+import srg.metrics.Metrics;
 import srg.resources.FuelContainer;
 import srg.resources.FuelGrade;
 import srg.resources.ResourceContainer;
@@ -13,6 +14,7 @@ import srg.resources.ResourceType;
 import srg.ports.*;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -49,6 +51,22 @@ public class Ship {
      * The object of the navigation room
      */
     private NavigationRoom navigationRoom;
+    /**
+     * The actions last built, or null before they are first built
+     */
+    private List<String> actions;
+    /**
+     * The version of the cargoHold the actions were built for
+     */
+    private long actionsCargoHoldVersion;
+    /**
+     * The version of the navigation room the actions were built for
+     */
+    private long actionsNavigationRoomVersion;
+    /**
+     * Where the commands of the ship are recorded
+     */
+    private Metrics metrics = new Metrics();
 
     /**
      * Construct a ship with inputs
@@ -61,16 +79,82 @@ public class Ship {
      */
     public Ship(String name, String owner, String id, RoomTier cargoHoldTier,
                 RoomTier navigationRoomTier, List<SpacePort> galaxyMap) {
+        this(name, owner, id, cargoHoldTier, navigationRoomTier, galaxyMap,
+                SpatialIndex.of(galaxyMap));
+    }
+
+    /**
+     * Construct a ship with inputs and a spatial index shared with other ships on the same galaxy map
+     * @param name Name of the ship
+     * @param owner Names of the owner
+     * @param id Id of the ship
+     * @param cargoHoldTier Tier of the cargoHold
+     * @param navigationRoomTier Tier of the navigationRoom
+     * @param galaxyMap Galaxy map that ship can use to navigate
+     * @param spatialIndex Spatial index over the galaxy map
+     */
+    public Ship(String name, String owner, String id, RoomTier cargoHoldTier,
+                RoomTier navigationRoomTier, List<SpacePort> galaxyMap,
+                SpatialIndex spatialIndex) {
+        this(name, owner, id, cargoHoldTier, navigationRoomTier,
+                new GalaxyGraph(galaxyMap, spatialIndex));
+    }
+
+    /**
+     * Construct a ship with inputs and a graph shared with other ships on the same galaxy map
+     * @param name Name of the ship
+     * @param owner Names of the owner
+     * @param id Id of the ship
+     * @param cargoHoldTier Tier of the cargoHold
+     * @param navigationRoomTier Tier of the navigationRoom
+     * @param galaxyGraph Graph of the galaxy map that ship can use to navigate
+     */
+    public Ship(String name, String owner, String id, RoomTier cargoHoldTier,
+                RoomTier navigationRoomTier, GalaxyGraph galaxyGraph) {
         this.name = name;
         this.owner = owner;
         this.id = id;
         this.cargoHoldTier = cargoHoldTier;
         this.navigationRoomTier = navigationRoomTier;
         cargoHold = new CargoHold(cargoHoldTier);
-        navigationRoom = new NavigationRoom(navigationRoomTier, galaxyMap);
-        cargoHold.getResources().add(new ResourceContainer(ResourceType.REPAIR_KIT, 5));
-        cargoHold.getResources().add(new FuelContainer(FuelGrade.TRITIUM, 100));
-        cargoHold.getResources().add(new FuelContainer(FuelGrade.HYPERDRIVE_CORE, 5));
+        navigationRoom = new NavigationRoom(navigationRoomTier, galaxyGraph);
+        navigationRoom.setMetrics(metrics);
+        cargoHold.addResource(new ResourceContainer(ResourceType.REPAIR_KIT, 5));
+        cargoHold.addResource(new FuelContainer(FuelGrade.TRITIUM, 100));
+        cargoHold.addResource(new FuelContainer(FuelGrade.HYPERDRIVE_CORE, 5));
+    }
+
+    /**
+     * Gets the cargoHold of the ship
+     * @return The cargoHold object
+     */
+    public CargoHold getCargoHold() {
+        return cargoHold;
+    }
+
+    /**
+     * Gets the navigation room of the ship
+     * @return The navigation room object
+     */
+    public NavigationRoom getNavigationRoom() {
+        return navigationRoom;
+    }
+
+    /**
+     * Gets where the commands of the ship are recorded
+     * @return The metrics registry of the ship
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets where the commands of the ship and the fuel it uses are recorded, instead of its own registry
+     * @param metrics The registry to record into
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+        navigationRoom.setMetrics(metrics);
     }
 
     /**
@@ -101,32 +185,49 @@ public class Ship {
     }
 
     /**
-     * Returns the list of actions this ship can perform
-     * @return List of actions of this ship can perform
+     * Returns the list of actions this ship can perform.
+     * The list is built again only when the cargoHold or navigation room has changed since it was last built.
+     * @return Unmodifiable list of actions of this ship can perform
      */
     public List<String> getActions() {
-        List<String> actionList = new ArrayList<>();
-        actionList.addAll(cargoHold.getActions());
-        actionList.addAll(navigationRoom.getActions());
-        return actionList;
+        if (actions == null || actionsCargoHoldVersion != cargoHold.getVersion()
+                || actionsNavigationRoomVersion != navigationRoom.getVersion()) {
+            List<String> actionList = new ArrayList<>();
+            actionList.addAll(cargoHold.getActions());
+            actionList.addAll(navigationRoom.getActions());
+            actions = Collections.unmodifiableList(actionList);
+            actionsCargoHoldVersion = cargoHold.getVersion();
+            actionsNavigationRoomVersion = navigationRoom.getVersion();
+        }
+        return actions;
     }
 
     /**
      * This method is provided as it interfaces with the command line interface.
+     * How long the command takes and whether it fails is recorded in the metrics of the ship.
      *
      * @param ioHandler Handles IO
      * @param command   A command to the ship
+     * @return The error which stopped the command, after it was written out, or null if there was none
      */
-    public void performCommand(IO ioHandler, ShipCommand command) {
+    public Exception performCommand(IO ioHandler, ShipCommand command) {
+        Exception failure = null;
+        long start = System.nanoTime();
         try {
             processCommand(ioHandler, command);
-        } catch (InsufficientResourcesException error) {
+        } catch (InsufficientResourcesException | IllegalArgumentException | NoPathException
+                 | InsufficientCapcaityException error) {
+            failure = error;
+        }
+        metrics.recordCommand(command.type, System.nanoTime() - start, failure);
+        if (failure instanceof InsufficientResourcesException) {
             ioHandler.writeLn("Unable to perform action due to broken component or " +
                     "insufficient resources."
-                    + System.lineSeparator() + error.getMessage());
-        } catch (IllegalArgumentException | NoPathException | InsufficientCapcaityException error) {
-            ioHandler.writeLn(error.getMessage());
+                    + System.lineSeparator() + failure.getMessage());
+        } else if (failure != null) {
+            ioHandler.writeLn(failure.getMessage());
         }
+        return failure;
     }
 
     /**
@@ -0,0 +1,111 @@
+package srg.ship;
+
+import srg.resources.FuelContainer;
+import srg.resources.FuelGrade;
+import srg.resources.ResourceContainer;
+import srg.resources.ResourceType;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ShipState class which encodes the state of a ship that changes during a game into bytes, and restores it.
+ * The state is the tier and health of each room, the current port and the containers of the cargoHold.
+ * The name, owner and id of a ship never change, so they are not encoded.
+ */
+public final class ShipState {
+    /**
+     * Number of bytes of the state of a ship with no containers
+     */
+    private static final int FIXED_BYTES = 2 * (1 + Integer.BYTES) + Integer.BYTES + Integer.BYTES;
+    /**
+     * Number of bytes of each container
+     */
+    private static final int CONTAINER_BYTES = 1 + 1 + Integer.BYTES;
+    /**
+     * Grade written for a container which is not fuel
+     */
+    private static final byte NO_GRADE = -1;
+
+    /**
+     * ShipState only has static methods
+     */
+    private ShipState() {
+    }
+
+    /**
+     * Gets the version of the ship, which increases whenever the state of the ship changes
+     * @param ship The ship
+     * @return Version of the ship
+     */
+    public static long getVersion(Ship ship) {
+        // Both versions only increase, so their sum increases whenever either does
+        return ship.getCargoHold().getVersion() + ship.getNavigationRoom().getVersion();
+    }
+
+    /**
+     * Gets the number of bytes {@link #write} writes for the ship
+     * @param ship The ship
+     * @return Number of bytes of the state of the ship
+     */
+    public static int size(Ship ship) {
+        return FIXED_BYTES + ship.getCargoHold().getResources().size() * CONTAINER_BYTES;
+    }
+
+    /**
+     * Writes the state of the ship
+     * @param ship The ship
+     * @param buffer The buffer to write to, which must have {@link #size} bytes remaining
+     */
+    public static void write(Ship ship, ByteBuffer buffer) {
+        CargoHold cargoHold = ship.getCargoHold();
+        NavigationRoom navigationRoom = ship.getNavigationRoom();
+        buffer.put((byte) cargoHold.getTier().ordinal());
+        buffer.putInt(cargoHold.getHealthPoints());
+        buffer.put((byte) navigationRoom.getTier().ordinal());
+        buffer.putInt(navigationRoom.getHealthPoints());
+        buffer.putInt(navigationRoom.getCurrentIndex());
+        List<ResourceContainer> resources = cargoHold.getResources();
+        buffer.putInt(resources.size());
+        for (ResourceContainer resource : resources) {
+            buffer.put((byte) resource.getType().ordinal());
+            buffer.put(resource instanceof FuelContainer fuel
+                    ? (byte) fuel.getFuelGrade().ordinal() : NO_GRADE);
+            buffer.putInt(resource.getAmount());
+        }
+    }
+
+    /**
+     * Reads the state written by {@link #write} into the ship
+     * @param ship The ship, which must be on the same galaxy map as the ship that was written
+     * @param buffer The buffer to read from
+     * @throws IllegalArgumentException If the bytes are not the state of a ship on the galaxy map
+     */
+    public static void read(Ship ship, ByteBuffer buffer) {
+        RoomTier[] tiers = RoomTier.values();
+        CargoHold cargoHold = ship.getCargoHold();
+        NavigationRoom navigationRoom = ship.getNavigationRoom();
+        RoomTier cargoHoldTier = tiers[buffer.get()];
+        int cargoHoldHealth = buffer.getInt();
+        RoomTier navigationRoomTier = tiers[buffer.get()];
+        int navigationRoomHealth = buffer.getInt();
+        int currentIndex = buffer.getInt();
+        if (currentIndex < 0 || currentIndex >= navigationRoom.getGalaxyGraph().getPorts().size()) {
+            throw new IllegalArgumentException("Port " + currentIndex + " is not on the galaxy map");
+        }
+        int count = buffer.getInt();
+        List<ResourceContainer> resources = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ResourceType type = ResourceType.values()[buffer.get()];
+            byte grade = buffer.get();
+            int amount = buffer.getInt();
+            resources.add(grade == NO_GRADE ? new ResourceContainer(type, amount)
+                    : new FuelContainer(FuelGrade.values()[grade], amount));
+        }
+        cargoHold.restore(cargoHoldTier, cargoHoldHealth);
+        cargoHold.restoreResources(resources);
+        navigationRoom.restore(navigationRoomTier, navigationRoomHealth);
+        navigationRoom.moveTo(currentIndex);
+    }
+}
@@ -0,0 +1,88 @@
+package srg.cli.given;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+
+public class ByteBufferIOTest {
+    private static ByteBuffer bytes(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String output(ByteBufferIO io) {
+        ByteBuffer output = io.getOutput();
+        return new String(output.array(), 0, output.position(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void readLinesTest() {
+        ByteBufferIO io = new ByteBufferIO();
+        io.setInput(bytes("show status\r\n\nexit"));
+        io.addInputLine("help");
+        assertEquals(io.readLine(), "help");
+        assertEquals(io.readLine(), "show status");
+        assertEquals(io.readLine(), "");
+        assertEquals(io.readLine(), "exit");
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void endOfInputTest() {
+        ByteBufferIO io = new ByteBufferIO();
+        io.setInput(bytes("exit\n"));
+        io.readLine();
+        io.readLine();
+    }
+
+    @Test
+    public void parseTest() {
+        ByteBufferIO io = new ByteBufferIO();
+        ByteBuffer input = bytes("fly to \"Omega Tagon\"\r\nbuy tritium\n");
+        io.setInput(input);
+        CLIHandler handler = new CLIHandler();
+        ShipCommand command = (ShipCommand) handler.parseOne(io);
+        assertEquals(command.type, CommandType.FLY_TO);
+        assertEquals(command.value, "Omega Tagon");
+        assertEquals(input.position(), 22);
+
+        io.clearOutput();
+        assertEquals(handler.parseOne(io), null);
+        assertEquals(output(io), "~> Missing argument.\nbuy NAME NUMBER\n");
+        assertEquals(input.hasRemaining(), false);
+    }
+
+    @Test
+    public void encodeTest() {
+        ByteBufferIO io = new ByteBufferIO(new Transcript());
+        String text = "PORT: \u00d6resund \u2192 \ud83d\ude80";
+        io.writeLn(text);
+        assertEquals(output(io), text + "\n");
+        assertEquals(io.getStdout(), text + System.lineSeparator());
+    }
+
+    @Test
+    public void noTranscriptTest() {
+        ByteBufferIO io = new ByteBufferIO();
+        io.writeLn("PORT: Earth");
+        io.write(null);
+        assertEquals(output(io), "PORT: Earth\nnull");
+        assertEquals(io.getStdout(), "");
+        assertEquals(io.getTranscript(), null);
+    }
+
+    @Test
+    public void growTest() {
+        ByteBufferIO io = new ByteBufferIO();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            io.write("line " + i);
+            expected.append("line ").append(i);
+        }
+        assertEquals(output(io), expected.toString());
+        io.clearOutput();
+        assertEquals(output(io), "");
+    }
+}
@@ -0,0 +1,73 @@
+package srg.cli.given;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CLIHandlerTest {
+    private static class RecordingIO extends MemoryIO {
+        List<String> lines = new ArrayList<>();
+
+        @Override
+        public void writeLn(String line) {
+            lines.add(line);
+        }
+
+        @Override
+        public void write(String line) {
+        }
+    }
+
+    private RecordingIO io(String line) {
+        RecordingIO io = new RecordingIO();
+        io.addInputLine(line);
+        return io;
+    }
+
+    @Test
+    public void literalCommandTest() {
+        Command command = new CLIHandler().parseOne(io("show status"));
+        assertEquals(command.type, CommandType.SHOW_STATUS);
+    }
+
+    @Test
+    public void patternCommandTest() {
+        Command command = new CLIHandler().parseOne(io("fly to \"Omega Tagon\""));
+        assertEquals(command.type, CommandType.FLY_TO);
+        assertEquals(((ShipCommand) command).value, "Omega Tagon");
+
+        PurchaseCommand purchase = (PurchaseCommand) new CLIHandler().parseOne(io("buy tritium 20"));
+        assertEquals(purchase.type, CommandType.PURCHASE_ITEM);
+    }
+
+    @Test
+    public void ambiguousTest() {
+        RecordingIO io = io("show");
+        assertNull(new CLIHandler().parseOne(io));
+        assertEquals(io.lines, List.of("Ambiguous command. could be: ",
+                "show port", "show help", "show actions", "show status", "show metrics",
+                "show room NAME"));
+    }
+
+    @Test
+    public void missingArgumentTest() {
+        RecordingIO io = io("buy tritium");
+        assertNull(new CLIHandler().parseOne(io));
+        assertEquals(io.lines, List.of("Missing argument.", "buy NAME NUMBER"));
+    }
+
+    @Test
+    public void invalidTest() {
+        RecordingIO io = io("buy tritium lots");
+        assertNull(new CLIHandler().parseOne(io));
+        assertEquals(io.lines, List.of("Invalid command."));
+
+        io = io("show status now");
+        assertNull(new CLIHandler().parseOne(io));
+        assertEquals(io.lines, List.of("Invalid command."));
+    }
+}
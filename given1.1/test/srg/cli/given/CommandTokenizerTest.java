@@ -0,0 +1,92 @@
+package srg.cli.given;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class CommandTokenizerTest {
+    // How CLIHandler split lines before it had a tokenizer
+    private static List<String> split(String line) {
+        boolean quoted = false;
+        List<String> tokens = new ArrayList<>();
+        for (String part : line.split("\"")) {
+            if (quoted) {
+                tokens.add(part);
+            } else {
+                Collections.addAll(tokens, part.split(" "));
+            }
+            quoted = !quoted;
+        }
+        return tokens;
+    }
+
+    private static List<String> tokens(CommandTokenizer tokenizer) {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < tokenizer.size(); i++) {
+            tokens.add(tokenizer.get(i).toString());
+        }
+        return tokens;
+    }
+
+    @Test
+    public void sameAsSplitTest() {
+        String[] lines = {"show status", "fly to \"Omega Tagon\"", "", " ", "  show  port  ", "\"", "\"\"",
+                "\"quoted\" first", "fly to \"\"", "a\"b\"c\"d", "buy TRITIUM 200 ", "show \"room\"\"\" x",
+                "jump to \"\u00d6resund\"", "one two three four five six seven eight nine ten"};
+        CommandTokenizer tokenizer = new CommandTokenizer();
+        for (String line : lines) {
+            tokenizer.tokenize(line);
+            assertEquals(tokens(tokenizer), split(line));
+
+            byte[] bytes = ("#" + line + "#").getBytes(StandardCharsets.UTF_8);
+            tokenizer.tokenize(ByteBuffer.wrap(bytes), 1, bytes.length - 1);
+            assertEquals(tokens(tokenizer), split(line));
+        }
+    }
+
+    @Test
+    public void readsInPlaceTest() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(32);
+        buffer.put("buy TRITIUM 200\n".getBytes(StandardCharsets.US_ASCII));
+        CommandTokenizer tokenizer = new CommandTokenizer();
+        tokenizer.tokenize(buffer, 0, 15);
+        assertEquals(tokenizer.size(), 3);
+        assertEquals(tokenizer.get(1).length(), 7);
+        assertEquals(tokenizer.get(1).charAt(0), 'T');
+        assertEquals(tokenizer.parseInt(2), 200);
+        assertEquals(tokenizer.toString(), "buy TRITIUM 200");
+        // The buffer is neither moved nor limited
+        assertEquals(buffer.position(), 16);
+    }
+
+    @Test
+    public void stringsKeptTest() {
+        CommandTokenizer tokenizer = new CommandTokenizer();
+        tokenizer.tokenize("fly to \"Omega Tagon\"");
+        String first = tokenizer.string(2);
+        tokenizer.tokenize("jump to \"Omega Tagon\"");
+        assertSame(tokenizer.string(2), first);
+        assertEquals(tokenizer.string(0), "jump");
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void numberTooLargeTest() {
+        CommandTokenizer tokenizer = new CommandTokenizer();
+        tokenizer.tokenize("buy TRITIUM 99999999999");
+        tokenizer.parseInt(2);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void missingTokenTest() {
+        CommandTokenizer tokenizer = new CommandTokenizer();
+        tokenizer.tokenize("show");
+        tokenizer.get(1);
+    }
+}
@@ -0,0 +1,106 @@
+package srg.cli.given;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class IOTest {
+    private static final String NL = System.lineSeparator();
+
+    private InputStream input(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void readLinesTest() {
+        IO io = new ConsoleIO(input("show status\nexit\n"), new ByteArrayOutputStream());
+        io.addInputLine("help");
+        assertEquals(io.readLine(), "help");
+        assertEquals(io.readLine(), "show status");
+        assertEquals(io.readLine(), "exit");
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void endOfInputTest() {
+        IO io = new ConsoleIO(input("exit\n"), new ByteArrayOutputStream());
+        io.readLine();
+        io.readLine();
+    }
+
+    @Test
+    public void flushAtPromptTest() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IO io = new ConsoleIO(input(""), out);
+        io.writeLn("Invalid command.");
+        io.write("~> ");
+        assertEquals(out.size(), 0);
+        try {
+            io.readLine();
+        } catch (NoSuchElementException end) {
+            // The prompt is flushed before waiting for input
+        }
+        assertEquals(out.toString(StandardCharsets.UTF_8), "Invalid command." + NL + "~> ");
+    }
+
+    @Test
+    public void batchedWhileInputWaitingTest() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IO io = new ConsoleIO(input("show status\n"), out);
+        io.write("~> ");
+        assertEquals(io.readLine(), "show status");
+        assertEquals(out.size(), 0);
+        io.flush();
+        assertEquals(out.toString(StandardCharsets.UTF_8), "~> ");
+    }
+
+    @Test
+    public void memoryTest() {
+        MemoryIO io = new MemoryIO();
+        io.addInputLine("show status");
+        io.write("~> ");
+        assertEquals(io.readLine(), "show status");
+        io.writeLn("Invalid command.");
+        assertEquals(io.getStdout(), "~> Invalid command." + NL);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void memoryEndOfInputTest() {
+        MemoryIO io = new MemoryIO();
+        io.addInputLine("exit");
+        io.readLine();
+        io.readLine();
+    }
+
+    @Test
+    public void nullIOTest() {
+        NullIO io = new NullIO();
+        io.addInputLine("show status");
+        io.writeLn("Invalid command.");
+        assertEquals(io.readLine(), "show status");
+        assertNull(io.getTranscript());
+        assertEquals(io.getStdout(), "");
+    }
+
+    @Test
+    public void writeNullTest() {
+        // Null is written as "null", as the output of the StringBuilder it once was
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IO io = new ConsoleIO(input(""), out);
+        io.writeLn(null);
+        io.write(null);
+        io.flush();
+        assertEquals(out.toString(StandardCharsets.UTF_8), "null" + NL + "null");
+        assertEquals(io.getStdout(), "null" + NL + "null");
+
+        IO memory = new MemoryIO();
+        memory.write(null);
+        assertEquals(memory.getStdout(), "null");
+    }
+}
@@ -0,0 +1,53 @@
+package srg.cli.given;
+
+import org.junit.Test;
+import srg.ports.SpacePort;
+import srg.ports.Store;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class MapGeneratorTest {
+    private List<String> describe(List<SpacePort> ports) {
+        return ports.stream().map(SpacePort::toString).collect(Collectors.toList());
+    }
+
+    @Test
+    public void fixedMapTest() {
+        List<SpacePort> ports = new MapGenerator().generateMap();
+        assertEquals(ports.size(), 15);
+        assertEquals(ports.get(0).toString(), "PORT: \"Omega Tagon\" Store at (867, 439, 300)");
+    }
+
+    @Test
+    public void portCountTest() {
+        List<SpacePort> ports = new MapGenerator(1, 1000, 7, 50).generateMap();
+        assertEquals(ports.size(), 1000);
+        assertEquals(ports.get(0) instanceof Store, true);
+    }
+
+    @Test
+    public void sameSeedSameMapTest() {
+        List<SpacePort> first = new MapGenerator(9, 3000, 16, 40).generateMap();
+        List<SpacePort> second = new MapGenerator(9, 3000, 16, 40).generateMap();
+        List<SpacePort> sequential = new MapGenerator(9, 3000, 16, 40).streamMap()
+                .sequential().collect(Collectors.toList());
+        assertEquals(describe(first), describe(second));
+        assertEquals(describe(first), describe(sequential));
+    }
+
+    @Test
+    public void uniqueNamesTest() {
+        Set<String> names = new MapGenerator(2, 5000, 10, 30).streamMap()
+                .map(SpacePort::getName).collect(Collectors.toSet());
+        assertEquals(names.size(), 5000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidSettingsTest() {
+        new MapGenerator(1, 10, 20, 50);
+    }
+}
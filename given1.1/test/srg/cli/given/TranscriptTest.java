@@ -0,0 +1,75 @@
+package srg.cli.given;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class TranscriptTest {
+    private static final String NL = System.lineSeparator();
+
+    @Test
+    public void textTest() {
+        Transcript transcript = new Transcript();
+        assertEquals(transcript.getText(), "");
+        transcript.write("~> ");
+        transcript.writeLn("Invalid command.");
+        transcript.write("~> ");
+        assertEquals(transcript.getText(), "~> Invalid command." + NL + "~> ");
+        assertEquals(transcript.getLineCount(), 1);
+    }
+
+    @Test
+    public void retentionTest() {
+        Transcript transcript = new Transcript(3);
+        for (int i = 0; i < 10; i++) {
+            transcript.writeLn("line " + i);
+        }
+        assertEquals(transcript.getLineCount(), 3);
+        assertEquals(transcript.getText(), "line 7" + NL + "line 8" + NL + "line 9" + NL);
+    }
+
+    @Test
+    public void embeddedLineSeparatorTest() {
+        Transcript transcript = new Transcript(2);
+        transcript.writeLn("a" + NL + "b" + NL + "c");
+        assertEquals(transcript.getText(), "b" + NL + "c" + NL);
+    }
+
+    @Test
+    public void spillTest() throws IOException {
+        Path spill = Files.createTempFile("transcript", ".txt");
+        try {
+            Transcript transcript = new Transcript(2, spill);
+            for (int i = 0; i < 5; i++) {
+                transcript.writeLn("line " + i);
+            }
+            transcript.close();
+            assertEquals(Files.readAllLines(spill), List.of("line 0", "line 1", "line 2"));
+            assertEquals(transcript.getText(), "line 3" + NL + "line 4" + NL);
+        } finally {
+            Files.delete(spill);
+        }
+    }
+
+    @Test
+    public void nullTest() {
+        Transcript transcript = new Transcript();
+        transcript.writeLn(null);
+        transcript.write(null);
+        transcript.write("!");
+        assertEquals(transcript.getText(), "null" + NL + "null!");
+    }
+
+    @Test
+    public void ioTest() {
+        IO io = new MemoryIO(new Transcript(1));
+        io.writeLn("first");
+        io.writeLn("second");
+        assertEquals(io.getStdout(), "second" + NL);
+    }
+}
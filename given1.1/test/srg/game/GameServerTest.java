@@ -0,0 +1,155 @@
+package srg.game;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import srg.cli.given.CommandType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GameServerTest {
+    private GameServer server;
+    private Thread serverThread;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 4);
+        serverThread = new Thread(() -> {
+            try {
+                server.run();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        serverThread.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.close();
+        serverThread.join(5000);
+    }
+
+    private static class Client implements AutoCloseable {
+        private final Socket socket;
+        private final Reader in;
+        private final OutputStream out;
+
+        Client(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            socket.setSoTimeout(5000);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = socket.getOutputStream();
+            readUntilPrompt();
+        }
+
+        String send(String line) throws IOException {
+            out.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            return readUntilPrompt();
+        }
+
+        String readUntilPrompt() throws IOException {
+            StringBuilder text = new StringBuilder();
+            while (!text.toString().endsWith(GameServer.PROMPT)) {
+                int c = in.read();
+                if (c < 0) {
+                    break;
+                }
+                text.append((char) c);
+            }
+            return text.substring(0, Math.max(0, text.length() - GameServer.PROMPT.length()));
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    @Test
+    public void commandTest() throws IOException {
+        Game game = new Game();
+        try (Client client = new Client(server.getPort())) {
+            assertEquals(client.send("show port"), game.ship.getNavigationRoom().getCurrentPort() + "\n"
+                    + String.join("\n", game.ship.getNavigationRoom().getCurrentPort().getActions())
+                    + (game.ship.getNavigationRoom().getCurrentPort().getActions().isEmpty() ? "" : "\n"));
+            assertEquals(client.send("nonsense"), "Invalid command.\n");
+            assertTrue(client.send("help").length() > 0);
+        }
+    }
+
+    @Test
+    public void sessionsTest() throws IOException {
+        try (Client first = new Client(server.getPort()); Client second = new Client(server.getPort())) {
+            String destination = new Game().ship.getNavigationRoom().getPortsInFlyRange().get(0).getName();
+            String start = first.send("show port");
+            first.send("fly to \"" + destination + "\"");
+            String moved = first.send("show port");
+            assertTrue(moved.startsWith("PORT: ") && moved.contains(destination));
+            assertEquals(second.send("show port"), start);
+            assertEquals(server.getSessionCount(), 2);
+        }
+    }
+
+    @Test
+    public void partialAndLongLinesTest() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            client.out.write("show ".getBytes(StandardCharsets.UTF_8));
+            client.out.flush();
+            String port = client.send("port\r");
+            assertTrue(port.startsWith("PORT: "));
+            assertEquals(client.send("x".repeat(GameServer.MAX_LINE_BYTES + 1)), "Line too long.\n");
+            assertTrue(client.send("show port").startsWith("PORT: "));
+        }
+    }
+
+    @Test
+    public void exitTest() throws IOException {
+        try (Client client = new Client(server.getPort())) {
+            client.out.write("exit\n".getBytes(StandardCharsets.UTF_8));
+            client.out.flush();
+            assertEquals(client.in.read(), -1);
+        }
+    }
+
+    @Test
+    public void failedSetupTest() throws IOException {
+        // A connection which fails while it is set up, as one reset by its client, is only closed itself
+        SocketChannel reset = SocketChannel.open();
+        reset.close();
+        server.open(reset);
+        try (Client client = new Client(server.getPort())) {
+            assertTrue(client.send("show port").startsWith("PORT: "));
+            assertEquals(server.getSessionCount(), 1);
+        }
+        assertTrue(serverThread.isAlive());
+    }
+
+    @Test
+    public void metricsTest() throws Exception {
+        try (Client first = new Client(server.getPort()); Client second = new Client(server.getPort())) {
+            first.send("show port");
+            first.send("show port");
+            assertTrue(first.send("show metrics").contains("SHOW_PORT: 2 (0 failed)"));
+            // Each session only sees its own commands
+            assertTrue(!second.send("show metrics").contains("SHOW_PORT"));
+        }
+        server.close();
+        serverThread.join(5000);
+        assertEquals(server.getMetrics().getCommandCount(CommandType.SHOW_PORT), 2);
+        assertEquals(server.getMetrics().getCommandCount(CommandType.SHOW_METRICS), 2);
+    }
+}
@@ -0,0 +1,157 @@
+package srg.game;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import srg.cli.given.Command;
+import srg.cli.given.ConsoleIO;
+import srg.cli.given.CommandType;
+import srg.cli.given.IO;
+import srg.cli.given.PurchaseCommand;
+import srg.cli.given.ShipCommand;
+import srg.cli.given.Transcript;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JournalTest {
+    private static final String SCRIPT = String.join("\n",
+            "show port", "buy TRITIUM 100", "show actions", "fly to Mercury", "buy REPAIR_KIT 2",
+            "fly to Pluto", "repair CargoHold", "status", "buy TRITIUM 50", "show room CargoHold", "");
+
+    private Path journalFile;
+    private Path snapshotFile;
+
+    @Before
+    public void setUp() throws IOException {
+        journalFile = Files.createTempFile("journal", ".bin");
+        Files.delete(journalFile);
+        snapshotFile = Files.createTempFile("snapshot", ".bin");
+        Files.delete(snapshotFile);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(journalFile);
+        Files.deleteIfExists(snapshotFile);
+    }
+
+    private long play(Game game, String script) {
+        IO io = new ConsoleIO(new ByteArrayInputStream(script.getBytes(StandardCharsets.UTF_8)),
+                OutputStream.nullOutputStream(), new Transcript(1));
+        ScriptRunner runner = new ScriptRunner(game, io);
+        runner.run();
+        return runner.getCommandCount();
+    }
+
+    @Test
+    public void roundTripTest() throws IOException {
+        List<Command> written = List.of(new Command(CommandType.SHOW_STATUS),
+                new ShipCommand(CommandType.FLY_TO, "Las Cyamis e1"),
+                new ShipCommand(CommandType.SHOW_PORT, null),
+                new PurchaseCommand("TRITIUM", 250));
+        try (Journal journal = new Journal(journalFile, 7)) {
+            for (Command command : written) {
+                journal.append(command);
+            }
+            assertEquals(journal.getCommandCount(), 4);
+        }
+        List<Command> read = new ArrayList<>();
+        assertEquals(Journal.read(journalFile, read::add), 7);
+        assertEquals(read.size(), 4);
+        assertEquals(read.get(0).type, CommandType.SHOW_STATUS);
+        assertEquals(((ShipCommand) read.get(1)).value, "Las Cyamis e1");
+        assertNull(((ShipCommand) read.get(2)).value);
+        assertEquals(((PurchaseCommand) read.get(3)).item, "TRITIUM");
+        assertEquals(((PurchaseCommand) read.get(3)).amount, 250);
+    }
+
+    @Test
+    public void syncTest() throws IOException {
+        try (Journal journal = new Journal(journalFile, 4, 60_000)) {
+            journal.append(new Command(CommandType.SHOW_STATUS));
+            assertEquals(journal.getCommittedCount(), 0);
+            journal.sync();
+            assertEquals(journal.getCommittedCount(), 1);
+            List<Command> read = new ArrayList<>();
+            Journal.read(journalFile, read::add);
+            assertEquals(read.size(), 1);
+        }
+    }
+
+    @Test
+    public void replayTest() throws IOException {
+        Game game = new Game();
+        long commands;
+        try (Journal journal = new Journal(journalFile, game.getSeed())) {
+            game.setJournal(journal);
+            commands = play(game, SCRIPT);
+        }
+        Replay replay = new Replay(journalFile);
+        Game replayed = replay.run();
+        assertEquals(replay.getAppliedCount(), commands);
+        assertEquals(replayed.ship.toString(), game.ship.toString());
+        assertEquals(replayed.ship.getActions(), game.ship.getActions());
+    }
+
+    @Test
+    public void replayFromSnapshotTest() throws IOException {
+        Game game = new Game();
+        try (Journal journal = new Journal(journalFile, game.getSeed());
+             Snapshot snapshot = new Snapshot(snapshotFile, game)) {
+            game.setJournal(journal);
+            snapshot.setJournal(journal);
+            play(game, "buy TRITIUM 100\nfly to Mercury\n");
+            snapshot.writeFull();
+            play(game, "buy REPAIR_KIT 2\nfly to Pluto\nrepair CargoHold\n");
+        }
+        Replay replay = new Replay(journalFile);
+        Game replayed = replay.run(snapshotFile);
+        assertEquals(replay.getSkippedCount(), 2);
+        assertEquals(replay.getAppliedCount(), 3);
+        assertEquals(replayed.ship.toString(), game.ship.toString());
+    }
+
+    @Test
+    public void reopenAfterTornRecordTest() throws IOException {
+        try (Journal journal = new Journal(journalFile, 4)) {
+            journal.append(new ShipCommand(CommandType.FLY_TO, "Mercury"));
+            journal.append(new ShipCommand(CommandType.FLY_TO, "Pluto"));
+        }
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 2);
+        }
+        try (Journal journal = new Journal(journalFile, 4)) {
+            assertEquals(journal.getCommandCount(), 1);
+            journal.append(new ShipCommand(CommandType.FLY_TO, "Omega Tagon"));
+        }
+        List<Command> read = new ArrayList<>();
+        Journal.read(journalFile, read::add);
+        assertEquals(read.size(), 2);
+        assertEquals(((ShipCommand) read.get(1)).value, "Omega Tagon");
+    }
+
+    @Test
+    public void otherSeedTest() throws IOException {
+        new Journal(journalFile, 4).close();
+        try {
+            new Journal(journalFile, 5);
+            fail();
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().startsWith("Journal of seed 4"));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package srg.game;
+
+import org.junit.Test;
+import srg.cli.given.ConsoleIO;
+import srg.cli.given.IO;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ScriptRunnerTest {
+    private ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    private ScriptRunner run(String script) {
+        IO io = new ConsoleIO(new ByteArrayInputStream(script.getBytes(StandardCharsets.UTF_8)), output);
+        ScriptRunner runner = new ScriptRunner(new Game(), io);
+        runner.run();
+        return runner;
+    }
+
+    @Test
+    public void countsTest() {
+        ScriptRunner runner = run("show status\nshow\nnonsense\nbuy tritium\nfly to \"Nowhere\"\n");
+        assertEquals(runner.getLineCount(), 5);
+        assertEquals(runner.getCommandCount(), 2);
+        assertEquals(runner.getErrors(), Map.of("AMBIGUOUS", 1L, "INVALID", 1L,
+                "MISSING_ARGUMENT", 1L, "NoPathException", 1L));
+    }
+
+    @Test
+    public void summaryTest() {
+        // Lines which are not commands do not count towards the throughput
+        ScriptRunner runner = run("nonsense\nshow\n\n");
+        assertEquals(runner.getCommandCount(), 0);
+        assertTrue(runner.getSummary().contains(" 0 commands/sec"));
+    }
+
+    @Test
+    public void exitTest() {
+        ScriptRunner runner = run("exit\nshow status\n");
+        assertEquals(runner.getLineCount(), 1);
+        assertEquals(output.size(), 0);
+    }
+
+    @Test
+    public void noPromptTest() {
+        run("show port\n");
+        assertEquals(output.toString(StandardCharsets.UTF_8).startsWith("PORT: \"Omega Tagon\""),
+                true);
+    }
+}
@@ -0,0 +1,86 @@
+package srg.game;
+
+import org.junit.Test;
+import srg.cli.given.CommandType;
+import srg.cli.given.MapGenerator;
+import srg.cli.given.PurchaseCommand;
+import srg.ports.Position;
+import srg.ports.SpacePort;
+import srg.ports.Store;
+import srg.ports.StoreItem;
+import srg.resources.FuelGrade;
+import srg.ship.Ship;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class SimulationTest {
+    private List<String> describe(Simulation simulation) {
+        return simulation.getShips().stream().map(ship -> ship.getNavigationRoom().getCurrentPort().getName()
+                + " " + ship).collect(Collectors.toList());
+    }
+
+    private List<SpacePort> map() {
+        List<SpacePort> ports = new MapGenerator(MapGenerator.DEFAULT_SEED).generateMap();
+        // Stores never run out, so which ship buys first cannot change what happens
+        for (SpacePort port : ports) {
+            if (port instanceof Store store) {
+                store.setStock(StoreItem.TRITIUM, Integer.MAX_VALUE / 2);
+            }
+        }
+        return ports;
+    }
+
+    @Test
+    public void parallelMatchesSequentialTest() {
+        ForkJoinPool parallel = new ForkJoinPool(4);
+        ForkJoinPool sequential = new ForkJoinPool(1);
+        try {
+            Simulation first = new Simulation(map(), 40, new WanderingPilot(), 7, parallel);
+            Simulation second = new Simulation(map(), 40, new WanderingPilot(), 7, sequential);
+            first.run(50);
+            second.run(50);
+            assertEquals(first.getTick(), 50);
+            assertEquals(describe(first), describe(second));
+        } finally {
+            parallel.shutdown();
+            sequential.shutdown();
+        }
+    }
+
+    @Test
+    public void seedTest() {
+        Simulation first = new Simulation(map(), 10);
+        Simulation second = new Simulation(map(), 10, new WanderingPilot(), Simulation.DEFAULT_SEED,
+                ForkJoinPool.commonPool());
+        first.run(20);
+        second.run(20);
+        assertEquals(describe(first), describe(second));
+    }
+
+    @Test
+    public void sharedStoreTest() {
+        Store store = new Store("Shop", new Position(0, 0, 0));
+        store.setStock(StoreItem.TRITIUM, 50);
+        // Every ship tries to buy one unit once, all from the one store, so only 50 of them can
+        Pilot pilot = (ship, random) -> ship.getCargoHold().getTotalAmountByType(FuelGrade.TRITIUM) == 100
+                && ship.getMetrics().getCommandCount(CommandType.PURCHASE_ITEM) == 0
+                ? new PurchaseCommand("TRITIUM", 1) : null;
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Simulation simulation = new Simulation(List.of(store), 200, pilot, 1, pool);
+            simulation.run(3);
+            int bought = 0;
+            for (Ship ship : simulation.getShips()) {
+                bought += ship.getCargoHold().getTotalAmountByType(FuelGrade.TRITIUM) - 100;
+            }
+            assertEquals(store.getStock(StoreItem.TRITIUM), 0);
+            assertEquals(bought, 50);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
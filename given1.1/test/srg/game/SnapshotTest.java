@@ -0,0 +1,150 @@
+package srg.game;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import srg.cli.given.MapGenerator;
+import srg.ports.PortTable;
+import srg.ports.SpacePort;
+import srg.ports.Store;
+import srg.ports.StoreItem;
+import srg.ship.Ship;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SnapshotTest {
+    private Path file;
+    private ForkJoinPool pool;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("snapshot", ".bin");
+        pool = new ForkJoinPool(1);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        Files.deleteIfExists(file);
+    }
+
+    private Simulation newSimulation(List<SpacePort> ports) {
+        return new Simulation(ports, 20, new WanderingPilot(), 4, pool);
+    }
+
+    private List<String> describe(Simulation simulation) {
+        List<String> state = new ArrayList<>();
+        for (Ship ship : simulation.getShips()) {
+            state.add(ship.toString());
+        }
+        for (SpacePort port : simulation.getPorts()) {
+            if (port instanceof Store store) {
+                state.add(port.getName() + " " + store.getStock(StoreItem.TRITIUM) + " "
+                        + store.getStock(StoreItem.REPAIR_KIT));
+            }
+        }
+        return state;
+    }
+
+    @Test
+    public void fullTest() throws IOException {
+        Simulation simulation = newSimulation(new MapGenerator(3, 200, 4, 300).generateMap());
+        simulation.run(30);
+        try (Snapshot snapshot = new Snapshot(file, simulation)) {
+            snapshot.writeFull();
+        }
+        Simulation restored = newSimulation(new MapGenerator(3, 200, 4, 300).generateMap());
+        assertNotEquals(describe(restored), describe(simulation));
+        assertEquals(Snapshot.restore(file, restored), 1);
+        assertEquals(describe(restored), describe(simulation));
+        assertEquals(restored.getShips().get(3).getActions(), simulation.getShips().get(3).getActions());
+    }
+
+    @Test
+    public void deltaTest() throws IOException {
+        Simulation simulation = newSimulation(new MapGenerator(3, 200, 4, 300).generateMap());
+        try (Snapshot snapshot = new Snapshot(file, simulation)) {
+            snapshot.writeDelta();
+            long fullSize = Files.size(file);
+            simulation.run(1);
+            snapshot.writeDelta();
+            assertTrue(Files.size(file) - fullSize < fullSize);
+            simulation.run(25);
+            snapshot.writeDelta();
+            assertEquals(snapshot.getSequence(), 3);
+        }
+        Simulation restored = newSimulation(new MapGenerator(3, 200, 4, 300).generateMap());
+        assertEquals(Snapshot.restore(file, restored), 3);
+        assertEquals(describe(restored), describe(simulation));
+    }
+
+    @Test
+    public void tornRecordTest() throws IOException {
+        Simulation simulation = newSimulation(new MapGenerator(3, 200, 4, 300).generateMap());
+        List<String> checkpointed;
+        try (Snapshot snapshot = new Snapshot(file, simulation)) {
+            simulation.run(10);
+            snapshot.writeFull();
+            checkpointed = describe(simulation);
+            simulation.run(10);
+            snapshot.writeDelta();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+        Simulation restored = newSimulation(new MapGenerator(3, 200, 4, 300).generateMap());
+        assertEquals(Snapshot.restore(file, restored), 1);
+        assertEquals(describe(restored), checkpointed);
+    }
+
+    @Test
+    public void portTableTest() throws IOException {
+        List<SpacePort> ports = new MapGenerator(3, 200, 4, 300).generateMap();
+        Simulation simulation = newSimulation(PortTable.of(ports));
+        simulation.run(30);
+        try (Snapshot snapshot = new Snapshot(file, simulation)) {
+            snapshot.writeFull();
+        }
+        Simulation restored = newSimulation(PortTable.of(ports));
+        Snapshot.restore(file, restored);
+        assertEquals(describe(restored), describe(simulation));
+    }
+
+    @Test
+    public void gameTest() throws IOException {
+        Game game = new Game();
+        game.ship.getCargoHold().damage();
+        try (Snapshot snapshot = new Snapshot(file, game)) {
+            snapshot.writeFull();
+        }
+        Game restored = new Game();
+        Snapshot.restore(file, restored);
+        assertEquals(restored.ship.toString(), game.ship.toString());
+    }
+
+    @Test
+    public void wrongShipCountTest() throws IOException {
+        Simulation simulation = newSimulation(new MapGenerator(3, 200, 4, 300).generateMap());
+        try (Snapshot snapshot = new Snapshot(file, simulation)) {
+            snapshot.writeFull();
+        }
+        try {
+            Snapshot.restore(file, new Game());
+            fail();
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().startsWith("Snapshot of 20 ships"));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package srg.game;
+
+import org.junit.Test;
+import srg.cli.given.CommandType;
+import srg.cli.given.PurchaseCommand;
+import srg.cli.given.ShipCommand;
+import srg.ports.Position;
+import srg.ports.SpacePort;
+import srg.ports.Store;
+import srg.resources.FuelGrade;
+import srg.ship.RoomTier;
+import srg.ship.Ship;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class WanderingPilotTest {
+    private WanderingPilot pilot = new WanderingPilot();
+    private SplittableRandom random = new SplittableRandom(1);
+
+    private Ship ship(SpacePort... ports) {
+        return new Ship("Ship", "Pilot", "TEST", RoomTier.BASIC, RoomTier.BASIC, List.of(ports));
+    }
+
+    @Test
+    public void repairTest() {
+        Ship ship = ship(new SpacePort("A", new Position(0, 0, 0)), new SpacePort("B", new Position(100, 0, 0)));
+        while (!ship.getNavigationRoom().needsRepair()) {
+            ship.getNavigationRoom().damage();
+        }
+        ShipCommand command = pilot.nextCommand(ship, random);
+        assertEquals(command.type, CommandType.REPAIR_ROOM);
+        assertEquals(command.value, "NavigationRoom");
+    }
+
+    @Test
+    public void buyFuelTest() {
+        Ship ship = ship(new Store("Shop", new Position(0, 0, 0)), new SpacePort("B", new Position(100, 0, 0)));
+        assertEquals(pilot.nextCommand(ship, random).type, CommandType.FLY_TO);
+        ship.getCargoHold().tryConsumeResource(FuelGrade.TRITIUM, 1);
+        PurchaseCommand command = (PurchaseCommand) pilot.nextCommand(ship, random);
+        assertEquals(command.item, "TRITIUM");
+        assertEquals(command.amount, WanderingPilot.LOW_FUEL);
+    }
+
+    @Test
+    public void flyOrJumpTest() {
+        Ship ship = ship(new SpacePort("A", new Position(0, 0, 0)), new SpacePort("B", new Position(100, 0, 0)),
+                new SpacePort("C", new Position(400, 0, 0)));
+        ShipCommand command = pilot.nextCommand(ship, random);
+        assertEquals(command.type, CommandType.FLY_TO);
+        assertEquals(command.value, "B");
+        // Without fuel to fly, the ship jumps with a hyperdrive core
+        ship.getCargoHold().tryConsumeResource(FuelGrade.TRITIUM, 100);
+        command = pilot.nextCommand(ship, random);
+        assertEquals(command.type, CommandType.JUMP_TO);
+        assertEquals(command.value, "C");
+    }
+
+    @Test
+    public void nowhereTest() {
+        assertNull(pilot.nextCommand(ship(new SpacePort("A", new Position(0, 0, 0))), random));
+    }
+}
@@ -0,0 +1,59 @@
+package srg.metrics;
+
+import org.junit.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+    @Test
+    public void bucketsTest() {
+        for (long value : new long[] {0, 1, 15, 16, 17, 31, 32, 33, 1000, 123_456_789, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(value);
+            long highest = LatencyHistogram.highestValueOf(index);
+            assertTrue(highest >= value);
+            // Every value is kept to within one sub-bucket
+            assertTrue(highest - value <= value / LatencyHistogram.SUB_BUCKETS);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.highestValueOf(index - 1) < value);
+            }
+        }
+        assertEquals(LatencyHistogram.highestValueOf(LatencyHistogram.indexOf(Long.MAX_VALUE)),
+                Long.MAX_VALUE);
+    }
+
+    @Test
+    public void percentilesTest() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(histogram.getCount(), 1000);
+        assertEquals(histogram.getMax(), 1_000_000);
+        assertEquals(histogram.getMean(), 500_500, 0.001);
+        long p50 = histogram.getValueAtPercentile(50);
+        assertTrue(p50 >= 500_000 && p50 <= 500_000 * 17 / 16);
+        long p99 = histogram.getValueAtPercentile(99);
+        assertTrue(p99 >= 990_000 && p99 <= 1_000_000);
+        assertEquals(histogram.getValueAtPercentile(100), 1_000_000);
+    }
+
+    @Test
+    public void emptyTest() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        assertEquals(histogram.getValueAtPercentile(99), 0);
+        assertEquals(new LatencyHistogram().getValueAtPercentile(50), 0);
+        assertEquals(new LatencyHistogram().getMean(), 0, 0);
+    }
+
+    @Test
+    public void concurrentTest() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        IntStream.range(0, 100_000).parallel().forEach(i -> histogram.record(i % 100));
+        assertEquals(histogram.getCount(), 100_000);
+        assertEquals(histogram.getMax(), 99);
+    }
+}
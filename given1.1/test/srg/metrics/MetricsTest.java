@@ -0,0 +1,126 @@
+package srg.metrics;
+
+import org.junit.Test;
+import srg.cli.given.CommandType;
+import srg.cli.given.MemoryIO;
+import srg.cli.given.ShipCommand;
+import srg.exceptions.NoPathException;
+import srg.game.Game;
+import srg.resources.FuelGrade;
+import srg.ports.SpacePort;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsTest {
+    @Test
+    public void recordTest() {
+        Metrics metrics = new Metrics();
+        metrics.recordCommand(CommandType.FLY_TO, 2000, null);
+        metrics.recordCommand(CommandType.FLY_TO, 4000, new NoPathException("Error Here"));
+        metrics.recordCommand(CommandType.JUMP_TO, 1000, new NoPathException("Error Here"));
+        metrics.recordFuel(FuelGrade.TRITIUM, 30);
+
+        assertEquals(metrics.getCommandCount(CommandType.FLY_TO), 2);
+        assertEquals(metrics.getFailedCount(CommandType.FLY_TO), 1);
+        assertEquals(metrics.getLatency(CommandType.FLY_TO).getMax(), 4000);
+        assertEquals(metrics.getFuelUsed(FuelGrade.TRITIUM), 30);
+        assertEquals(metrics.getFailures(), Map.of("NoPathException", 2L));
+    }
+
+    @Test
+    public void gameTest() {
+        Game game = new Game();
+        Metrics metrics = new Metrics();
+        game.ship.setMetrics(metrics);
+        MemoryIO io = new MemoryIO();
+        SpacePort destination = game.ship.getNavigationRoom().getPortsInFlyRange().get(0);
+        int fuel = game.ship.getNavigationRoom().getFuelNeeded(destination);
+
+        game.update(io, new ShipCommand(CommandType.FLY_TO, destination.getName()));
+        game.update(io, new ShipCommand(CommandType.FLY_TO, "Nowhere"));
+        game.update(io, new ShipCommand(CommandType.REPAIR_ROOM, "Bridge"));
+
+        assertEquals(metrics.getCommandCount(CommandType.FLY_TO), 2);
+        assertEquals(metrics.getFailedCount(CommandType.FLY_TO), 1);
+        assertEquals(metrics.getFuelUsed(FuelGrade.TRITIUM), fuel);
+        assertEquals(metrics.getFailures(), Map.of("NoPathException", 1L, "IllegalArgumentException", 1L));
+    }
+
+    @Test
+    public void idleSizeTest() {
+        // Every ship and session has a registry, so one which has recorded nothing must stay small
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        Metrics[] registries = new Metrics[1000];
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < registries.length; i++) {
+            registries[i] = new Metrics();
+        }
+        long perRegistry = (threads.getThreadAllocatedBytes(threadId) - before) / registries.length;
+        assertTrue("idle registry takes " + perRegistry + " bytes", perRegistry < 8 * 1024);
+        assertEquals(registries[0].getLatency(CommandType.FLY_TO).getValueAtPercentile(50), 0);
+    }
+
+    @Test
+    public void ownRegistryTest() {
+        Game first = new Game();
+        Game second = new Game();
+        first.update(new MemoryIO(), new ShipCommand(CommandType.SHOW_PORT, ""));
+        assertEquals(first.ship.getMetrics().getCommandCount(CommandType.SHOW_PORT), 1);
+        assertEquals(second.ship.getMetrics().getCommandCount(CommandType.SHOW_PORT), 0);
+    }
+
+    @Test
+    public void addTest() {
+        Metrics first = new Metrics();
+        first.recordCommand(CommandType.FLY_TO, 2000, new NoPathException("Error Here"));
+        first.recordFuel(FuelGrade.TRITIUM, 30);
+        Metrics second = new Metrics();
+        second.recordCommand(CommandType.FLY_TO, 8000, null);
+        second.recordFuel(FuelGrade.TRITIUM, 12);
+
+        Metrics total = new Metrics();
+        total.add(first);
+        total.add(second);
+        assertEquals(total.getCommandCount(CommandType.FLY_TO), 2);
+        assertEquals(total.getFailedCount(CommandType.FLY_TO), 1);
+        assertEquals(total.getLatency(CommandType.FLY_TO).getMax(), 8000);
+        assertEquals(total.getLatency(CommandType.FLY_TO).getMean(), 5000, 0);
+        assertEquals(total.getLatency(CommandType.FLY_TO).getValueAtPercentile(100), 8000);
+        assertEquals(total.getFuelUsed(FuelGrade.TRITIUM), 42);
+        assertEquals(total.getFailures(), Map.of("NoPathException", 1L));
+        // The registries added are left as they were
+        assertEquals(first.getCommandCount(CommandType.FLY_TO), 1);
+    }
+
+    @Test
+    public void showMetricsTest() {
+        Game game = new Game();
+        game.ship.setMetrics(new Metrics());
+        MemoryIO io = new MemoryIO();
+        game.update(io, new ShipCommand(CommandType.SHOW_PORT, ""));
+        game.update(io, new srg.cli.given.Command(CommandType.SHOW_METRICS));
+        String shown = io.getStdout();
+        assertTrue(shown.contains("METRICS:"));
+        assertTrue(shown.contains("SHOW_PORT: 1 (0 failed)"));
+        assertTrue(shown.contains("fuel TRITIUM: 0"));
+    }
+
+    @Test
+    public void jsonTest() {
+        Metrics metrics = new Metrics();
+        metrics.recordCommand(CommandType.PURCHASE_ITEM, 1500, new IllegalArgumentException());
+        metrics.recordFuel(FuelGrade.HYPERDRIVE_CORE, 1);
+        String json = metrics.toJson();
+        assertTrue(json.startsWith("{\"commands\":{\"EXIT\":{\"count\":0,"));
+        assertTrue(json.contains("\"PURCHASE_ITEM\":{\"count\":1,\"failed\":1,\"meanNanos\":1500,"
+                + "\"p50Nanos\":1500,\"p99Nanos\":1500,\"maxNanos\":1500}"));
+        assertTrue(json.endsWith("\"fuel\":{\"HYPERDRIVE_CORE\":1,\"TRITIUM\":0},"
+                + "\"failures\":{\"IllegalArgumentException\":1}}"));
+    }
+}
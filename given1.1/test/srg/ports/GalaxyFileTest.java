@@ -0,0 +1,112 @@
+package srg.ports;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import srg.cli.given.MapGenerator;
+import srg.ship.NavigationRoom;
+import srg.ship.RoomTier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GalaxyFileTest {
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("galaxy", ".bin");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private List<String> describe(List<SpacePort> ports) {
+        return ports.stream().map(SpacePort::toString).collect(Collectors.toList());
+    }
+
+    @Test
+    public void roundTripTest() throws IOException {
+        List<SpacePort> ports = new MapGenerator(3, 2000, 5, 300).generateMap();
+        GalaxyFile.write(ports, file);
+        PortTable table = GalaxyFile.open(file);
+        assertEquals(table.size(), ports.size());
+        assertEquals(describe(table), describe(ports));
+        for (int i = 0; i < ports.size(); i++) {
+            assertEquals(table.get(i).getClass(), ports.get(i).getClass());
+            assertEquals(table.get(i).getActions(), ports.get(i).getActions());
+        }
+    }
+
+    @Test
+    public void namesAndUpgradesTest() throws IOException {
+        PortTable written = new PortTable.Builder()
+                .addSpacePort("Mercury", -1, 2, -3)
+                .addShipYard("\u00d6resund", 4, 5, 6, List.of("CargoHold", "NavigationRoom"))
+                .addStore("Mercury", 7, 8, 9)
+                .addShipYard("Yard", 10, 11, 12, List.of())
+                .build();
+        GalaxyFile.write(written, file);
+        // Chunks of 3 elements make names and columns cross chunk boundaries
+        PortTable table = GalaxyFile.open(file, 3);
+        assertEquals(describe(table), describe(written));
+        assertEquals(table.getNameCount(), 3);
+        assertEquals(((ShipYard) table.get(1)).getCanUpgrade(), List.of("CargoHold", "NavigationRoom"));
+        assertEquals(((ShipYard) table.get(3)).getCanUpgrade(), List.of());
+        assertEquals(table.getKind(2), PortTable.STORE);
+    }
+
+    @Test
+    public void storedIndexTest() throws IOException {
+        List<SpacePort> ports = new MapGenerator(9, 3000, 4, 200).generateMap();
+        GalaxyFile.write(ports, file, 100);
+        PortTable table = GalaxyFile.open(file, 64);
+        SpatialIndex stored = SpatialIndex.of(table);
+        assertTrue(stored instanceof MappedGridIndex);
+        SpatialIndex linear = new LinearScanIndex(ports);
+        for (int i = 0; i < 30; i++) {
+            Position centre = ports.get(i * 7).getPosition();
+            for (int distance : new int[] {0, 150, 1000, 1000000}) {
+                assertEquals(describe(stored.findWithin(centre, distance)),
+                        describe(linear.findWithin(centre, distance)));
+            }
+        }
+    }
+
+    @Test
+    public void navigationTest() throws IOException {
+        List<SpacePort> ports = new MapGenerator(5, 300, 3, 200).generateMap();
+        GalaxyFile.write(ports, file);
+        NavigationRoom objects = new NavigationRoom(RoomTier.PRIME, ports);
+        NavigationRoom mapped = new NavigationRoom(RoomTier.PRIME, GalaxyFile.open(file));
+        assertEquals(mapped.getActions(), objects.getActions());
+    }
+
+    @Test
+    public void emptyTest() throws IOException {
+        GalaxyFile.write(List.of(), file);
+        PortTable table = GalaxyFile.open(file);
+        assertEquals(table.size(), 0);
+        assertEquals(table.getStoredIndex().findWithin(new Position(0, 0, 0), 100), List.of());
+    }
+
+    @Test
+    public void notGalaxyFileTest() throws IOException {
+        Files.writeString(file, "not a galaxy");
+        try {
+            GalaxyFile.open(file);
+            fail();
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().startsWith("Not a galaxy file"));
+        }
+    }
+}
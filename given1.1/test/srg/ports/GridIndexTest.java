@@ -0,0 +1,73 @@
+package srg.ports;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GridIndexTest {
+    private List<SpacePort> randomMap(int size) {
+        Random rand = new Random(7);
+        List<SpacePort> ports = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            ports.add(new SpacePort("Port " + i, new Position(rand.nextInt(-500, 1500),
+                    rand.nextInt(-500, 1500), rand.nextInt(-500, 1500))));
+        }
+        return ports;
+    }
+
+    @Test
+    public void sameAsLinearScanTest() {
+        List<SpacePort> ports = randomMap(2000);
+        SpatialIndex linear = new LinearScanIndex(ports);
+        SpatialIndex grid = new GridIndex(ports);
+        for (int i = 0; i < 50; i++) {
+            Position centre = ports.get(i).getPosition();
+            for (int distance : new int[] {0, 200, 500, 1000}) {
+                assertEquals(grid.findWithin(centre, distance), linear.findWithin(centre, distance));
+            }
+        }
+    }
+
+    @Test
+    public void smallCellsTest() {
+        List<SpacePort> ports = randomMap(500);
+        SpatialIndex linear = new LinearScanIndex(ports);
+        SpatialIndex grid = new GridIndex(ports, 7);
+        Position centre = new Position(100, 100, 100);
+        assertEquals(grid.findWithin(centre, 300), linear.findWithin(centre, 300));
+    }
+
+    @Test
+    public void exactDistanceTest() {
+        List<SpacePort> ports = List.of(new SpacePort("A", new Position(0, 0, 0)),
+                new SpacePort("B", new Position(3, 3, 3)));
+        SpatialIndex grid = new GridIndex(ports, 2);
+        assertEquals(grid.findWithin(new Position(0, 0, 0), 4).size(), 1);
+        assertEquals(grid.findWithin(new Position(0, 0, 0), 5).size(), 2);
+    }
+
+    @Test
+    public void chooseIndexBySizeTest() {
+        assertEquals(SpatialIndex.of(randomMap(10)).getClass(), LinearScanIndex.class);
+        assertEquals(SpatialIndex.of(randomMap(SpatialIndex.LINEAR_SCAN_THRESHOLD)).getClass(),
+                GridIndex.class);
+    }
+
+    @Test
+    public void keySpreadTest() {
+        // Buckets a HashMap of 8192 slots puts the cells of a line along the x axis in
+        Set<Integer> buckets = new HashSet<>();
+        for (int x = 0; x < 4096; x++) {
+            int hash = Long.hashCode(GridIndex.key(x, 0, 0));
+            buckets.add((hash ^ (hash >>> 16)) & 8191);
+        }
+        assertTrue(buckets.size() > 2048);
+    }
+}
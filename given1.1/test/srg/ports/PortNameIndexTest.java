@@ -0,0 +1,89 @@
+package srg.ports;
+
+import org.junit.Test;
+import srg.cli.given.MapGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class PortNameIndexTest {
+    private List<SpacePort> ports() {
+        return List.of(
+                new SpacePort("Mercury", new Position(0, 0, 0)),
+                new SpacePort("Mars", new Position(1, 0, 0)),
+                new SpacePort("mercury", new Position(2, 0, 0)),
+                new SpacePort("Mercury", new Position(3, 0, 0)),
+                new SpacePort("Venus", new Position(4, 0, 0)));
+    }
+
+    private List<String> names(List<SpacePort> ports) {
+        return ports.stream().map(SpacePort::getName).collect(Collectors.toList());
+    }
+
+    @Test
+    public void exactTest() {
+        List<SpacePort> ports = ports();
+        PortNameIndex index = new PortNameIndex(ports);
+        assertEquals(index.indexOf("Mercury"), 0);
+        assertEquals(index.indexOf("mercury"), 2);
+        assertEquals(index.indexOf("Venus"), 4);
+        assertEquals(index.indexOf("Pluto"), -1);
+        assertEquals(index.indexOf(""), -1);
+        assertSame(index.get("Mars"), ports.get(1));
+        assertNull(index.get("MARS"));
+    }
+
+    @Test
+    public void ignoreCaseTest() {
+        List<SpacePort> ports = ports();
+        PortNameIndex index = new PortNameIndex(ports);
+        assertEquals(index.indexOfIgnoreCase("MERCURY"), 0);
+        assertEquals(index.indexOfIgnoreCase("mercury"), 0);
+        assertEquals(index.indexOfIgnoreCase("vEnUs"), 4);
+        assertEquals(index.indexOfIgnoreCase("Merc"), -1);
+        assertSame(index.getIgnoreCase("mars"), ports.get(1));
+        assertNull(index.getIgnoreCase("Pluto"));
+    }
+
+    @Test
+    public void prefixTest() {
+        List<SpacePort> ports = ports();
+        PortNameIndex index = new PortNameIndex(ports);
+        assertEquals(names(index.findByPrefix("m", 10)), List.of("Mars", "Mercury", "mercury"));
+        assertSame(index.findByPrefix("MERC", 10).get(0), ports.get(0));
+        assertEquals(names(index.findByPrefix("Me", 1)), List.of("Mercury"));
+        assertEquals(names(index.findByPrefix("", 10)), List.of("Mars", "Mercury", "mercury", "Venus"));
+        assertEquals(index.findByPrefix("Pl", 10), List.of());
+    }
+
+    @Test
+    public void emptyTest() {
+        PortNameIndex index = new PortNameIndex(List.of());
+        assertEquals(index.indexOf("Mercury"), -1);
+        assertEquals(index.indexOfIgnoreCase("Mercury"), -1);
+        assertEquals(index.findByPrefix("M", 10), List.of());
+    }
+
+    @Test
+    public void portTableTest() {
+        List<SpacePort> ports = new ArrayList<>(new MapGenerator(3, 2000, 5, 300).generateMap());
+        ports.add(new SpacePort(ports.get(0).getName(), new Position(1, 2, 3)));
+        PortTable table = PortTable.of(ports);
+        PortNameIndex objects = new PortNameIndex(ports);
+        PortNameIndex rows = new PortNameIndex(table);
+        for (int i = 0; i < ports.size(); i++) {
+            String name = ports.get(i).getName();
+            assertEquals(rows.indexOf(name), objects.indexOf(name));
+            assertEquals(rows.indexOfIgnoreCase(name.toUpperCase()), objects.indexOfIgnoreCase(name.toUpperCase()));
+            assertEquals(table.get(rows.indexOf(name)).getName(), name);
+        }
+        assertEquals(rows.indexOf(ports.get(0).getName()), 0);
+        String prefix = ports.get(0).getName().substring(0, 1);
+        assertEquals(names(rows.findByPrefix(prefix, 5)), names(objects.findByPrefix(prefix, 5)));
+    }
+}
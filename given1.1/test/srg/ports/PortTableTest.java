@@ -0,0 +1,84 @@
+package srg.ports;
+
+import org.junit.Test;
+import srg.cli.given.MapGenerator;
+import srg.exceptions.InsufficientResourcesException;
+import srg.ship.NavigationRoom;
+import srg.ship.RoomTier;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class PortTableTest {
+    private List<String> describe(List<SpacePort> ports) {
+        return ports.stream().map(SpacePort::toString).collect(Collectors.toList());
+    }
+
+    @Test
+    public void sameAsObjectsTest() {
+        List<SpacePort> ports = new MapGenerator(3, 2000, 5, 300).generateMap();
+        PortTable table = PortTable.of(ports);
+        assertEquals(table.size(), ports.size());
+        assertEquals(describe(table), describe(ports));
+        for (int i = 0; i < ports.size(); i++) {
+            assertEquals(table.get(i).getClass(), ports.get(i).getClass());
+            assertEquals(table.get(i).getActions(), ports.get(i).getActions());
+        }
+    }
+
+    @Test
+    public void viewsTest() {
+        PortTable table = new PortTable.Builder()
+                .addSpacePort("Mercury", 1, 2, 3)
+                .addShipYard("Yard", 4, 5, 6, List.of("CargoHold"))
+                .addSpacePort("Mercury", 7, 8, 9)
+                .build();
+        assertNotSame(table.get(0), table.get(0));
+        assertEquals(table.get(0), table.get(0));
+        assertEquals(table.get(0).hashCode(), table.get(0).hashCode());
+        assertEquals(table.get(0).equals(table.get(2)), false);
+        assertEquals(table.indexOf(table.get(2)), 2);
+        assertEquals(table.indexOf(new SpacePort("Mercury", new Position(1, 2, 3))), -1);
+        assertEquals(table.getNameCount(), 2);
+        assertEquals(table.get(2).getName(), "Mercury");
+        assertEquals(table.getKind(1), PortTable.SHIP_YARD);
+        assertEquals(((ShipYard) table.get(1)).getCanUpgrade(), List.of("CargoHold"));
+    }
+
+    @Test
+    public void storeKeepsStockTest() throws InsufficientResourcesException {
+        PortTable table = new PortTable.Builder().addStore("Shop", 0, 0, 0).build();
+        Store store = (Store) table.get(0);
+        assertSame(table.get(0), store);
+        store.purchase(StoreItem.TRITIUM, 100);
+        assertEquals(((Store) table.get(0)).getStock(StoreItem.TRITIUM),
+                StoreItem.TRITIUM.getInitialStock() - 100);
+    }
+
+    @Test
+    public void findWithinTest() {
+        List<SpacePort> ports = new MapGenerator(9, 600, 4, 200).generateMap();
+        PortTable table = PortTable.of(ports);
+        SpatialIndex linear = new LinearScanIndex(ports);
+        SpatialIndex grid = new GridIndex(table);
+        for (int i = 0; i < 20; i++) {
+            Position centre = ports.get(i).getPosition();
+            assertEquals(describe(table.findWithin(centre, 300)),
+                    describe(linear.findWithin(centre, 300)));
+            assertEquals(describe(grid.findWithin(centre, 300)),
+                    describe(linear.findWithin(centre, 300)));
+        }
+    }
+
+    @Test
+    public void navigationTest() {
+        List<SpacePort> ports = new MapGenerator(5, 300, 3, 200).generateMap();
+        NavigationRoom objects = new NavigationRoom(RoomTier.PRIME, ports);
+        NavigationRoom table = new NavigationRoom(RoomTier.PRIME, PortTable.of(ports));
+        assertEquals(table.getActions(), objects.getActions());
+    }
+}
@@ -2,6 +2,8 @@ package srg.ports;
 
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
 
 public class PositionTest {
@@ -18,6 +20,32 @@ public class PositionTest {
         assertEquals(position.distanceTo(new Position(3,3,3)),5);
     }
     @Test
+    public void distanceToSameAsPowTest() {
+        Random rand = new Random(3);
+        for (int i = 0; i < 100000; i++) {
+            Position from = new Position(rand.nextInt(-100000, 100000),
+                    rand.nextInt(-100000, 100000), rand.nextInt(-100000, 100000));
+            Position to = new Position(rand.nextInt(-100000, 100000),
+                    rand.nextInt(-100000, 100000), rand.nextInt(-100000, 100000));
+            int expected = (int) Math.floor(Math.pow(Math.pow(to.x - from.x, 2)
+                    + Math.pow(to.y - from.y, 2) + Math.pow(to.z - from.z, 2), 0.5));
+            assertEquals(from.distanceTo(to), expected);
+        }
+    }
+    @Test
+    public void distanceSquaredToTest() {
+        Position position = new Position(0,0,0);
+        assertEquals(position.distanceSquaredTo(new Position(3,3,3)),27);
+    }
+    @Test
+    public void withinDistanceTest() {
+        Position position = new Position(0,0,0);
+        assertEquals(position.withinDistance(new Position(3,3,3), 5),true);
+        assertEquals(position.withinDistance(new Position(3,3,3), 4),false);
+        assertEquals(position.withinDistance(new Position(6,0,0), 5),false);
+        assertEquals(position.withinDistance(position, -1),false);
+    }
+    @Test
     public void toStringTest() {
         Position position = new Position(0,0,0);
         assertEquals(position.toString(),"(0, 0, 0)");
@@ -0,0 +1,158 @@
+package srg.ports;
+
+import org.junit.Test;
+import srg.exceptions.InsufficientResourcesException;
+import srg.resources.FuelContainer;
+import srg.resources.FuelGrade;
+import srg.resources.ResourceContainer;
+import srg.resources.ResourceType;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class StoreTest {
+    private Store store() {
+        return new Store("Omega Tagon", new Position(867, 439, 300));
+    }
+
+    @Test
+    public void purchaseTest() throws InsufficientResourcesException {
+        Store store = store();
+        FuelContainer container = (FuelContainer) store.purchase("TRITIUM", 200);
+        assertEquals(container.getFuelGrade(), FuelGrade.TRITIUM);
+        assertEquals(container.getAmount(), 200);
+        assertEquals(store.getStock(StoreItem.TRITIUM), 800);
+        assertEquals(store.getActions(), List.of("buy HYPERDRIVE_CORE 1..1000",
+                "buy REPAIR_KIT 1..10", "buy TRITIUM 1..800"));
+    }
+
+    @Test
+    public void purchaseAllTest() throws InsufficientResourcesException {
+        Store store = store();
+        ResourceContainer container = store.purchase("REPAIR_KIT", 10);
+        assertEquals(container.getType(), ResourceType.REPAIR_KIT);
+        assertEquals(store.getActions(), List.of("buy HYPERDRIVE_CORE 1..1000",
+                "buy TRITIUM 1..1000"));
+    }
+
+    @Test(expected = InsufficientResourcesException.class)
+    public void purchaseUnknownTest() throws InsufficientResourcesException {
+        store().purchase("FUEL", 1);
+    }
+
+    @Test(expected = InsufficientResourcesException.class)
+    public void purchaseTooMuchTest() throws InsufficientResourcesException {
+        store().purchase("REPAIR_KIT", 11);
+    }
+
+    @Test
+    public void purchaseBatchTest() throws InsufficientResourcesException {
+        Store store = store();
+        Map<StoreItem, Integer> basket = new EnumMap<>(StoreItem.class);
+        basket.put(StoreItem.REPAIR_KIT, 2);
+        basket.put(StoreItem.TRITIUM, 300);
+        List<ResourceContainer> containers = store.purchaseBatch(basket);
+        assertEquals(containers.size(), 2);
+        assertEquals(containers.get(0).getAmount(), 300);
+        assertEquals(containers.get(1).getAmount(), 2);
+        assertEquals(store.getStock(StoreItem.TRITIUM), 700);
+        assertEquals(store.getStock(StoreItem.REPAIR_KIT), 8);
+    }
+
+    @Test
+    public void purchaseBatchAllOrNothingTest() {
+        Store store = store();
+        Map<StoreItem, Integer> basket = new EnumMap<>(StoreItem.class);
+        basket.put(StoreItem.TRITIUM, 300);
+        basket.put(StoreItem.REPAIR_KIT, 20);
+        try {
+            store.purchaseBatch(basket);
+        } catch (InsufficientResourcesException error) {
+            assertEquals(store.getStock(StoreItem.TRITIUM), 1000);
+            return;
+        }
+        throw new AssertionError("Expected InsufficientResourcesException");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void purchaseBatchNullAmountTest() throws InsufficientResourcesException {
+        Map<StoreItem, Integer> basket = new HashMap<>();
+        basket.put(StoreItem.TRITIUM, null);
+        store().purchaseBatch(basket);
+    }
+
+    @Test
+    public void purchaseBatchIsolatedTest() throws InterruptedException {
+        Store store = store();
+        int cores = store.getStock(StoreItem.HYPERDRIVE_CORE);
+        store.setStock(StoreItem.TRITIUM, 0);
+        // Always fails on TRITIUM, so must never be seen holding the cores
+        Map<StoreItem, Integer> basket = Map.of(StoreItem.HYPERDRIVE_CORE, cores, StoreItem.TRITIUM, 1);
+        long end = System.nanoTime() + 200_000_000L;
+        Thread batches = new Thread(() -> {
+            while (System.nanoTime() < end) {
+                try {
+                    store.purchaseBatch(basket);
+                } catch (InsufficientResourcesException error) {
+                    // Expected every time
+                }
+            }
+        });
+        batches.start();
+        int failed = 0;
+        while (batches.isAlive()) {
+            if (store.tryPurchase(StoreItem.HYPERDRIVE_CORE, 1) == null) {
+                failed++;
+            } else {
+                store.restock(StoreItem.HYPERDRIVE_CORE, 1);
+            }
+        }
+        batches.join();
+        assertEquals(failed, 0);
+        assertEquals(store.getStock(StoreItem.HYPERDRIVE_CORE), cores);
+    }
+
+    @Test
+    public void concurrentPurchaseTest() throws InterruptedException {
+        Store store = store();
+        List<Thread> threads = new ArrayList<>();
+        int[] bought = new int[8];
+        for (int t = 0; t < bought.length; t++) {
+            int index = t;
+            threads.add(new Thread(() -> {
+                while (true) {
+                    try {
+                        bought[index] += store.purchase(StoreItem.TRITIUM, 3).getAmount();
+                    } catch (InsufficientResourcesException error) {
+                        return;
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        int total = 0;
+        for (int amount : bought) {
+            total += amount;
+        }
+        assertEquals(total, 999);
+        assertEquals(store.getStock(StoreItem.TRITIUM), 1);
+    }
+
+    @Test
+    public void tryPurchaseTest() {
+        Store store = store();
+        assertEquals(store.tryPurchase("FUEL", 1), null);
+        assertEquals(store.tryPurchase("REPAIR_KIT", 11), null);
+        assertEquals(store.getStock(StoreItem.REPAIR_KIT), 10);
+        assertEquals(store.tryPurchase(StoreItem.REPAIR_KIT, 10).getAmount(), 10);
+        assertEquals(store.getStock(StoreItem.REPAIR_KIT), 0);
+    }
+}
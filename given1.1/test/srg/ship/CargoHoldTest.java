@@ -0,0 +1,94 @@
+package srg.ship;
+
+import org.junit.Test;
+import srg.exceptions.InsufficientCapcaityException;
+import srg.exceptions.InsufficientResourcesException;
+import srg.resources.FuelContainer;
+import srg.resources.FuelGrade;
+import srg.resources.ResourceContainer;
+import srg.resources.ResourceType;
+
+import static org.junit.Assert.assertEquals;
+
+public class CargoHoldTest {
+    private CargoHold filledCargoHold() throws InsufficientCapcaityException {
+        CargoHold cargoHold = new CargoHold(RoomTier.AVERAGE);
+        cargoHold.storeResource(new FuelContainer(FuelGrade.TRITIUM, 100));
+        cargoHold.storeResource(new ResourceContainer(ResourceType.REPAIR_KIT, 4));
+        cargoHold.storeResource(new FuelContainer(FuelGrade.HYPERDRIVE_CORE, 3));
+        cargoHold.storeResource(new FuelContainer(FuelGrade.TRITIUM, 50));
+        cargoHold.storeResource(new ResourceContainer(ResourceType.REPAIR_KIT, 2));
+        return cargoHold;
+    }
+
+    @Test
+    public void totalsAfterStoreTest() throws InsufficientCapcaityException {
+        CargoHold cargoHold = filledCargoHold();
+        assertEquals(cargoHold.getTotalAmountByType(FuelGrade.TRITIUM), 150);
+        assertEquals(cargoHold.getTotalAmountByType(FuelGrade.HYPERDRIVE_CORE), 3);
+        assertEquals(cargoHold.getTotalAmountByType(ResourceType.FUEL), 153);
+        assertEquals(cargoHold.getTotalAmountByType(ResourceType.REPAIR_KIT), 6);
+        assertEquals(cargoHold.totalsMatchResources(), true);
+    }
+
+    @Test
+    public void totalsAfterConsumeTest() throws InsufficientCapcaityException,
+            InsufficientResourcesException {
+        CargoHold cargoHold = filledCargoHold();
+        cargoHold.consumeResource(FuelGrade.TRITIUM, 120);
+        cargoHold.consumeResource(ResourceType.REPAIR_KIT, 5);
+        assertEquals(cargoHold.getTotalAmountByType(FuelGrade.TRITIUM), 30);
+        assertEquals(cargoHold.getTotalAmountByType(ResourceType.FUEL), 33);
+        assertEquals(cargoHold.getTotalAmountByType(ResourceType.REPAIR_KIT), 1);
+        assertEquals(cargoHold.totalsMatchResources(), true);
+    }
+
+    @Test
+    public void drainInPlaceTest() throws InsufficientCapcaityException,
+            InsufficientResourcesException {
+        CargoHold cargoHold = filledCargoHold();
+        cargoHold.consumeResource(FuelGrade.TRITIUM, 30);
+        // Drained where it is rather than taken out and stored again
+        ResourceContainer first = cargoHold.getResources().get(0);
+        assertEquals(((FuelContainer) first).getFuelGrade(), FuelGrade.TRITIUM);
+        assertEquals(first.getAmount(), 70);
+        cargoHold.consumeResource(FuelGrade.TRITIUM, 90);
+        assertEquals(cargoHold.getResources().size(), 4);
+        assertEquals(cargoHold.getResources().get(0).getType(), ResourceType.REPAIR_KIT);
+        assertEquals(cargoHold.getResources().get(2).getAmount(), 30);
+    }
+
+    @Test(expected = InsufficientResourcesException.class)
+    public void consumeTooMuchTest() throws InsufficientCapcaityException,
+            InsufficientResourcesException {
+        filledCargoHold().consumeResource(FuelGrade.HYPERDRIVE_CORE, 4);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void resourcesUnmodifiableTest() throws InsufficientCapcaityException {
+        filledCargoHold().getResources().clear();
+    }
+
+    @Test
+    public void resourcesCopiedTest() throws InsufficientCapcaityException {
+        CargoHold cargoHold = new CargoHold(RoomTier.BASIC);
+        ResourceContainer stored = new FuelContainer(FuelGrade.TRITIUM, 100);
+        cargoHold.storeResource(stored);
+        stored.setAmount(1);
+        cargoHold.getResources().get(0).setAmount(5);
+        assertEquals(cargoHold.getTotalAmountByType(FuelGrade.TRITIUM), 100);
+        assertEquals(cargoHold.getResources().get(0).getAmount(), 100);
+        assertEquals(cargoHold.totalsMatchResources(), true);
+    }
+
+    @Test
+    public void tryConsumeTest() throws InsufficientCapcaityException {
+        CargoHold cargoHold = filledCargoHold();
+        assertEquals(cargoHold.tryConsumeResource(FuelGrade.TRITIUM, 151), false);
+        assertEquals(cargoHold.tryConsumeResource(ResourceType.REPAIR_KIT, 7), false);
+        assertEquals(cargoHold.getResources().size(), 5);
+        assertEquals(cargoHold.tryConsumeResource(FuelGrade.TRITIUM, 150), true);
+        assertEquals(cargoHold.tryConsumeResource(ResourceType.REPAIR_KIT, 6), true);
+        assertEquals(cargoHold.getResources().size(), 1);
+    }
+}
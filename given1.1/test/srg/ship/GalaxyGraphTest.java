@@ -0,0 +1,105 @@
+package srg.ship;
+
+import org.junit.Test;
+import srg.ports.Position;
+import srg.ports.SpacePort;
+import srg.ports.SpatialIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class GalaxyGraphTest {
+    private List<SpacePort> randomMap(int size) {
+        Random rand = new Random(11);
+        List<SpacePort> ports = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            ports.add(new SpacePort("Port " + i, new Position(rand.nextInt(0, 2000),
+                    rand.nextInt(0, 2000), rand.nextInt(0, 2000))));
+        }
+        return ports;
+    }
+
+    @Test
+    public void sameAsScanTest() {
+        List<SpacePort> ports = randomMap(400);
+        checkSameAsScan(ports, new GalaxyGraph(ports));
+    }
+
+    @Test
+    public void byPortSameAsScanTest() {
+        List<SpacePort> ports = randomMap(400);
+        checkSameAsScan(ports, new GalaxyGraph(ports, SpatialIndex.of(ports), true));
+    }
+
+    @Test
+    public void smallRowCacheSameAsScanTest() {
+        // Four slots for 400 ports, so rows keep replacing each other and must be found again
+        List<SpacePort> ports = randomMap(400);
+        GalaxyGraph graph = new GalaxyGraph(ports, SpatialIndex.of(ports), 4);
+        checkSameAsScan(ports, graph);
+        checkSameAsScan(ports, graph);
+    }
+
+    private void checkSameAsScan(List<SpacePort> ports, GalaxyGraph graph) {
+        for (RoomTier tier : RoomTier.values()) {
+            int maxFly = NavigationRoom.getMaximumFlyDistance(tier);
+            int maxJump = NavigationRoom.getMaximumJumpDistance(tier);
+            for (int i = 0; i < ports.size(); i++) {
+                GalaxyGraph.Neighbours fly = graph.getFlyNeighbours(tier, i);
+                GalaxyGraph.Neighbours jump = graph.getJumpNeighbours(tier, i);
+                Position position = ports.get(i).getPosition();
+                List<Integer> flyTargets = new ArrayList<>();
+                List<Integer> jumpTargets = new ArrayList<>();
+                for (int j = 0; j < ports.size(); j++) {
+                    int distance = position.distanceTo(ports.get(j).getPosition());
+                    if (j != i && distance <= maxFly) {
+                        flyTargets.add(j);
+                    } else if (distance > maxFly && distance <= maxJump) {
+                        jumpTargets.add(j);
+                    }
+                }
+                assertEquals(targets(fly), flyTargets);
+                assertEquals(targets(jump), jumpTargets);
+                for (int k = 0; k < fly.size(); k++) {
+                    assertEquals(fly.distance(k),
+                            position.distanceTo(ports.get(fly.target(k)).getPosition()));
+                    assertEquals(fly.find(fly.target(k)), k);
+                }
+            }
+        }
+    }
+
+    private List<Integer> targets(GalaxyGraph.Neighbours neighbours) {
+        List<Integer> targets = new ArrayList<>();
+        for (int k = 0; k < neighbours.size(); k++) {
+            targets.add(neighbours.target(k));
+        }
+        return targets;
+    }
+
+    @Test
+    public void findMissingTest() {
+        List<SpacePort> ports = List.of(new SpacePort("A", new Position(0, 0, 0)),
+                new SpacePort("B", new Position(100, 0, 0)),
+                new SpacePort("C", new Position(5000, 0, 0)));
+        GalaxyGraph graph = new GalaxyGraph(ports);
+        GalaxyGraph.Neighbours fly = graph.getFlyNeighbours(RoomTier.BASIC, 0);
+        assertEquals(fly.find(1), 0);
+        assertEquals(fly.find(0), -1);
+        assertEquals(fly.find(2), -1);
+        assertEquals(graph.getJumpNeighbours(RoomTier.PRIME, 0).size(), 0);
+        assertEquals(graph.indexOf(new SpacePort("A", new Position(0, 0, 0))), -1);
+    }
+
+    @Test
+    public void sharedByRoomsTest() {
+        GalaxyGraph graph = new GalaxyGraph(randomMap(50));
+        NavigationRoom basic = new NavigationRoom(RoomTier.BASIC, graph);
+        NavigationRoom prime = new NavigationRoom(RoomTier.PRIME, graph);
+        assertEquals(basic.getPortsInFlyRange().size() <= prime.getPortsInFlyRange().size(), true);
+        assertEquals(basic.getGalaxyGraph(), prime.getGalaxyGraph());
+    }
+}
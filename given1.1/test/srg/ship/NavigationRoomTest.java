@@ -0,0 +1,86 @@
+package srg.ship;
+
+import org.junit.Before;
+import org.junit.Test;
+import srg.exceptions.InsufficientCapcaityException;
+import srg.exceptions.InsufficientResourcesException;
+import srg.exceptions.NoPathException;
+import srg.ports.Position;
+import srg.ports.SpacePort;
+import srg.resources.FuelContainer;
+import srg.resources.FuelGrade;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class NavigationRoomTest {
+    private NavigationRoom navigationRoom;
+    private CargoHold cargoHold;
+
+    @Before
+    public void setUp() throws InsufficientCapcaityException {
+        // B is in fly range of A, C only in jump range, and D out of range
+        List<SpacePort> ports = List.of(new SpacePort("A", new Position(0, 0, 0)),
+                new SpacePort("B", new Position(100, 0, 0)),
+                new SpacePort("C", new Position(400, 0, 0)),
+                new SpacePort("D", new Position(5000, 0, 0)));
+        navigationRoom = new NavigationRoom(RoomTier.BASIC, ports);
+        cargoHold = new CargoHold(RoomTier.BASIC);
+        cargoHold.storeResource(new FuelContainer(FuelGrade.TRITIUM, 10));
+        cargoHold.storeResource(new FuelContainer(FuelGrade.HYPERDRIVE_CORE, 1));
+    }
+
+    @Test
+    public void tryFlyToTest() {
+        assertEquals(navigationRoom.tryFlyTo("Nowhere", cargoHold), NavResult.NO_SUCH_PORT);
+        assertEquals(navigationRoom.tryFlyTo("C", cargoHold), NavResult.OUT_OF_RANGE);
+        assertEquals(navigationRoom.tryFlyTo("B", cargoHold), NavResult.NOT_ENOUGH_FUEL);
+        assertEquals(navigationRoom.getCurrentPort().getName(), "A");
+
+        cargoHold.tryConsumeResource(FuelGrade.HYPERDRIVE_CORE, 1);
+        assertEquals(navigationRoom.tryJumpTo("D", cargoHold), NavResult.OUT_OF_RANGE);
+        assertEquals(navigationRoom.tryJumpTo("C", cargoHold), NavResult.NOT_ENOUGH_FUEL);
+    }
+
+    @Test
+    public void tryJumpToTest() {
+        NavResult result = navigationRoom.tryJumpTo("C", cargoHold);
+        assertEquals(result.isOk(), true);
+        assertEquals(navigationRoom.getCurrentPort().getName(), "C");
+        assertEquals(cargoHold.getTotalAmountByType(FuelGrade.HYPERDRIVE_CORE), 0);
+        // Only the one core, so there is no jumping back
+        assertEquals(navigationRoom.tryJumpTo("A", cargoHold), NavResult.NOT_ENOUGH_FUEL);
+    }
+
+    @Test
+    public void tryBrokenTest() {
+        while (!navigationRoom.isBroken()) {
+            navigationRoom.damage();
+        }
+        assertEquals(navigationRoom.tryJumpTo("C", cargoHold), NavResult.BROKEN);
+    }
+
+    @Test
+    public void stacklessTest() {
+        NoPathException stackless = new NoPathException("Error Here", false);
+        assertEquals(stackless.getStackTrace().length, 0);
+        assertEquals(stackless.getMessage(), "Error Here");
+        assertEquals(new NoPathException("Error Here", true).getStackTrace().length > 0, true);
+    }
+
+    @Test(expected = NoPathException.class)
+    public void flyToStillThrowsTest() throws InsufficientResourcesException, NoPathException {
+        navigationRoom.flyTo("Nowhere", cargoHold);
+    }
+
+    @Test
+    public void findSpacePortTest() throws NoPathException {
+        assertEquals(navigationRoom.findSpacePort("C").getPosition().toString(), "(400, 0, 0)");
+        assertEquals(navigationRoom.findSpacePort("c"), null);
+        assertEquals(navigationRoom.getSpacePortFromName("D").getName(), "D");
+        assertEquals(navigationRoom.completePortName("b", 10).size(), 1);
+        assertEquals(navigationRoom.completePortName("b", 10).get(0).getName(), "B");
+        assertEquals(navigationRoom.completePortName("", 2).size(), 2);
+    }
+}
@@ -0,0 +1,64 @@
+package srg.ship;
+
+import org.junit.Test;
+import srg.exceptions.NoPathException;
+import srg.ports.PortTable;
+import srg.ports.Position;
+import srg.ports.SpacePort;
+import srg.resources.FuelGrade;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class RoutePlannerTest {
+    private List<SpacePort> lineMap() {
+        List<SpacePort> ports = new ArrayList<>();
+        for (int i = 0; i <= 4; i++) {
+            ports.add(new SpacePort("Port " + i, new Position(i * 150, 0, 0)));
+        }
+        ports.add(new SpacePort("Far", new Position(5000, 0, 0)));
+        return ports;
+    }
+
+    @Test
+    public void mixFlyAndJumpTest() throws NoPathException {
+        NavigationRoom navigationRoom = new NavigationRoom(RoomTier.BASIC, lineMap());
+        Route route = new RoutePlanner(navigationRoom).planRoute("Port 4");
+        assertEquals(route.getCost(), 350);
+        assertEquals(route.getPorts().size(), 2);
+        assertEquals(route.getFuelNeeded(FuelGrade.TRITIUM), 150);
+        assertEquals(route.getFuelNeeded(FuelGrade.HYPERDRIVE_CORE), 1);
+    }
+
+    @Test
+    public void expensiveJumpTest() throws NoPathException {
+        NavigationRoom navigationRoom = new NavigationRoom(RoomTier.BASIC, lineMap());
+        Route route = new RoutePlanner(navigationRoom, 10000).planRoute("Port 4");
+        assertEquals(route.getCost(), 600);
+        assertEquals(route.getPorts().size(), 4);
+        assertEquals(route.getFuelNeeded(FuelGrade.HYPERDRIVE_CORE), 0);
+    }
+
+    @Test(expected = NoPathException.class)
+    public void unreachableTest() throws NoPathException {
+        NavigationRoom navigationRoom = new NavigationRoom(RoomTier.BASIC, lineMap());
+        new RoutePlanner(navigationRoom).planRoute("Far");
+    }
+
+    @Test
+    public void portTableTest() throws NoPathException {
+        List<SpacePort> ports = lineMap();
+        Route objects = new RoutePlanner(new NavigationRoom(RoomTier.BASIC, ports)).planRoute("Port 4");
+        Route rows = new RoutePlanner(new NavigationRoom(RoomTier.BASIC, PortTable.of(ports))).planRoute("Port 4");
+        assertEquals(rows.getCost(), objects.getCost());
+        assertEquals(rows.getPorts().toString(), objects.getPorts().toString());
+    }
+
+    @Test(expected = NoPathException.class)
+    public void notOnMapTest() throws NoPathException {
+        new RoutePlanner(new NavigationRoom(RoomTier.BASIC, lineMap()))
+                .planRoute(new SpacePort("Port 4", new Position(600, 0, 0)));
+    }
+}
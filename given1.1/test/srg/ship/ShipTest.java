@@ -0,0 +1,63 @@
+package srg.ship;
+
+import org.junit.Before;
+import org.junit.Test;
+import srg.cli.given.MapGenerator;
+import srg.exceptions.InsufficientResourcesException;
+import srg.exceptions.NoPathException;
+import srg.ports.SpacePort;
+import srg.resources.ResourceType;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class ShipTest {
+    private Ship ship;
+
+    @Before
+    public void setUp() {
+        List<SpacePort> ports = new MapGenerator().generateMap();
+        ship = new Ship("Leaden Matter", "Jesko Thoch", "SCS1249", RoomTier.BASIC, RoomTier.BASIC,
+                ports);
+    }
+
+    @Test
+    public void actionsCachedTest() {
+        List<String> actions = ship.getActions();
+        assertSame(ship.getActions(), actions);
+    }
+
+    @Test
+    public void actionsAfterFlightTest() throws InsufficientResourcesException, NoPathException {
+        List<String> actions = ship.getActions();
+        long version = ship.getNavigationRoom().getVersion();
+        SpacePort destination = ship.getNavigationRoom().getPortsInFlyRange().get(0);
+        ship.getNavigationRoom().flyTo(destination.getName(), ship.getCargoHold());
+
+        assertEquals(ship.getNavigationRoom().getVersion() > version, true);
+        List<String> moved = ship.getActions();
+        assertNotSame(moved, actions);
+        assertEquals(moved.stream().anyMatch(action -> action.startsWith("fly to \"Omega Tagon\"")),
+                true);
+    }
+
+    @Test
+    public void actionsAfterCargoChangeTest() throws InsufficientResourcesException {
+        assertEquals(ship.getActions().contains("repair CargoHold [COST: 1 REPAIR_KIT]"), true);
+        ship.getCargoHold().consumeResource(ResourceType.REPAIR_KIT, 5);
+        assertEquals(ship.getActions().contains("repair CargoHold [COST: 1 REPAIR_KIT]"), false);
+    }
+
+    @Test
+    public void versionTest() {
+        long version = ship.getCargoHold().getVersion();
+        ship.getCargoHold().damage();
+        assertEquals(ship.getCargoHold().getVersion() > version, true);
+        version = ship.getCargoHold().getVersion();
+        ship.getCargoHold().upgrade();
+        assertEquals(ship.getCargoHold().getVersion() > version, true);
+    }
+}